@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.exceptions.WrongFileExtension;
+import org.cqfn.astranaut.core.utils.JsonSerializer;
+import org.cqfn.astranaut.core.utils.TreeVisualizer;
+import org.cqfn.trastformer.utils.StreamingJsonSerializer;
+import org.cqfn.uast.lang.SourceCodeParser;
+import org.cqfn.uast.lang.java.gen.CodeBuilder;
+import org.cqfn.uast.lang.java.gen.CodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of producing results from a Java tree: code generation,
+ * JSON export and image rendering.
+ * Only Java is covered since code generation supports only Java.
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExportBenchmark {
+    /**
+     * The input: example or synthetic.
+     */
+    @Param({Inputs.EXAMPLE, Inputs.SYNTHETIC})
+    public String input;
+
+    /**
+     * The directory for generated files.
+     */
+    private Path directory;
+
+    /**
+     * The parsed tree.
+     */
+    private Node tree;
+
+    /**
+     * Parses the source.
+     * @throws IOException If the files cannot be read or written
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("trastformer-bench");
+        this.tree = new SourceCodeParser(
+            new Inputs().source("java", this.input, this.directory).toString()
+        ).parse("java", true, false);
+    }
+
+    /**
+     * Removes generated files.
+     * @throws IOException If the files cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        new TempFiles(this.directory).delete();
+    }
+
+    /**
+     * Generates code.
+     * @return The code
+     */
+    @Benchmark
+    public String generate() {
+        final CodeBuilder builder = new CodeBuilder();
+        new CodeGenerator(builder).generate(this.tree);
+        return builder.toString();
+    }
+
+    /**
+     * Exports the tree by the astranaut JSON serializer.
+     * @return A boolean {@code true} if the file was written
+     */
+    @Benchmark
+    public boolean json() {
+        return new JsonSerializer(this.tree)
+            .serializeToFile(this.directory.resolve("tree.json").toString());
+    }
+
+    /**
+     * Exports the tree by the streaming JSON serializer.
+     * @throws IOException If the file cannot be written
+     */
+    @Benchmark
+    public void streamingJson() throws IOException {
+        new StreamingJsonSerializer(this.tree, true)
+            .serializeToFile(this.directory.resolve("stream.json"));
+    }
+
+    /**
+     * Renders the tree into an SVG image.
+     * @throws IOException If the file cannot be written
+     * @throws WrongFileExtension If the image format is not supported
+     */
+    @Benchmark
+    public void image() throws IOException, WrongFileExtension {
+        new TreeVisualizer(this.tree).visualize(new File(this.directory.toFile(), "tree.svg"));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.tree.StringPool;
+import org.cqfn.trastformer.tree.TreeInterner;
+import org.cqfn.uast.lang.SourceCodeParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the heap occupied by parsed trees held at the same time,
+ * with data strings as created by the parser and taken from a string pool.
+ * The retained heap per tree is reported as the {@code bytes} secondary result.
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FootprintBenchmark {
+    /**
+     * The number of trees held at the same time.
+     */
+    private static final int TREES = 50;
+
+    /**
+     * The number of garbage collections requested before the heap is measured.
+     */
+    private static final int COLLECTIONS = 3;
+
+    /**
+     * The language of the source.
+     */
+    @Param({"java", "js", "py"})
+    public String language;
+
+    /**
+     * The input: example or synthetic.
+     */
+    @Param({Inputs.EXAMPLE, Inputs.SYNTHETIC})
+    public String input;
+
+    /**
+     * Whether data strings are taken from a string pool.
+     */
+    @Param({"false", "true"})
+    public boolean interned;
+
+    /**
+     * The directory for generated files.
+     */
+    private Path directory;
+
+    /**
+     * The source file.
+     */
+    private Path source;
+
+    /**
+     * Prepares the source file.
+     * @throws IOException If the file cannot be generated
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("trastformer-bench");
+        this.source = new Inputs().source(this.language, this.input, this.directory);
+    }
+
+    /**
+     * Removes generated files.
+     * @throws IOException If the files cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        new TempFiles(this.directory).delete();
+    }
+
+    /**
+     * Parses the source several times and measures the heap occupied by the trees.
+     * @param footprint Where to store the retained heap per tree
+     * @return The trees
+     * @throws IOException If the file cannot be read
+     */
+    @Benchmark
+    public List<Node> hold(final Footprint footprint) throws IOException {
+        final long before = FootprintBenchmark.used();
+        final List<Node> trees = new ArrayList<>(FootprintBenchmark.TREES);
+        final TreeInterner interner = new TreeInterner(new StringPool(1 << 16));
+        for (int index = 0; index < FootprintBenchmark.TREES; index = index + 1) {
+            Node tree = new SourceCodeParser(this.source.toString())
+                .parse(this.language, true, false);
+            if (this.interned) {
+                tree = interner.intern(tree);
+            }
+            trees.add(tree);
+        }
+        footprint.bytes = (FootprintBenchmark.used() - before) / FootprintBenchmark.TREES;
+        return trees;
+    }
+
+    /**
+     * Returns the size of the used heap after garbage collection.
+     * @return The number of bytes
+     */
+    private static long used() {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int index = 0; index < FootprintBenchmark.COLLECTIONS; index = index + 1) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The secondary result: retained heap per tree.
+     *
+     * @since 0.1
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        /**
+         * The number of bytes retained by a tree.
+         */
+        public long bytes;
+
+        /**
+         * Resets the result before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0;
+        }
+    }
+}
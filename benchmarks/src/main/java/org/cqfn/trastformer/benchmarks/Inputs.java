@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs of benchmarks: sources and rules from the examples of the project,
+ * and large synthetic ones.
+ * The examples are looked up in the directory specified by the {@code trastformer.examples}
+ * system property, by default {@code src/main/examples} of the current directory.
+ *
+ * @since 0.1
+ */
+public final class Inputs {
+    /**
+     * The name of the example input.
+     */
+    public static final String EXAMPLE = "example";
+
+    /**
+     * The name of the synthetic input.
+     */
+    public static final String SYNTHETIC = "synthetic";
+
+    /**
+     * The name of the large rule set.
+     */
+    public static final String LARGE = "large";
+
+    /**
+     * The number of functions in a synthetic source.
+     */
+    private static final int FUNCTIONS = 2000;
+
+    /**
+     * The number of generated rules in the large rule set.
+     */
+    private static final int RULES = 200;
+
+    /**
+     * The example with sources in all supported languages.
+     */
+    private static final String SOURCES = "all-operator-replacer";
+
+    /**
+     * Examples whose rules form the large rule set.
+     */
+    private static final String[] EXAMPLES = {
+        "all-operator-replacer",
+        "charset-injector",
+        "field-injector",
+        "identifier-changer",
+        "single-operator-replacer",
+    };
+
+    /**
+     * The directory with examples.
+     */
+    private final Path examples;
+
+    /**
+     * Constructor.
+     */
+    public Inputs() {
+        this.examples = Paths.get(System.getProperty("trastformer.examples", "src/main/examples"));
+    }
+
+    /**
+     * Returns a source file.
+     * @param language The language: java, js or py
+     * @param input The input: {@link #EXAMPLE} or {@link #SYNTHETIC}
+     * @param directory The directory to store a generated file
+     * @return The path to the file
+     * @throws IOException If the file cannot be generated
+     */
+    public Path source(final String language, final String input, final Path directory)
+        throws IOException {
+        final Path path;
+        if (Inputs.SYNTHETIC.equals(input)) {
+            path = directory.resolve(String.format("Synthetic.%s", language));
+            Files.write(path, Inputs.synthetic(language), StandardCharsets.UTF_8);
+        } else {
+            path = this.examples.resolve(Inputs.SOURCES).resolve("sources")
+                .resolve(String.format("Program.%s", language));
+        }
+        return path;
+    }
+
+    /**
+     * Returns the text of a rule set.
+     * The small set is the set of a single example, the large set is combined
+     * from the sets of several examples and generated rules that rename identifiers.
+     * @param size The size: {@link #LARGE} or any other value for the small set
+     * @return The DSL text
+     * @throws IOException If the rules of examples cannot be read
+     */
+    public String rules(final String size) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        if (Inputs.LARGE.equals(size)) {
+            for (final String example : Inputs.EXAMPLES) {
+                text.append(this.dsl(example)).append('\n');
+            }
+            for (int index = 0; index < Inputs.RULES; index = index + 1) {
+                text.append(
+                    String.format(
+                        "Identifier<\"name%d\"> -> Identifier<\"renamed%d\">;\n", index, index
+                    )
+                );
+            }
+        } else {
+            text.append(this.dsl(Inputs.SOURCES));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads the rules of an example.
+     * @param example The name of the example
+     * @return The DSL text
+     * @throws IOException If the file cannot be read
+     */
+    private String dsl(final String example) throws IOException {
+        return new String(
+            Files.readAllBytes(this.examples.resolve(example).resolve("rules.dsl")),
+            StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Generates a large source.
+     * @param language The language: java, js or py
+     * @return Lines of the source
+     */
+    private static List<String> synthetic(final String language) {
+        final List<String> lines = new ArrayList<>(Inputs.FUNCTIONS * 6);
+        if ("java".equals(language)) {
+            lines.add("public class Synthetic {");
+        }
+        for (int index = 0; index < Inputs.FUNCTIONS; index = index + 1) {
+            if ("py".equals(language)) {
+                lines.add(String.format("def name%d(alpha, beta):", index));
+                lines.add(String.format("    gamma = alpha + beta * %d", index));
+                lines.add(String.format("    if gamma > %d:", index));
+                lines.add("        gamma = gamma - alpha / (beta + 1)");
+                lines.add("    return gamma");
+            } else {
+                if ("java".equals(language)) {
+                    lines.add(String.format("    public int name%d(int alpha, int beta) {", index));
+                    lines.add(String.format("        int gamma = alpha + beta * %d;", index));
+                } else {
+                    lines.add(String.format("    function name%d(alpha, beta) {", index));
+                    lines.add(String.format("        let gamma = alpha + beta * %d;", index));
+                }
+                lines.add(String.format("        if (gamma > %d) {", index));
+                lines.add("            gamma = gamma - alpha / (beta + 1);");
+                lines.add("        }");
+                lines.add("        return gamma;");
+                lines.add("    }");
+            }
+        }
+        if ("java".equals(language)) {
+            lines.add("}");
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.uast.lang.SourceCodeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of parsing source files into unified syntax trees.
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+    /**
+     * The language of the source.
+     */
+    @Param({"java", "js", "py"})
+    public String language;
+
+    /**
+     * The input: example or synthetic.
+     */
+    @Param({Inputs.EXAMPLE, Inputs.SYNTHETIC})
+    public String input;
+
+    /**
+     * The directory for generated files.
+     */
+    private Path directory;
+
+    /**
+     * The source file.
+     */
+    private Path source;
+
+    /**
+     * Prepares the source file.
+     * @throws IOException If the file cannot be generated
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("trastformer-bench");
+        this.source = new Inputs().source(this.language, this.input, this.directory);
+    }
+
+    /**
+     * Removes generated files.
+     * @throws IOException If the files cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        new TempFiles(this.directory).delete();
+    }
+
+    /**
+     * Parses the source file.
+     * @return The syntax tree
+     * @throws IOException If the file cannot be read
+     */
+    @Benchmark
+    public Node parse() throws IOException {
+        return new SourceCodeParser(this.source.toString()).parse(this.language, true, false);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.api.TreeProcessor;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.rules.DslParser;
+import org.cqfn.trastformer.rules.RuleSetCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of loading DSL rules: by the astranaut tree processor, by the parser
+ * and from the warm rules cache.
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RulesBenchmark {
+    /**
+     * The size of the rule set: small or large.
+     */
+    @Param({"small", Inputs.LARGE})
+    public String size;
+
+    /**
+     * The directory for generated files.
+     */
+    private Path directory;
+
+    /**
+     * The DSL text.
+     */
+    private String text;
+
+    /**
+     * The DSL file.
+     */
+    private Path file;
+
+    /**
+     * The rules cache.
+     */
+    private RuleSetCache cache;
+
+    /**
+     * Prepares the rules and fills the cache.
+     * @throws IOException If the files cannot be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("trastformer-bench");
+        this.text = new Inputs().rules(this.size);
+        this.file = this.directory.resolve("rules.dsl");
+        Files.write(this.file, this.text.getBytes(StandardCharsets.UTF_8));
+        this.cache = new RuleSetCache(this.directory.resolve("cache"));
+        this.cache.load(this.text, "java");
+    }
+
+    /**
+     * Removes generated files.
+     * @throws IOException If the files cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        new TempFiles(this.directory).delete();
+    }
+
+    /**
+     * Loads rules by the astranaut tree processor.
+     * @return The processor
+     * @throws ProcessorException If the file cannot be read
+     */
+    @Benchmark
+    public TreeProcessor loadRules() throws ProcessorException {
+        final TreeProcessor processor = new TreeProcessor();
+        processor.loadRules(this.file.toString());
+        return processor;
+    }
+
+    /**
+     * Parses rules from the DSL text.
+     * @return The rules
+     */
+    @Benchmark
+    public List<Instruction<Transformation>> parse() {
+        return new DslParser().parse(this.text);
+    }
+
+    /**
+     * Loads rules from the warm cache.
+     * @return The rules
+     */
+    @Benchmark
+    public List<Instruction<Transformation>> loadCached() {
+        return this.cache.load(this.text, "java");
+    }
+}
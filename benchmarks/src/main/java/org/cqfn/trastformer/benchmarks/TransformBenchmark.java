@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.api.TreeProcessor;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.DslParser;
+import org.cqfn.uast.lang.FactorySelector;
+import org.cqfn.uast.lang.SourceCodeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of applying rules to a parsed tree: by the astranaut tree processor,
+ * which tries each rule on each node, and by the rule dispatcher of the tool.
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransformBenchmark {
+    /**
+     * The language of the source.
+     */
+    @Param({"java", "js", "py"})
+    public String language;
+
+    /**
+     * The input: example or synthetic.
+     */
+    @Param({Inputs.EXAMPLE, Inputs.SYNTHETIC})
+    public String input;
+
+    /**
+     * The size of the rule set: small or large.
+     */
+    @Param({"small", Inputs.LARGE})
+    public String size;
+
+    /**
+     * The directory for generated files.
+     */
+    private Path directory;
+
+    /**
+     * The parsed tree.
+     */
+    private Node tree;
+
+    /**
+     * The astranaut tree processor with loaded rules.
+     */
+    private TreeProcessor processor;
+
+    /**
+     * The compiled rules.
+     */
+    private CompiledRules rules;
+
+    /**
+     * Parses the source and loads the rules.
+     * @throws IOException If the files cannot be read or written
+     */
+    @Setup
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("trastformer-bench");
+        final Inputs inputs = new Inputs();
+        this.tree = new SourceCodeParser(
+            inputs.source(this.language, this.input, this.directory).toString()
+        ).parse(this.language, true, false);
+        final String text = inputs.rules(this.size);
+        final Factory factory = FactorySelector.INSTANCE.select(this.language);
+        this.processor = new TreeProcessor();
+        this.processor.setFactory(factory);
+        this.processor.loadRulesFromString(text);
+        this.rules = new CompiledRules(new DslParser().parse(text), factory);
+    }
+
+    /**
+     * Removes generated files.
+     * @throws IOException If the files cannot be removed
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        new TempFiles(this.directory).delete();
+    }
+
+    /**
+     * Transforms the tree by the astranaut tree processor.
+     * @return The transformed tree
+     */
+    @Benchmark
+    public Node treeProcessor() {
+        return this.processor.transform(this.tree);
+    }
+
+    /**
+     * Transforms the tree by the rule dispatcher.
+     * @return The transformed tree
+     */
+    @Benchmark
+    public Node dispatcher() {
+        return this.rules.transform(this.tree);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import com.beust.jcommander.ParameterException;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detects the programming language of a source file by its extension.
+ *
+ * @since 0.1
+ */
+public final class LanguageDetector {
+    /**
+     * The list of supported source extensions that name a language directly.
+     */
+    private static final List<String> LANGUAGES = Arrays.asList("java", "js", "py");
+
+    /**
+     * The text file extension.
+     */
+    private static final String TXT = "txt";
+
+    /**
+     * The language to be used for text files, may be empty.
+     */
+    private final String language;
+
+    /**
+     * Constructor.
+     * @param language The language specified by the {@code --lang} option, may be empty
+     */
+    public LanguageDetector(final String language) {
+        this.language = language;
+    }
+
+    /**
+     * Checks whether the language of a file can be detected.
+     * @param file The source file
+     * @return A boolean {@code true} if the file is supported or {@code false} otherwise
+     */
+    public boolean isSupported(final File file) {
+        final String ext = LanguageDetector.extension(file);
+        return LanguageDetector.LANGUAGES.contains(ext)
+            || LanguageDetector.TXT.equals(ext) && !this.language.isEmpty();
+    }
+
+    /**
+     * Detects the language of a source file.
+     * @param file The source file
+     * @return The language name
+     * @throws ParameterException If the language of a text file is not specified
+     */
+    public String detect(final File file) {
+        final String ext = LanguageDetector.extension(file);
+        String lang = ext;
+        if (LanguageDetector.TXT.equals(ext)) {
+            if (this.language.isEmpty()) {
+                throw new ParameterException(
+                    "The option [--lang] should be specified with txt source file"
+                );
+            } else {
+                lang = this.language;
+            }
+        }
+        return lang;
+    }
+
+    /**
+     * Checks whether a language is supported.
+     * @param language The language name
+     * @return A boolean {@code true} if the language is supported or {@code false} otherwise
+     */
+    static boolean isLanguage(final String language) {
+        return LanguageDetector.LANGUAGES.contains(language);
+    }
+
+    /**
+     * Extracts the extension of a file.
+     * @param file The file
+     * @return The extension without a dot
+     */
+    private static String extension(final File file) {
+        final String name = file.getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -23,30 +23,53 @@
  */
 package org.cqfn.trastformer;
 
+import com.beust.jcommander.DynamicParameter;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.converters.FileConverter;
+import com.beust.jcommander.validators.PositiveInteger;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.logging.Logger;
-import org.cqfn.astranaut.api.TreeProcessor;
-import org.cqfn.astranaut.core.Node;
-import org.cqfn.astranaut.core.exceptions.BaseException;
-import org.cqfn.astranaut.core.exceptions.WrongFileExtension;
-import org.cqfn.astranaut.core.utils.FilesWriter;
-import org.cqfn.astranaut.core.utils.JsonSerializer;
-import org.cqfn.astranaut.core.utils.TreeVisualizer;
 import org.cqfn.astranaut.exceptions.ProcessorException;
 import org.cqfn.astranaut.utils.cli.RulesFileConverter;
+import org.cqfn.trastformer.batch.BatchRunner;
+import org.cqfn.trastformer.batch.Summary;
+import org.cqfn.trastformer.cli.DirectoryValidator;
 import org.cqfn.trastformer.cli.FileNameValidator;
+import org.cqfn.trastformer.cli.TreePathValidator;
+import org.cqfn.trastformer.incremental.IncrementalProcessor;
+import org.cqfn.trastformer.incremental.Manifest;
+import org.cqfn.trastformer.metrics.Metrics;
+import org.cqfn.trastformer.metrics.StatsReport;
+import org.cqfn.trastformer.mutants.MutantRunner;
+import org.cqfn.trastformer.mutants.SiteSampler;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.RuleSetCache;
+import org.cqfn.trastformer.server.Client;
+import org.cqfn.trastformer.server.Request;
+import org.cqfn.trastformer.server.Response;
+import org.cqfn.trastformer.server.Server;
+import org.cqfn.trastformer.server.Token;
+import org.cqfn.trastformer.store.OutputStore;
+import org.cqfn.trastformer.tree.TreeCache;
+import org.cqfn.trastformer.tree.TreeScope;
+import org.cqfn.trastformer.utils.ContentHash;
+import org.cqfn.trastformer.watch.Watcher;
 import org.cqfn.uast.cli.ImagePathValidator;
-import org.cqfn.uast.cli.JsonPathValidator;
 import org.cqfn.uast.cli.LanguageConverter;
-import org.cqfn.uast.lang.FactorySelector;
-import org.cqfn.uast.lang.SourceCodeParser;
-import org.cqfn.uast.lang.java.gen.CodeBuilder;
-import org.cqfn.uast.lang.java.gen.CodeGenerator;
 
 /**
  * Main class.
@@ -60,52 +83,230 @@ public final class Main {
      */
     private static final Logger LOG = Logger.getLogger(Main.class.getName());
 
+    /**
+     * The default port of the server.
+     */
+    private static final int PORT = 8357;
+
+    /**
+     * The default time a connection to the server may stay idle, in seconds.
+     */
+    private static final int IDLE = 30;
+
+    /**
+     * The default number of threads that write results in batch mode.
+     */
+    private static final int WRITERS = 2;
+
+    /**
+     * The default maximum number of passes in fixpoint mode.
+     */
+    private static final int PASSES = 10;
+
     /**
      * The source file.
      */
     @Parameter(
         names = { "--code", "-c" },
         converter = FileConverter.class,
-        required = true,
         arity = 1,
         description = "The file with source code. Expected extensions: .txt, .java, .js, .py"
     )
     private File source;
 
     /**
-     * The file that contains DSL rules.
+     * The directory with source files to be transformed in batch mode.
+     */
+    @Parameter(
+        names = { "--code-dir", "-cd" },
+        converter = FileConverter.class,
+        validateWith = DirectoryValidator.class,
+        arity = 1,
+        description = "The directory with source files to be transformed in batch mode"
+    )
+    private File sources;
+
+    /**
+     * The files that contain DSL rules, in the order they are applied.
      */
     @Parameter(
         names = { "--rules", "--dsl", "-r" },
         converter = RulesFileConverter.class,
-        required = true,
-        description = "Text file with DSL descriptions. Expected extensions: .txt, .dsl"
+        description = "Text files with DSL descriptions, separated by commas, each one is applied"
+            + " to the result of the previous one. Expected extensions: .txt, .dsl"
+    )
+    private List<File> dsl;
+
+    /**
+     * Named chains of files with DSL rules that produce separate results.
+     */
+    @DynamicParameter(
+        names = "--rule-set",
+        assignment = "=",
+        description = "A named chain of DSL files, <name>=<file>[,<file>...], whose results"
+            + " are stored in the <name> subdirectory next to the requested files"
+    )
+    private Map<String, String> sets;
+
+    /**
+     * The directory with cached parsed rules.
+     */
+    @Parameter(
+        names = { "--rules-cache", "-rc" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory to cache parsed DSL rules between runs"
+    )
+    private File cache;
+
+    /**
+     * The directory with cached parsed trees.
+     */
+    @Parameter(
+        names = { "--ast-cache", "-ac" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory to cache parsed source files between runs"
     )
-    private File dsl;
+    private File trees;
 
     /**
-     * The json file to store result ASTs.
+     * The manifest file for incremental transformation.
+     */
+    @Parameter(
+        names = { "--manifest", "-m" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The manifest file to skip files whose inputs did not change since last run"
+    )
+    private File manifest;
+
+    /**
+     * The directory of the content-addressed store of results.
+     */
+    @Parameter(
+        names = { "--store", "-st" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory to store each unique generated code and tree once,"
+            + " with an index that maps results to their content, instead of writing files"
+    )
+    private File store;
+
+    /**
+     * The file to store the performance report.
+     */
+    @Parameter(
+        names = { "--stats", "-s" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The json file to store time and memory spent in each stage and rule counts"
+    )
+    private File stats;
+
+    /**
+     * The file to store result ASTs.
      */
     @Parameter(
         names = { "--json", "-j" },
-        validateWith = JsonPathValidator.class,
+        validateWith = TreePathValidator.class,
         arity = 1,
-        description = "The name (path) of the json file with extension"
+        description = "The name (path) of the file with the result tree: .json, or .uast"
+            + " with --ast-format binary"
     )
     private File json;
 
+    /**
+     * The format of the file with result ASTs.
+     */
+    @Parameter(
+        names = "--ast-format",
+        arity = 1,
+        description = "The format of the file with the result tree: json or binary"
+    )
+    private String format;
+
+    /**
+     * The compact json option.
+     */
+    @Parameter(
+        names = "--json-compact",
+        description = "Write the json file without pretty-printing"
+    )
+    private boolean compact;
+
+    /**
+     * The minimal-change output option.
+     */
+    @Parameter(
+        names = "--splice",
+        description = "Generate only changed subtrees and keep the rest of the source text as is"
+    )
+    private boolean splice;
+
+    /**
+     * The pre-filter option.
+     */
+    @Parameter(
+        names = "--prefilter",
+        description = "Copy sources that contain no words required by the rules without parsing"
+    )
+    private boolean prefilter;
+
+    /**
+     * The unified diff output option.
+     */
+    @Parameter(
+        names = "--diff",
+        description = "Also write the differences between the source and the generated code"
+            + " to a unified diff file named as the generated one with the .diff suffix"
+    )
+    private boolean diff;
+
     /**
      * The file to store the generated code.
      */
     @Parameter(
         names = { "--output", "-o" },
         validateWith = FileNameValidator.class,
-        required = true,
         arity = 1,
         description = "The name (path) of the generated file with extension. Supported: .java"
     )
     private File output;
 
+    /**
+     * The directory to store generated files in batch mode.
+     */
+    @Parameter(
+        names = { "--output-dir", "-od" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory to store generated files in batch mode"
+    )
+    private File outputs;
+
+    /**
+     * The number of worker threads in batch mode.
+     */
+    @Parameter(
+        names = { "--threads", "-t" },
+        validateWith = PositiveInteger.class,
+        arity = 1,
+        description = "The number of worker threads in batch mode"
+    )
+    private int threads;
+
+    /**
+     * The number of threads that write results in batch mode.
+     */
+    @Parameter(
+        names = { "--writers", "-w" },
+        validateWith = PositiveInteger.class,
+        arity = 1,
+        description = "The number of threads that write generated files in batch mode"
+    )
+    private int writers;
+
     /**
      * The image file.
      */
@@ -117,6 +318,37 @@ public final class Main {
     )
     private File image;
 
+    /**
+     * The option to render only changed subtrees into the image.
+     */
+    @Parameter(
+        names = "--image-changed",
+        description = "Render into the image only the subtrees changed by the rules"
+    )
+    private boolean changed;
+
+    /**
+     * The name of the declaration rendered into the image.
+     */
+    @Parameter(
+        names = "--image-node",
+        arity = 1,
+        description = "Render into the image only the class, function or other declaration"
+            + " with this name"
+    )
+    private String declaration;
+
+    /**
+     * The maximum depth of the tree rendered into the image.
+     */
+    @Parameter(
+        names = "--image-depth",
+        validateWith = PositiveInteger.class,
+        arity = 1,
+        description = "The maximum depth of the tree rendered into the image"
+    )
+    private int depth;
+
     /**
      * The programming language for which the analysis is performed.
      */
@@ -128,6 +360,128 @@ public final class Main {
     )
     private String language;
 
+    /**
+     * The fixpoint mode option.
+     */
+    @Parameter(
+        names = "--until-fixpoint",
+        description = "Apply rules repeatedly until the tree no longer changes"
+    )
+    private boolean fixpoint;
+
+    /**
+     * The maximum number of passes in fixpoint mode.
+     */
+    @Parameter(
+        names = { "--max-passes", "-mp" },
+        validateWith = PositiveInteger.class,
+        arity = 1,
+        description = "The maximum number of passes of rules over a tree with --until-fixpoint"
+    )
+    private int passes;
+
+    /**
+     * The mutant generation mode option.
+     */
+    @Parameter(
+        names = "--mutants",
+        description = "Generate mutants: one file per site where a single rule can be applied"
+    )
+    private boolean mutants;
+
+    /**
+     * The maximum number of generated mutants.
+     */
+    @Parameter(
+        names = { "--max-mutants", "-mm" },
+        validateWith = PositiveInteger.class,
+        arity = 1,
+        description = "The maximum number of mutants, sites are sampled randomly if there are more"
+    )
+    private int limit;
+
+    /**
+     * The seed for random sampling of mutants.
+     */
+    @Parameter(
+        names = "--seed",
+        arity = 1,
+        description = "The seed for random sampling of mutants"
+    )
+    private long seed;
+
+    /**
+     * The watch mode option.
+     */
+    @Parameter(
+        names = "--watch",
+        description = "Keep running and transform sources again when they or the rules change"
+    )
+    private boolean watch;
+
+    /**
+     * The server mode option.
+     */
+    @Parameter(
+        names = "--serve",
+        description = "Run as a server that accepts transformation requests on a local port"
+    )
+    private boolean serve;
+
+    /**
+     * The client mode option.
+     */
+    @Parameter(
+        names = "--connect",
+        description = "Send the transformation request to a running server instead of processing it"
+    )
+    private boolean connect;
+
+    /**
+     * The port of the server.
+     */
+    @Parameter(
+        names = { "--port", "-p" },
+        arity = 1,
+        description = "The local port of the server, used with --serve and --connect"
+    )
+    private int port;
+
+    /**
+     * The file with the shared secret of the server.
+     */
+    @Parameter(
+        names = "--token",
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The file with the secret of the server, written by --serve and read by"
+            + " --connect, by default .trastformer/server.token in the home directory"
+    )
+    private File token;
+
+    /**
+     * The directory outside which the server does not write results.
+     */
+    @Parameter(
+        names = "--root",
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory outside which the server does not write results,"
+            + " required with --serve"
+    )
+    private File root;
+
+    /**
+     * The time a connection to the server may stay idle.
+     */
+    @Parameter(
+        names = "--idle-timeout",
+        arity = 1,
+        description = "The time in seconds after which the server closes an idle connection,"
+            + " 30 by default"
+    )
+    private int idle;
+
     /**
      * The help option.
      */
@@ -140,6 +494,17 @@ public final class Main {
     private Main() {
         this.help = false;
         this.language = "";
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.port = Main.PORT;
+        this.idle = Main.IDLE;
+        this.token = Paths.get(System.getProperty("user.home"), ".trastformer", "server.token")
+            .toFile();
+        this.writers = Main.WRITERS;
+        this.limit = Integer.MAX_VALUE;
+        this.passes = Main.PASSES;
+        this.dsl = new ArrayList<>(1);
+        this.sets = new LinkedHashMap<>();
+        this.format = "json";
     }
 
     /**
@@ -167,50 +532,498 @@ public final class Main {
      * @throws ProcessorException If DSL processing fails
      */
     private void run() throws IOException, ProcessorException {
-        final String ext = this.source.getName()
-            .substring(this.source.getName().lastIndexOf('.') + 1);
-        String lang = ext;
-        if ("txt".equals(ext)) {
-            if (this.language.isEmpty()) {
+        RuleSetCache rules = null;
+        if (this.cache != null) {
+            rules = new RuleSetCache(this.cache.toPath());
+        }
+        if (this.serve) {
+            this.runServer(rules);
+        } else if (this.watch) {
+            this.runWatch(rules);
+        } else {
+            if (this.connect) {
+                this.checkClient();
+            }
+            final TreeFormat tree = this.format();
+            final LanguageDetector detector = new LanguageDetector(this.language);
+            final Metrics metrics = new Metrics(this.stats != null);
+            final Map<File, Processors> loaded = new LinkedHashMap<>();
+            final List<RuleChain> chains = this.chains(rules, metrics, loaded);
+            Manifest incremental = null;
+            final int limit = this.limit();
+            OutputStore results = null;
+            if (this.store != null) {
+                results = new OutputStore(this.store.toPath());
+            }
+            final TreeScope scope = this.scope();
+            TaskProcessor processor = new Pipeline(
+                chains,
+                this.options().withStore(results).withPrefilter(this.prefilter)
+            );
+            if (this.manifest != null) {
+                if (!this.sets.isEmpty()) {
+                    throw new ParameterException(
+                        "The option [--manifest] cannot be used with [--rule-set]"
+                    );
+                }
+                if (results != null) {
+                    throw new ParameterException(
+                        "The option [--manifest] cannot be used with [--store]"
+                    );
+                }
+                incremental = new Manifest(this.manifest.toPath());
+                incremental.load();
+                final List<String> hashes = new ArrayList<>(this.dsl.size());
+                for (final File file : this.dsl) {
+                    hashes.add(new ContentHash(Files.readAllBytes(file.toPath())).asHex());
+                }
+                String hash = String.join("+", hashes);
+                if (limit > 1) {
+                    hash = String.format("%s/%d", hash, limit);
+                }
+                if (tree != TreeFormat.JSON) {
+                    hash = String.format("%s/%s", hash, tree);
+                }
+                if (this.splice) {
+                    hash = String.format("%s/splice", hash);
+                }
+                if (this.diff) {
+                    hash = String.format("%s/diff", hash);
+                }
+                if (scope != TreeScope.WHOLE) {
+                    hash = String.format(
+                        "%s/image:%b:%s:%d", hash, this.changed, this.declaration, this.depth
+                    );
+                }
+                processor = new IncrementalProcessor(processor, incremental, hash);
+            }
+            try {
+                this.runLocal(loaded.values(), processor, detector, tree, results);
+            } finally {
+                if (incremental != null) {
+                    incremental.save();
+                }
+                if (results != null) {
+                    results.save();
+                    Main.report(results);
+                }
+                if (this.stats != null) {
+                    new StatsReport(metrics, Main.loaded(loaded))
+                        .writeToFile(this.stats.toPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the part of result trees rendered into images from the command-line options.
+     * @return The part
+     * @throws ParameterException If the part is specified, but no image is requested
+     */
+    private TreeScope scope() {
+        TreeScope scope = TreeScope.WHOLE;
+        if (this.changed || this.declaration != null || this.depth > 0) {
+            if (this.image == null) {
+                throw new ParameterException(
+                    String.join(
+                        " ",
+                        "The options [--image-changed], [--image-node] and [--image-depth]",
+                        "require [--image]"
+                    )
+                );
+            }
+            scope = new TreeScope(this.changed, this.declaration, this.depth);
+        }
+        return scope;
+    }
+
+    /**
+     * Creates chains of rule files from the command-line options.
+     * @param cache The cache of parsed rules, may be {@code null}
+     * @param metrics The performance metrics of the run
+     * @param loaded Processors by rule files, one for each file used by any chain
+     * @return The chains
+     * @throws ParameterException If no rule file or a wrong rule set is specified
+     */
+    private List<RuleChain> chains(final RuleSetCache cache, final Metrics metrics,
+        final Map<File, Processors> loaded) {
+        final List<RuleChain> chains = new ArrayList<>(1 + this.sets.size());
+        if (!this.dsl.isEmpty()) {
+            chains.add(new RuleChain("", Main.stages(this.dsl, cache, metrics, loaded)));
+        }
+        final RulesFileConverter converter = new RulesFileConverter("--rule-set");
+        for (final Map.Entry<String, String> entry : this.sets.entrySet()) {
+            final String name = entry.getKey();
+            if (!name.matches("[\\w.-]+") || name.matches("\\.+")) {
                 throw new ParameterException(
-                    "The option [--lang] should be specified with txt source file"
+                    String.format("The name of the rule set [%s] is not a valid directory", name)
                 );
+            }
+            final List<File> files = new ArrayList<>(1);
+            for (final String path : entry.getValue().split(",")) {
+                files.add(converter.convert(path.trim()));
+            }
+            chains.add(new RuleChain(name, Main.stages(files, cache, metrics, loaded)));
+        }
+        if (chains.isEmpty()) {
+            throw new ParameterException("The option [--rules] should be specified");
+        }
+        return chains;
+    }
+
+    /**
+     * Runs actions in the current process, or sends them to the server in client mode.
+     * @param processors Processors of all rule files
+     * @param processor The processor of tasks
+     * @param detector The language detector
+     * @param tree The format of the file with the result tree
+     * @param results The store of results, may be {@code null}
+     * @throws IOException If an error during input or output actions occurs
+     * @throws ProcessorException If DSL processing fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void runLocal(final Collection<Processors> processors,
+        final TaskProcessor processor, final LanguageDetector detector, final TreeFormat tree,
+        final OutputStore results) throws IOException, ProcessorException {
+        if (this.mutants) {
+            Main.require(this.source, "--code");
+            Main.require(this.outputs, "--output-dir");
+            final int written = new MutantRunner(
+                this.single(processors, "--mutants"),
+                new SiteSampler(this.seed, this.limit),
+                results,
+                this.parsed()
+            ).run(
+                    new Task(this.source, detector.detect(this.source), this.outputs),
+                    this.outputs.toPath()
+                );
+            Main.LOG.info(String.format("%d mutants written to %s", written, this.outputs));
+        } else if (this.sources == null) {
+            Main.require(this.source, "--code");
+            Main.require(this.output, "--output");
+            final Task task = new Task(
+                this.source,
+                detector.detect(this.source),
+                this.output,
+                this.json,
+                this.image,
+                tree
+            );
+            if (this.connect) {
+                this.single(processors, "--connect");
+                this.runClient(task);
             } else {
-                lang = this.language;
+                final Outcome outcome = processor.process(task);
+                if (outcome == Outcome.UP_TO_DATE) {
+                    Main.LOG.info(String.format("Up to date: %s", this.output));
+                } else if (outcome == Outcome.UNTOUCHED) {
+                    Main.LOG.info(String.format("No rule applied, copied as is: %s", this.output));
+                }
+            }
+        } else {
+            Main.require(this.outputs, "--output-dir");
+            final Summary summary =
+                new BatchRunner(processors, processor, detector, this.threads, this.writers)
+                    .run(this.sources.toPath(), this.outputs.toPath());
+            Main.LOG.info(summary.toString());
+            for (final File file : summary.getFailed()) {
+                Main.LOG.warning(String.format("Failed: %s", file));
             }
         }
-        final Node node = new SourceCodeParser(this.source.getPath())
-            .parse(lang, true, false);
-        Node result = node;
-        final String rules = this.dsl.getPath();
-        final TreeProcessor processor = new TreeProcessor();
-        processor.setFactory(FactorySelector.INSTANCE.select(lang));
-        try {
-            processor.loadRules(rules);
-            result = processor.transform(node);
-        } catch (final BaseException exc) {
-            LOG.severe(String.format("%s, %s", exc.getInitiator(), exc.getErrorMessage()));
-            throw exc;
-        }
-        final CodeBuilder builder = new CodeBuilder();
-        final CodeGenerator generator = new CodeGenerator(builder);
-        generator.generate(result);
-        final FilesWriter writer = new FilesWriter(this.output.getAbsolutePath());
-        final boolean created = writer.writeStringNoExcept(builder.toString());
-        if (!created) {
-            LOG.severe(String.format("Cannot write to file: %s", this.output));
-        }
-        if (this.json != null) {
-            final JsonSerializer serializer = new JsonSerializer(result);
-            serializer.serializeToFile(this.json.getPath());
-        }
-        if (this.image != null) {
-            final TreeVisualizer visualizer = new TreeVisualizer(result);
-            try {
-                visualizer.visualize(this.image);
-            } catch (final WrongFileExtension exception) {
-                LOG.severe(String.format("Cannot convert result tree to image"));
+    }
+
+    /**
+     * Transforms sources, then transforms them again each time they or the rules change,
+     * until the process is terminated.
+     * @param rules The cache of parsed rules, may be {@code null}
+     * @throws IOException If sources cannot be read or watched
+     * @throws ParameterException If options of other modes are specified
+     */
+    private void runWatch(final RuleSetCache rules) throws IOException {
+        if (this.mutants || this.connect || this.manifest != null || this.store != null) {
+            throw new ParameterException(
+                String.join(
+                    "",
+                    "The option [--watch] cannot be used with [--mutants], [--connect],",
+                    " [--manifest] or [--store]"
+                )
+            );
+        }
+        final TreeFormat tree = this.format();
+        final LanguageDetector detector = new LanguageDetector(this.language);
+        final PipelineOptions options = this.options();
+        final Map<File, Processors> loaded = new LinkedHashMap<>();
+        this.chains(rules, new Metrics(), loaded);
+        final List<Path> files = new ArrayList<>(loaded.size());
+        for (final File file : loaded.keySet()) {
+            files.add(file.toPath());
+        }
+        final Path root;
+        final Function<Path, Task> tasks;
+        if (this.sources == null) {
+            Main.require(this.source, "--code");
+            Main.require(this.output, "--output");
+            root = this.source.toPath();
+            final Path file = root.toAbsolutePath().normalize();
+            tasks = path -> {
+                Task task = null;
+                if (path.equals(file)) {
+                    task = new Task(
+                        this.source,
+                        detector.detect(this.source),
+                        this.output,
+                        this.json,
+                        this.image,
+                        tree
+                    );
+                }
+                return task;
+            };
+        } else {
+            Main.require(this.outputs, "--output-dir");
+            root = this.sources.toPath().toAbsolutePath().normalize();
+            final Path target = this.outputs.toPath().toAbsolutePath().normalize();
+            tasks = path -> {
+                Task task = null;
+                if (!path.startsWith(target) && detector.isSupported(path.toFile())) {
+                    task = new Task(
+                        path.toFile(),
+                        detector.detect(path.toFile()),
+                        target.resolve(root.relativize(path)).toFile()
+                    );
+                }
+                return task;
+            };
+        }
+        new Watcher(
+            () -> new Pipeline(this.chains(rules, new Metrics(), new LinkedHashMap<>()), options),
+            files,
+            root,
+            tasks
+        ).run();
+    }
+
+    /**
+     * Runs the server until the process is terminated.
+     * @param rules The cache of parsed rules, may be {@code null}
+     * @throws IOException If the server cannot be started
+     * @throws ParameterException If the root directory is not specified
+     *  or the idle timeout is not positive
+     */
+    private void runServer(final RuleSetCache rules) throws IOException {
+        Main.require(this.root, "--root");
+        if (this.idle <= 0) {
+            throw new ParameterException("The option [--idle-timeout] should be positive");
+        }
+        try (
+            Server server = new Server(
+                this.port, this.threads, rules, this.token.toPath(), this.root.toPath(),
+                (int) TimeUnit.SECONDS.toMillis(this.idle)
+            )
+        ) {
+            final int bound = server.start();
+            Main.LOG.info(String.format("Listening on port %d", bound));
+            server.join();
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks that no option that the server does not support is specified with the client.
+     * The server transforms a file by a single pass of rules from a single file
+     * and exports the whole result tree.
+     * @throws ParameterException If an unsupported option is specified
+     */
+    private void checkClient() {
+        final Map<String, Boolean> options = new LinkedHashMap<>();
+        options.put("--until-fixpoint", this.fixpoint);
+        options.put("--ast-cache", this.trees != null);
+        options.put("--splice", this.splice);
+        options.put("--diff", this.diff);
+        options.put("--prefilter", this.prefilter);
+        options.put("--manifest", this.manifest != null);
+        options.put("--store", this.store != null);
+        options.put("--image-changed", this.changed);
+        options.put("--image-node", this.declaration != null);
+        options.put("--image-depth", this.depth > 0);
+        for (final Map.Entry<String, Boolean> entry : options.entrySet()) {
+            if (entry.getValue()) {
+                throw new ParameterException(
+                    String.format("The option [--connect] cannot be used with [%s]", entry.getKey())
+                );
+            }
+        }
+    }
+
+    /**
+     * Sends a task to the server.
+     * @param task The task
+     * @throws IOException If the token file cannot be read, the server is not available
+     *  or fails to process the task
+     */
+    private void runClient(final Task task) throws IOException {
+        final String secret = new Token(this.token.toPath()).read();
+        final Response response = new Client(this.port)
+            .send(new Request(task, this.dsl.get(0), secret));
+        if (!response.isSuccess()) {
+            throw new IOException(response.getMessage());
+        }
+    }
+
+    /**
+     * Returns the format of the file with the result tree.
+     * @return The format
+     * @throws ParameterException If the format is not supported
+     */
+    private TreeFormat format() {
+        final TreeFormat result;
+        if ("binary".equals(this.format)) {
+            result = TreeFormat.BINARY;
+        } else if (!"json".equals(this.format)) {
+            throw new ParameterException(
+                String.format("Unsupported format of the result tree: %s", this.format)
+            );
+        } else if (this.compact) {
+            result = TreeFormat.COMPACT_JSON;
+        } else {
+            result = TreeFormat.JSON;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the maximum number of passes of rules over a tree.
+     * @return The number of passes, one if the fixpoint mode is off
+     */
+    private int limit() {
+        int limit = 1;
+        if (this.fixpoint) {
+            limit = this.passes;
+        }
+        return limit;
+    }
+
+    /**
+     * Creates pipeline options common for all modes from the command-line options.
+     * @return The options
+     * @throws ParameterException If the image scope is specified, but no image is requested
+     */
+    private PipelineOptions options() {
+        return PipelineOptions.DEFAULT
+            .withPasses(this.limit())
+            .withTrees(this.parsed())
+            .withSplice(this.splice)
+            .withDiff(this.diff)
+            .withScope(this.scope());
+    }
+
+    /**
+     * Creates the cache of parsed trees, if requested.
+     * @return The cache or {@code null}
+     */
+    private TreeCache parsed() {
+        TreeCache parsed = null;
+        if (this.trees != null) {
+            parsed = new TreeCache(this.trees.toPath());
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns processors of the only rule file, for modes that do not support chains.
+     * @param processors Processors of all rule files
+     * @param option The option of the mode
+     * @return The processors
+     * @throws ParameterException If more than one rule file is specified
+     */
+    private Processors single(final Collection<Processors> processors, final String option) {
+        if (this.dsl.size() != 1 || !this.sets.isEmpty()) {
+            throw new ParameterException(
+                String.format("The option [%s] requires a single file with rules", option)
+            );
+        }
+        return processors.iterator().next();
+    }
+
+    /**
+     * Returns processors of rule files, creating them for files used for the first time.
+     * @param files The rule files
+     * @param cache The cache of parsed rules, may be {@code null}
+     * @param metrics The performance metrics of the run
+     * @param loaded Processors by rule files
+     * @return Processors of the rule files, in the same order
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static List<Processors> stages(final List<File> files, final RuleSetCache cache,
+        final Metrics metrics, final Map<File, Processors> loaded) {
+        final List<Processors> stages = new ArrayList<>(files.size());
+        for (final File file : files) {
+            stages.add(
+                loaded.computeIfAbsent(
+                    file.getAbsoluteFile(),
+                    key -> new Processors(key, cache, metrics)
+                )
+            );
+        }
+        return stages;
+    }
+
+    /**
+     * Returns the rules loaded from all rule files.
+     * @param loaded Processors by rule files
+     * @return Rules by language names, prefixed with names of rule files
+     *  if there is more than one file
+     */
+    private static Map<String, CompiledRules> loaded(final Map<File, Processors> loaded) {
+        final Map<String, CompiledRules> result;
+        if (loaded.size() == 1) {
+            result = loaded.values().iterator().next().getLoaded();
+        } else {
+            result = new TreeMap<>();
+            for (final Map.Entry<File, Processors> entry : loaded.entrySet()) {
+                for (final Map.Entry<String, CompiledRules> rules
+                    : entry.getValue().getLoaded().entrySet()) {
+                    result.put(
+                        String.format("%s:%s", entry.getKey().getName(), rules.getKey()),
+                        rules.getValue()
+                    );
+                }
             }
         }
+        return result;
+    }
+
+    /**
+     * Logs results that have the same generated code.
+     * @param results The store of results
+     */
+    private static void report(final OutputStore results) {
+        final List<List<String>> groups = results.getDuplicates(OutputStore.CODE);
+        int duplicates = 0;
+        for (final List<String> group : groups) {
+            duplicates = duplicates + group.size() - 1;
+            Main.LOG.fine(String.format("Same generated code: %s", String.join(", ", group)));
+        }
+        Main.LOG.info(
+            String.format(
+                "%d duplicate results in %d groups, see the index in %s",
+                duplicates, groups.size(), results.getDirectory()
+            )
+        );
+    }
+
+    /**
+     * Checks that a required option is specified.
+     * @param value The option value
+     * @param name The option name
+     * @throws ParameterException If the option is not specified
+     */
+    private static void require(final File value, final String name) {
+        if (value == null) {
+            throw new ParameterException(
+                String.format("The option [%s] should be specified", name)
+            );
+        }
     }
 }
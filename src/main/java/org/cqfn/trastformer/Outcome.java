@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+/**
+ * The outcome of processing a task.
+ *
+ * @since 0.1
+ */
+public enum Outcome {
+    /**
+     * The generated code was written.
+     */
+    GENERATED,
+
+    /**
+     * The generated code could not be written.
+     */
+    NOT_WRITTEN,
+
+    /**
+     * The results of the previous run are up to date, nothing was done.
+     */
+    UP_TO_DATE,
+
+    /**
+     * The generated code is the same as the code generated for another file,
+     * so it was not stored again.
+     */
+    DUPLICATE,
+
+    /**
+     * No rule was applied, the source file was copied as is without code generation.
+     */
+    UNTOUCHED;
+
+    /**
+     * Checks whether the results were written.
+     * @return Whether the results were written, either generated or copied
+     */
+    public boolean isWritten() {
+        return this == GENERATED || this == DUPLICATE || this == UNTOUCHED;
+    }
+}
@@ -0,0 +1,562 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.exceptions.WrongFileExtension;
+import org.cqfn.astranaut.core.utils.TreeVisualizer;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.binary.BinaryTreeWriter;
+import org.cqfn.trastformer.metrics.Metrics;
+import org.cqfn.trastformer.metrics.Phase;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.FixpointResult;
+import org.cqfn.trastformer.rules.LiteralFilter;
+import org.cqfn.trastformer.store.OutputStore;
+import org.cqfn.trastformer.tree.SourceSplicer;
+import org.cqfn.trastformer.tree.StringPool;
+import org.cqfn.trastformer.tree.TreeCache;
+import org.cqfn.trastformer.tree.TreeInterner;
+import org.cqfn.trastformer.tree.TreeScope;
+import org.cqfn.trastformer.utils.CodeFileWriter;
+import org.cqfn.trastformer.utils.StreamingJsonSerializer;
+import org.cqfn.trastformer.utils.UnifiedDiff;
+import org.cqfn.uast.lang.FactorySelector;
+import org.cqfn.uast.lang.SourceCodeParser;
+import org.cqfn.uast.lang.java.gen.CodeBuilder;
+import org.cqfn.uast.lang.java.gen.CodeGenerator;
+
+/**
+ * Transformation of a single file: parsing, applying DSL rules and code generation
+ * at the first stage, writing of the code and export of the result tree at the second one.
+ * The file is parsed once, even if several chains of rule files are applied to it.
+ *
+ * @since 0.1
+ */
+public final class Pipeline implements TaskProcessor {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(Pipeline.class.getName());
+
+    /**
+     * Chains of rule files applied to each parsed tree.
+     */
+    private final List<RuleChain> chains;
+
+    /**
+     * The maximum number of passes of rules over a tree.
+     */
+    private final int passes;
+
+    /**
+     * The cache of parsed trees, may be {@code null}.
+     */
+    private final TreeCache trees;
+
+    /**
+     * Whether only changed subtrees are generated and spliced into the source text.
+     */
+    private final boolean splice;
+
+    /**
+     * Whether the differences between the source and the generated code are written.
+     */
+    private final boolean diff;
+
+    /**
+     * The store of results, may be {@code null} if results are written to files.
+     */
+    private final OutputStore store;
+
+    /**
+     * Filters that check sources before parsing by language names,
+     * {@code null} if sources are not checked.
+     */
+    private final Map<String, LiteralFilter> filters;
+
+    /**
+     * The part of the result tree rendered into an image.
+     */
+    private final TreeScope scope;
+
+    /**
+     * Constructor for rules applied once to each node.
+     * @param processors Processors with loaded rules
+     */
+    public Pipeline(final Processors processors) {
+        this(Collections.singletonList(new RuleChain(processors)), PipelineOptions.DEFAULT);
+    }
+
+    /**
+     * Constructor for several chains of rule files applied to the same parsed tree.
+     * Processors of all chains are expected to share the same metrics.
+     * @param chains Chains of rule files, each one produces its own results
+     * @param options The options
+     */
+    public Pipeline(final List<RuleChain> chains, final PipelineOptions options) {
+        this.chains = Collections.unmodifiableList(new ArrayList<>(chains));
+        this.passes = options.getPasses();
+        this.trees = options.getTrees();
+        this.splice = options.isSplice();
+        this.diff = options.isDiff();
+        this.store = options.getStore();
+        if (options.isPrefilter()) {
+            this.filters = new ConcurrentHashMap<>();
+        } else {
+            this.filters = null;
+        }
+        this.scope = options.getScope();
+    }
+
+    @Override
+    public Export prepare(final Task task) throws IOException, ProcessorException {
+        final Export export;
+        if (this.accepts(task)) {
+            export = this.prepare(task, this.parse(task));
+        } else {
+            Pipeline.LOG.fine(
+                String.format("No rule can match %s, copied without parsing", task.getSource())
+            );
+            final Metrics metrics = this.chains.get(0).getStages().get(0).getMetrics();
+            String patch = null;
+            if (this.diff) {
+                patch = "";
+            }
+            final String changes = patch;
+            final List<Export> exports = new ArrayList<>(this.chains.size());
+            for (final RuleChain chain : this.chains) {
+                final Task target = chain.redirect(task);
+                exports.add(() -> this.export(target, null, null, null, changes, metrics));
+            }
+            export = Pipeline.combine(exports);
+        }
+        return export;
+    }
+
+    /**
+     * Checks whether the source file of a task is to be parsed and transformed.
+     * @param task The task
+     * @return A boolean {@code false} if the pre-filter is on, the result tree is not
+     *  exported and the source contains no words required by rules, {@code true} otherwise
+     * @throws IOException If the source file cannot be read
+     * @throws ProcessorException If DSL processing fails
+     */
+    private boolean accepts(final Task task) throws IOException, ProcessorException {
+        boolean result = true;
+        if (this.filters != null && task.getJson() == null && task.getImage() == null) {
+            final String language = task.getLanguage();
+            LiteralFilter filter = this.filters.get(language);
+            if (filter == null) {
+                final List<CompiledRules> rules = new ArrayList<>(1);
+                for (final RuleChain chain : this.chains) {
+                    for (final Processors processors : chain.getStages()) {
+                        rules.add(processors.get(language));
+                    }
+                }
+                filter = new LiteralFilter(rules);
+                this.filters.putIfAbsent(language, filter);
+            }
+            final Metrics.Measurement measurement = this.chains.get(0).getStages().get(0)
+                .getMetrics().start(Phase.FILTER, task.getSource());
+            result = filter.accepts(task.getSource().toPath());
+            measurement.stop();
+        }
+        return result;
+    }
+
+    /**
+     * Performs the first stage of processing a task whose source file is already parsed:
+     * applies chains of rule files to the tree and generates the code.
+     * The tree can be kept and passed again while the source file does not change,
+     * for example, to apply modified rules without parsing the file.
+     * @param task The task
+     * @param node The root of the tree parsed from the source file of the task,
+     *  see {@link #parse(Task)}
+     * @return The second stage
+     * @throws IOException If the source file cannot be read
+     * @throws ProcessorException If DSL processing fails
+     */
+    public Export prepare(final Task task, final Node node)
+        throws IOException, ProcessorException {
+        final Metrics metrics = this.chains.get(0).getStages().get(0).getMetrics();
+        final File source = task.getSource();
+        String text = null;
+        if (this.splice || this.diff) {
+            text = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+        }
+        final Map<List<Processors>, Node> trees = new HashMap<>();
+        final List<Export> exports = new ArrayList<>(this.chains.size());
+        for (final RuleChain chain : this.chains) {
+            final Node result = this.transform(task, node, chain.getStages(), trees);
+            metrics.countTree(node, result);
+            final Task target = chain.redirect(task);
+            String code = null;
+            String patch = null;
+            if (result == node) {
+                Pipeline.LOG.fine(String.format("No rule applied to %s", source));
+                if (this.diff) {
+                    patch = "";
+                }
+            } else {
+                final Metrics.Measurement measurement =
+                    metrics.start(Phase.GENERATE, source);
+                code = this.code(source, text, node, result);
+                if (this.diff) {
+                    patch = new UnifiedDiff(text, code)
+                        .format(source.getPath(), target.getOutput().getPath());
+                }
+                measurement.stop();
+            }
+            final String generated = code;
+            final String changes = patch;
+            exports.add(() -> this.export(target, node, result, generated, changes, metrics));
+        }
+        return Pipeline.combine(exports);
+    }
+
+    /**
+     * Combines exports of results of chains applied to the same file.
+     * @param exports The exports
+     * @return The export that writes results of all chains
+     */
+    private static Export combine(final List<Export> exports) {
+        return () -> {
+            Outcome outcome = null;
+            for (final Export export : exports) {
+                outcome = Pipeline.combine(outcome, export.write());
+            }
+            return outcome;
+        };
+    }
+
+    /**
+     * Combines outcomes of chains applied to the same file: a failure of any chain
+     * is reported, the file is untouched only if no rule of any chain was applied.
+     * @param outcome The outcome of previous chains, {@code null} if there are none
+     * @param current The outcome of the current chain
+     * @return The combined outcome
+     */
+    private static Outcome combine(final Outcome outcome, final Outcome current) {
+        Outcome result = current;
+        if (outcome == Outcome.NOT_WRITTEN
+            || outcome != null && current == Outcome.UNTOUCHED
+            || outcome == Outcome.DUPLICATE && current == Outcome.GENERATED) {
+            result = outcome;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the source file of a task or loads the parsed tree from the cache.
+     * Data strings of the tree are taken from the shared string pool.
+     * @param task The task
+     * @return The root of the parsed tree
+     * @throws IOException If the source file cannot be read or parsed
+     */
+    public Node parse(final Task task) throws IOException {
+        final File source = task.getSource();
+        final String language = task.getLanguage();
+        final Metrics.Measurement measurement =
+            this.chains.get(0).getStages().get(0).getMetrics().start(Phase.PARSE, source);
+        Node node = null;
+        byte[] content = null;
+        if (this.trees != null) {
+            content = Files.readAllBytes(source.toPath());
+            node = this.trees.get(content, language, FactorySelector.INSTANCE.select(language));
+        }
+        if (node == null) {
+            node = new TreeInterner(StringPool.SHARED).intern(
+                new SourceCodeParser(source.getPath()).parse(language, true, false)
+            );
+            if (content != null) {
+                this.trees.put(content, language, node);
+            }
+        }
+        measurement.stop();
+        return node;
+    }
+
+    /**
+     * Generates the code of the result tree.
+     * @param source The source file
+     * @param text The source text, may be {@code null} if only changed subtrees
+     *  are not required to be spliced into it
+     * @param node The root of the parsed tree
+     * @param result The root of the result tree
+     * @return The code
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private String code(final File source, final String text, final Node node,
+        final Node result) {
+        String code = null;
+        if (this.splice) {
+            code = new SourceSplicer(text, Pipeline::generate).splice(node, result);
+            if (code == null) {
+                Pipeline.LOG.fine(
+                    String.format(
+                        "Positions of changed nodes in %s are unknown, the code is regenerated",
+                        source
+                    )
+                );
+            }
+        }
+        if (code == null) {
+            code = Pipeline.generate(result);
+        }
+        return code;
+    }
+
+    /**
+     * Generates the code of a tree.
+     * @param node The root of the tree
+     * @return The code
+     */
+    public static String generate(final Node node) {
+        final CodeBuilder builder = new CodeBuilder();
+        final CodeGenerator generator = new CodeGenerator(builder);
+        generator.generate(node);
+        return builder.toString();
+    }
+
+    /**
+     * Applies a chain of rule files to a tree.
+     * Trees produced by the same sequence of rule files are transformed only once,
+     * so chains that start with the same files share the intermediate results.
+     * @param task The task
+     * @param node The root of the parsed tree
+     * @param stages Processors of rule files, in the order they are applied
+     * @param trees Transformed trees by sequences of rule files applied to the parsed tree
+     * @return The root of the result tree
+     * @throws ProcessorException If DSL processing fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Node transform(final Task task, final Node node, final List<Processors> stages,
+        final Map<List<Processors>, Node> trees) throws ProcessorException {
+        final File source = task.getSource();
+        Node tree = node;
+        for (int index = 0; index < stages.size(); index = index + 1) {
+            final List<Processors> applied = new ArrayList<>(stages.subList(0, index + 1));
+            Node result = trees.get(applied);
+            if (result == null) {
+                final Processors processors = stages.get(index);
+                final CompiledRules rules = processors.get(task.getLanguage());
+                final Metrics.Measurement measurement =
+                    processors.getMetrics().start(Phase.TRANSFORM, source);
+                if (this.passes > 1) {
+                    final FixpointResult fixpoint =
+                        rules.transformUntilFixpoint(tree, this.passes);
+                    result = fixpoint.getRoot();
+                    Pipeline.report(source, rules, fixpoint);
+                } else {
+                    result = rules.transform(tree);
+                }
+                measurement.stop();
+                Pipeline.LOG.fine(
+                    String.format("Rules for %s: %s", task.getLanguage(), rules.getDispatcher())
+                );
+                trees.put(applied, result);
+            }
+            tree = result;
+        }
+        return tree;
+    }
+
+    /**
+     * Logs how the repeated application of rules has stopped.
+     * @param source The source file
+     * @param rules The rules
+     * @param fixpoint The result of the transformation
+     */
+    private static void report(final File source, final CompiledRules rules,
+        final FixpointResult fixpoint) {
+        final List<String> names = new ArrayList<>(fixpoint.getRules().size());
+        for (final int index : fixpoint.getRules()) {
+            names.add(
+                String.format("#%d %s", index + 1, rules.getRules().get(index).getRule())
+            );
+        }
+        switch (fixpoint.getStatus()) {
+            case CYCLE:
+                Pipeline.LOG.warning(
+                    String.format(
+                        "Rewrite cycle in %s after %d passes, rules: %s",
+                        source, fixpoint.getPasses(), String.join("; ", names)
+                    )
+                );
+                break;
+            case LIMIT:
+                Pipeline.LOG.warning(
+                    String.format(
+                        "No fixpoint in %s after %d passes, rules applied in the last pass: %s",
+                        source, fixpoint.getPasses(), String.join("; ", names)
+                    )
+                );
+                break;
+            default:
+                Pipeline.LOG.fine(
+                    String.format(
+                        "Fixpoint in %s reached in %d passes", source, fixpoint.getPasses()
+                    )
+                );
+                break;
+        }
+    }
+
+    /**
+     * Writes the generated code and exports the result tree.
+     * @param task The task
+     * @param node The root of the original tree, may be {@code null} if the tree
+     *  is not exported
+     * @param result The root of the result tree, may be {@code null} if the tree
+     *  is not exported
+     * @param code The generated code, {@code null} if no rule was applied
+     *  and the source is copied as is
+     * @param patch The differences between the source and the generated code
+     *  in the unified format, may be {@code null}
+     * @param metrics The performance metrics
+     * @return The outcome
+     * @throws IOException If the result tree cannot be exported
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Outcome export(final Task task, final Node node, final Node result,
+        final String code, final String patch, final Metrics metrics) throws IOException {
+        final File source = task.getSource();
+        Metrics.Measurement measurement = metrics.start(Phase.WRITE, source);
+        Outcome outcome = Outcome.GENERATED;
+        try {
+            outcome = this.write(task, code, patch);
+        } catch (final IOException exc) {
+            Pipeline.LOG.severe(String.format("Cannot write to file: %s", task.getOutput()));
+            outcome = Outcome.NOT_WRITTEN;
+        }
+        measurement.stop();
+        if (task.getJson() != null) {
+            measurement = metrics.start(Phase.JSON, source);
+            if (this.store != null) {
+                this.store.put(
+                    task.getOutput().getPath(), OutputStore.TREE, Pipeline.serialize(task, result)
+                );
+            } else if (task.getFormat() == TreeFormat.BINARY) {
+                new BinaryTreeWriter(result).writeToFile(task.getJson().toPath());
+            } else {
+                new StreamingJsonSerializer(result, !task.isCompact())
+                    .serializeToFile(task.getJson().toPath());
+            }
+            measurement.stop();
+        }
+        if (task.getImage() != null) {
+            measurement = metrics.start(Phase.IMAGE, source);
+            final Node view = this.scope.select(node, result);
+            if (view == null) {
+                Pipeline.LOG.info(String.format("Nothing to render from %s", source));
+            } else {
+                try {
+                    new TreeVisualizer(view).visualize(task.getImage());
+                } catch (final WrongFileExtension exception) {
+                    Pipeline.LOG.severe(String.format("Cannot convert result tree to image"));
+                }
+            }
+            measurement.stop();
+        }
+        return outcome;
+    }
+
+    /**
+     * Writes the generated code into the output file or into the store.
+     * @param task The task
+     * @param code The generated code, {@code null} if the source is copied as is
+     * @param patch The differences between the source and the generated code
+     *  in the unified format, may be {@code null}
+     * @return The outcome
+     * @throws IOException If the code cannot be written
+     */
+    private Outcome write(final Task task, final String code, final String patch)
+        throws IOException {
+        Outcome outcome = Outcome.GENERATED;
+        if (code == null) {
+            outcome = Outcome.UNTOUCHED;
+        }
+        final String name = task.getOutput().getPath();
+        if (this.store == null) {
+            final CodeFileWriter writer = new CodeFileWriter(task.getOutput().toPath());
+            if (code == null) {
+                writer.copy(task.getSource().toPath());
+            } else {
+                writer.write(code);
+            }
+            if (patch != null) {
+                new CodeFileWriter(new File(String.format("%s.diff", name)).toPath())
+                    .write(patch);
+            }
+        } else {
+            this.store.label(name, "source", task.getSource().getPath());
+            final byte[] content;
+            if (code == null) {
+                content = Files.readAllBytes(task.getSource().toPath());
+            } else {
+                content = code.getBytes(StandardCharsets.UTF_8);
+            }
+            if (!this.store.put(name, OutputStore.CODE, content) && code != null) {
+                outcome = Outcome.DUPLICATE;
+            }
+            if (patch != null) {
+                this.store.put(name, OutputStore.DIFF, patch.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Serializes the result tree in the format requested by the task.
+     * @param task The task
+     * @param result The root of the result tree
+     * @return The serialized tree
+     * @throws IOException If the tree cannot be serialized
+     */
+    private static byte[] serialize(final Task task, final Node result) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (task.getFormat() == TreeFormat.BINARY) {
+            new BinaryTreeWriter(result).write(output);
+        } else {
+            final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            new StreamingJsonSerializer(result, !task.isCompact()).serialize(writer);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import org.cqfn.trastformer.store.OutputStore;
+import org.cqfn.trastformer.tree.TreeCache;
+import org.cqfn.trastformer.tree.TreeScope;
+
+/**
+ * Options of a {@link Pipeline}.
+ * The object is immutable: each {@code with} method returns a copy
+ * with one option changed, starting from {@link #DEFAULT}.
+ *
+ * @since 0.1
+ */
+public final class PipelineOptions {
+    /**
+     * The default options: rules are applied once to each node, the tree is parsed
+     * each time, the whole code is generated and written to files, and the whole
+     * result tree is rendered into an image.
+     */
+    public static final PipelineOptions DEFAULT =
+        new PipelineOptions(1, null, false, false, null, false, TreeScope.WHOLE);
+
+    /**
+     * The maximum number of passes of rules over a tree.
+     */
+    private final int passes;
+
+    /**
+     * The cache of parsed trees, may be {@code null}.
+     */
+    private final TreeCache trees;
+
+    /**
+     * Whether only changed subtrees are generated and spliced into the source text.
+     */
+    private final boolean splice;
+
+    /**
+     * Whether the differences between the source and the generated code are written.
+     */
+    private final boolean diff;
+
+    /**
+     * The store of results, may be {@code null} if results are written to files.
+     */
+    private final OutputStore store;
+
+    /**
+     * Whether sources are checked by the pre-filter before parsing.
+     */
+    private final boolean prefilter;
+
+    /**
+     * The part of the result tree rendered into an image.
+     */
+    private final TreeScope scope;
+
+    /**
+     * Constructor.
+     * @param passes The maximum number of passes of rules over a tree
+     * @param trees The cache of parsed trees, may be {@code null}
+     * @param splice Whether only changed subtrees are generated and spliced
+     * @param diff Whether the differences between the source and the generated code
+     *  are written
+     * @param store The store of results, may be {@code null}
+     * @param prefilter Whether sources are checked by the pre-filter before parsing
+     * @param scope The part of the result tree rendered into an image
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private PipelineOptions(final int passes, final TreeCache trees, final boolean splice,
+        final boolean diff, final OutputStore store, final boolean prefilter,
+        final TreeScope scope) {
+        this.passes = passes;
+        this.trees = trees;
+        this.splice = splice;
+        this.diff = diff;
+        this.store = store;
+        this.prefilter = prefilter;
+        this.scope = scope;
+    }
+
+    /**
+     * Returns the maximum number of passes of rules over a tree.
+     * @return The number of passes
+     */
+    public int getPasses() {
+        return this.passes;
+    }
+
+    /**
+     * Returns the cache of parsed trees.
+     * @return The cache or {@code null}
+     */
+    public TreeCache getTrees() {
+        return this.trees;
+    }
+
+    /**
+     * Checks whether only changed subtrees are generated and spliced into the source text.
+     * @return The option value
+     */
+    public boolean isSplice() {
+        return this.splice;
+    }
+
+    /**
+     * Checks whether the differences between the source and the generated code are written.
+     * @return The option value
+     */
+    public boolean isDiff() {
+        return this.diff;
+    }
+
+    /**
+     * Returns the store of results.
+     * @return The store or {@code null} if results are written to files
+     */
+    public OutputStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Checks whether sources are checked by the pre-filter before parsing.
+     * @return The option value
+     */
+    public boolean isPrefilter() {
+        return this.prefilter;
+    }
+
+    /**
+     * Returns the part of the result tree rendered into an image.
+     * @return The part
+     */
+    public TreeScope getScope() {
+        return this.scope;
+    }
+
+    /**
+     * Sets the maximum number of passes of rules over a tree.
+     * @param value The number of passes, if more than one, rules are applied repeatedly
+     *  until the tree no longer changes
+     * @return The new options
+     */
+    public PipelineOptions withPasses(final int value) {
+        return new PipelineOptions(
+            value, this.trees, this.splice, this.diff, this.store, this.prefilter, this.scope
+        );
+    }
+
+    /**
+     * Sets the cache of parsed trees.
+     * @param value The cache, {@code null} to parse each source file
+     * @return The new options
+     */
+    public PipelineOptions withTrees(final TreeCache value) {
+        return new PipelineOptions(
+            this.passes, value, this.splice, this.diff, this.store, this.prefilter, this.scope
+        );
+    }
+
+    /**
+     * Sets whether only changed subtrees are generated and spliced into the source text,
+     * the rest of the text is kept as is.
+     * @param value The option value
+     * @return The new options
+     */
+    public PipelineOptions withSplice(final boolean value) {
+        return new PipelineOptions(
+            this.passes, this.trees, value, this.diff, this.store, this.prefilter, this.scope
+        );
+    }
+
+    /**
+     * Sets whether the differences between the source and the generated code
+     * are written to a unified diff file next to the generated one.
+     * @param value The option value
+     * @return The new options
+     */
+    public PipelineOptions withDiff(final boolean value) {
+        return new PipelineOptions(
+            this.passes, this.trees, this.splice, value, this.store, this.prefilter, this.scope
+        );
+    }
+
+    /**
+     * Sets the store of results.
+     * @param value The store, {@code null} to write results to files;
+     *  images are written to files anyway
+     * @return The new options
+     */
+    public PipelineOptions withStore(final OutputStore value) {
+        return new PipelineOptions(
+            this.passes, this.trees, this.splice, this.diff, value, this.prefilter, this.scope
+        );
+    }
+
+    /**
+     * Sets whether sources that do not contain words required by any rule
+     * are copied as is without parsing, unless the result tree is exported.
+     * @param value The option value
+     * @return The new options
+     */
+    public PipelineOptions withPrefilter(final boolean value) {
+        return new PipelineOptions(
+            this.passes, this.trees, this.splice, this.diff, this.store, value, this.scope
+        );
+    }
+
+    /**
+     * Sets the part of the result tree rendered into an image.
+     * @param value The part
+     * @return The new options
+     */
+    public PipelineOptions withScope(final TreeScope value) {
+        return new PipelineOptions(
+            this.passes, this.trees, this.splice, this.diff, this.store, this.prefilter, value
+        );
+    }
+}
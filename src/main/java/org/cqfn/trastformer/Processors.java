@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.core.utils.FilesReader;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.metrics.Metrics;
+import org.cqfn.trastformer.metrics.Phase;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.DslFileNotRead;
+import org.cqfn.trastformer.rules.DslParser;
+import org.cqfn.trastformer.rules.RuleSetCache;
+import org.cqfn.uast.lang.FactorySelector;
+
+/**
+ * DSL rules prepared for transformation, one set per programming language.
+ * The rules are loaded once per language, and the loaded set is shared
+ * by all files written in this language.
+ *
+ * @since 0.1
+ */
+public final class Processors {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(Processors.class.getName());
+
+    /**
+     * The file that contains DSL rules.
+     */
+    private final File dsl;
+
+    /**
+     * The cache of parsed rules, may be {@code null}.
+     */
+    private final RuleSetCache cache;
+
+    /**
+     * The performance metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Loaded rules by language names.
+     */
+    private final Map<String, CompiledRules> loaded;
+
+    /**
+     * The DSL text, read on first use.
+     */
+    private String text;
+
+    /**
+     * Constructor.
+     * @param dsl The file that contains DSL rules
+     * @param cache The cache of parsed rules, may be {@code null}
+     * @param metrics The performance metrics of the run
+     */
+    public Processors(final File dsl, final RuleSetCache cache, final Metrics metrics) {
+        this.dsl = dsl;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.loaded = new HashMap<>();
+    }
+
+    /**
+     * Constructor.
+     * @param dsl The file that contains DSL rules
+     * @param cache The cache of parsed rules, may be {@code null}
+     */
+    public Processors(final File dsl, final RuleSetCache cache) {
+        this(dsl, cache, new Metrics());
+    }
+
+    /**
+     * Constructor.
+     * @param dsl The file that contains DSL rules
+     */
+    public Processors(final File dsl) {
+        this(dsl, null);
+    }
+
+    /**
+     * Returns rules prepared for the specified language.
+     * @param language The language name
+     * @return The rules
+     * @throws ProcessorException If DSL processing fails
+     */
+    public synchronized CompiledRules get(final String language) throws ProcessorException {
+        CompiledRules rules = this.loaded.get(language);
+        if (rules == null) {
+            final Metrics.Measurement measurement = this.metrics.start(Phase.RULES, this.dsl);
+            if (this.text == null) {
+                this.text = this.read();
+            }
+            final List<Instruction<Transformation>> list;
+            if (this.cache == null) {
+                list = new DslParser().parse(this.text);
+            } else {
+                list = this.cache.load(this.text, language);
+            }
+            rules = new CompiledRules(list, FactorySelector.INSTANCE.select(language));
+            this.loaded.put(language, rules);
+            measurement.stop();
+        }
+        return rules;
+    }
+
+    /**
+     * Returns the rules loaded so far.
+     * @return Rules by language names, sorted by names
+     */
+    public synchronized Map<String, CompiledRules> getLoaded() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.loaded));
+    }
+
+    /**
+     * Returns the performance metrics of the run.
+     * @return The metrics
+     */
+    public Metrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Reads the DSL text.
+     * @return The DSL text
+     * @throws ProcessorException If the file cannot be read
+     */
+    private String read() throws ProcessorException {
+        try {
+            return new FilesReader(this.dsl.getPath())
+                .readAsString(() -> new DslFileNotRead(this.dsl.getPath()));
+        } catch (final ProcessorException exc) {
+            Processors.LOG.severe(
+                String.format("%s, %s", exc.getInitiator(), exc.getErrorMessage())
+            );
+            throw exc;
+        }
+    }
+}
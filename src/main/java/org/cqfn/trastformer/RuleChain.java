@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rule files applied one after another to the same tree: each file is applied
+ * to the result of the previous one. A named chain stores its results
+ * in a subdirectory with its name, next to the files requested by the task,
+ * so several chains applied to the same source produce separate outputs.
+ *
+ * @since 0.1
+ */
+public final class RuleChain {
+    /**
+     * The name of the chain, empty for the chain whose results are stored
+     * in the requested files.
+     */
+    private final String name;
+
+    /**
+     * Processors of rule files, in the order they are applied.
+     */
+    private final List<Processors> stages;
+
+    /**
+     * Constructor.
+     * @param name The name of the chain, empty if results are stored in the requested files
+     * @param stages Processors of rule files, in the order they are applied
+     */
+    public RuleChain(final String name, final List<Processors> stages) {
+        this.name = name;
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    /**
+     * Constructor for a single unnamed rule file.
+     * @param processors Processors of the rule file
+     */
+    public RuleChain(final Processors processors) {
+        this("", Collections.singletonList(processors));
+    }
+
+    /**
+     * Returns the name of the chain.
+     * @return The name, empty if results are stored in the requested files
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns processors of rule files.
+     * @return The unmodifiable list of processors, in the order they are applied
+     */
+    public List<Processors> getStages() {
+        return this.stages;
+    }
+
+    /**
+     * Redirects the results of a task to the subdirectory of the chain.
+     * @param task The task
+     * @return The task with the same source and the redirected results
+     */
+    public Task redirect(final Task task) {
+        Task result = task;
+        if (!this.name.isEmpty()) {
+            result = new Task(
+                task.getSource(),
+                task.getLanguage(),
+                this.resolve(task.getOutput()),
+                this.resolve(task.getJson()),
+                this.resolve(task.getImage()),
+                task.getFormat()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Moves a file to the subdirectory of the chain.
+     * @param file The file, may be {@code null}
+     * @return The moved file or {@code null} if the file is not specified
+     */
+    private File resolve(final File file) {
+        File result = null;
+        if (file != null) {
+            result = new File(
+                new File(file.getAbsoluteFile().getParentFile(), this.name),
+                file.getName()
+            );
+        }
+        return result;
+    }
+}
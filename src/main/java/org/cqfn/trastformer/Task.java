@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.File;
+
+/**
+ * A single file to be transformed, along with the files where the results are stored.
+ *
+ * @since 0.1
+ */
+public final class Task {
+    /**
+     * The source file.
+     */
+    private final File source;
+
+    /**
+     * The programming language of the source file.
+     */
+    private final String language;
+
+    /**
+     * The file to store the generated code.
+     */
+    private final File output;
+
+    /**
+     * The json file to store the result AST, may be {@code null}.
+     */
+    private final File json;
+
+    /**
+     * The image file, may be {@code null}.
+     */
+    private final File image;
+
+    /**
+     * The format of the file that stores the result AST.
+     */
+    private final TreeFormat format;
+
+    /**
+     * Constructor.
+     * @param source The source file
+     * @param language The programming language of the source file
+     * @param output The file to store the generated code
+     * @param json The file to store the result AST, may be {@code null}
+     * @param image The image file, may be {@code null}
+     * @param format The format of the file to store the result AST
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Task(final File source, final String language, final File output,
+        final File json, final File image, final TreeFormat format) {
+        this.source = source;
+        this.language = language;
+        this.output = output;
+        this.json = json;
+        this.image = image;
+        this.format = format;
+    }
+
+    /**
+     * Constructor for a task that produces generated code only.
+     * @param source The source file
+     * @param language The programming language of the source file
+     * @param output The file to store the generated code
+     */
+    public Task(final File source, final String language, final File output) {
+        this(source, language, output, null, null, TreeFormat.JSON);
+    }
+
+    /**
+     * Returns the source file.
+     * @return The source file
+     */
+    public File getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the programming language of the source file.
+     * @return The language name
+     */
+    public String getLanguage() {
+        return this.language;
+    }
+
+    /**
+     * Returns the file to store the generated code.
+     * @return The output file
+     */
+    public File getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Returns the json file to store the result AST.
+     * @return The json file or {@code null} if json is not required
+     */
+    public File getJson() {
+        return this.json;
+    }
+
+    /**
+     * Returns the image file.
+     * @return The image file or {@code null} if image is not required
+     */
+    public File getImage() {
+        return this.image;
+    }
+
+    /**
+     * Checks whether the json file is written without pretty-printing.
+     * @return A boolean {@code true} for compact json
+     */
+    public boolean isCompact() {
+        return this.format == TreeFormat.COMPACT_JSON;
+    }
+
+    /**
+     * Returns the format of the file to store the result AST.
+     * @return The format
+     */
+    public TreeFormat getFormat() {
+        return this.format;
+    }
+}
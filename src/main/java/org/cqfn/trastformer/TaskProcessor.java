@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.IOException;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+
+/**
+ * Processor of transformation tasks.
+ * Processing consists of two stages: preparation of results, which is bound to CPU,
+ * and export of results, which is bound to input and output,
+ * so the stages of different tasks can be run on different threads.
+ *
+ * @since 0.1
+ */
+public interface TaskProcessor {
+    /**
+     * Performs the first stage of processing a task.
+     * @param task The task
+     * @return The second stage
+     * @throws IOException If an error during input actions occurs
+     * @throws ProcessorException If DSL processing fails
+     */
+    Export prepare(Task task) throws IOException, ProcessorException;
+
+    /**
+     * Processes a task, performing both stages on the current thread.
+     * @param task The task
+     * @return The outcome
+     * @throws IOException If an error during input or output actions occurs
+     * @throws ProcessorException If DSL processing fails
+     */
+    default Outcome process(Task task) throws IOException, ProcessorException {
+        return this.prepare(task).write();
+    }
+}
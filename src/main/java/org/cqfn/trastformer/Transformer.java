@@ -0,0 +1,218 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.exceptions.BaseException;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.DslParser;
+import org.cqfn.trastformer.tree.StringPool;
+import org.cqfn.trastformer.tree.TreeInterner;
+import org.cqfn.uast.lang.FactorySelector;
+import org.cqfn.uast.lang.SourceCodeParser;
+
+/**
+ * Transformation of source code and trees held in memory, for embedding the tool
+ * into other applications.
+ * The rules are parsed and prepared once, when the object is created. The object
+ * is immutable and can be used from many threads at once: the prepared rules are
+ * shared, while the state of each parsing, transformation and code generation
+ * belongs to the calling thread.
+ * Code can be generated only from Java trees: for other languages, sources can be
+ * parsed and trees transformed, but {@link #transform(String)} and {@link #generate(Node)}
+ * are not supported.
+ *
+ * @since 0.1
+ */
+public final class Transformer {
+    /**
+     * The only language for which code can be generated.
+     */
+    private static final String GENERATED = "java";
+
+    /**
+     * The language of sources.
+     */
+    private final String language;
+
+    /**
+     * The prepared rules.
+     */
+    private final CompiledRules rules;
+
+    /**
+     * The maximum number of passes of rules over a tree.
+     */
+    private final int passes;
+
+    /**
+     * Constructor for rules applied once to each node.
+     * @param language The language of sources: "java", "js" or "py"
+     * @param dsl The DSL text with rules
+     */
+    public Transformer(final String language, final String dsl) {
+        this(language, dsl, 1);
+    }
+
+    /**
+     * Constructor.
+     * @param language The language of sources: "java", "js" or "py"
+     * @param dsl The DSL text with rules
+     * @param passes The maximum number of passes of rules over a tree, if more than one,
+     *  rules are applied repeatedly until the tree no longer changes
+     * @throws IllegalArgumentException If the language is not supported,
+     *  the DSL text contains errors or the number of passes is not positive
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public Transformer(final String language, final String dsl, final int passes) {
+        if (!LanguageDetector.isLanguage(language)) {
+            throw new IllegalArgumentException(
+                String.format("Unsupported language: %s", language)
+            );
+        }
+        if (passes < 1) {
+            throw new IllegalArgumentException(
+                String.format("The number of passes should be positive: %d", passes)
+            );
+        }
+        final List<Instruction<Transformation>> parsed;
+        try {
+            parsed = new DslParser().parseStrictly(dsl);
+        } catch (final BaseException exc) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Cannot parse rules: %s, %s", exc.getInitiator(), exc.getErrorMessage()
+                ),
+                exc
+            );
+        } catch (final RuntimeException exc) {
+            throw new IllegalArgumentException(
+                String.format("Cannot parse rules: %s", exc), exc
+            );
+        }
+        this.language = language;
+        this.rules = new CompiledRules(parsed, FactorySelector.INSTANCE.select(language));
+        this.passes = passes;
+    }
+
+    /**
+     * Returns the language of sources.
+     * @return The language name
+     */
+    public String getLanguage() {
+        return this.language;
+    }
+
+    /**
+     * Returns the prepared rules.
+     * @return The rules, which are thread-safe
+     */
+    public CompiledRules getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Transforms source code: parses it, applies the rules and generates the code
+     * of the result tree.
+     * @param code The source code
+     * @return The generated code, the source code as is if no rule was applied
+     * @throws IOException If the code cannot be parsed
+     * @throws UnsupportedOperationException If code cannot be generated for the language
+     */
+    public String transform(final String code) throws IOException {
+        this.checkGenerator();
+        final Node tree = this.parse(code);
+        final Node result = this.transform(tree);
+        String generated = code;
+        if (result != tree) {
+            generated = this.generate(result);
+        }
+        return generated;
+    }
+
+    /**
+     * Applies the rules to a tree. The tree is not changed.
+     * @param tree The root of the tree
+     * @return The root of the result tree, the same node if no rule was applied
+     */
+    public Node transform(final Node tree) {
+        final Node result;
+        if (this.passes > 1) {
+            result = this.rules.transformUntilFixpoint(tree, this.passes).getRoot();
+        } else {
+            result = this.rules.transform(tree);
+        }
+        return result;
+    }
+
+    /**
+     * Parses source code into a unified tree. The parser of the language reads sources
+     * from files only, so the code is passed through a temporary file.
+     * Data strings of the tree are taken from the shared string pool.
+     * @param code The source code
+     * @return The root of the tree
+     * @throws IOException If the code cannot be parsed
+     */
+    public Node parse(final String code) throws IOException {
+        final Path file = Files.createTempFile("trastformer", ".txt");
+        try {
+            Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+            return new TreeInterner(StringPool.SHARED).intern(
+                new SourceCodeParser(file.toString()).parse(this.language, true, false)
+            );
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Generates code from a tree. For now, generation supports only Java.
+     * @param tree The root of the tree
+     * @return The code
+     * @throws UnsupportedOperationException If code cannot be generated for the language
+     */
+    public String generate(final Node tree) {
+        this.checkGenerator();
+        return Pipeline.generate(tree);
+    }
+
+    /**
+     * Checks that code can be generated for the language of sources.
+     * @throws UnsupportedOperationException If it cannot
+     */
+    private void checkGenerator() {
+        if (!Transformer.GENERATED.equals(this.language)) {
+            throw new UnsupportedOperationException(
+                String.format("Code generation is not supported for %s", this.language)
+            );
+        }
+    }
+}
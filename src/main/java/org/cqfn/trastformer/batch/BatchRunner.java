@@ -0,0 +1,291 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Export;
+import org.cqfn.trastformer.LanguageDetector;
+import org.cqfn.trastformer.Processors;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.TaskProcessor;
+
+/**
+ * Transforms all source files of a directory tree on pools of worker threads.
+ * Rules are loaded once per language before the workers are started.
+ * Files are transformed on one pool and their results are written on another,
+ * so transformation of a file overlaps with writing the results of previous files.
+ * The number of transformed files whose results are not written yet is bounded:
+ * when writers fall behind, transformation of the next files waits.
+ * A failure while processing one file does not stop processing of the others.
+ * On Java 21 and later, results are written on virtual threads, see {@link ThreadPools}.
+ *
+ * @since 0.1
+ */
+public final class BatchRunner {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(BatchRunner.class.getName());
+
+    /**
+     * Processors of all rule files.
+     */
+    private final List<Processors> processors;
+
+    /**
+     * The processor of tasks.
+     */
+    private final TaskProcessor processor;
+
+    /**
+     * The language detector.
+     */
+    private final LanguageDetector detector;
+
+    /**
+     * The number of threads that transform files.
+     */
+    private final int threads;
+
+    /**
+     * The number of threads that write results.
+     */
+    private final int writers;
+
+    /**
+     * Constructor.
+     * @param processors Processors with loaded rules
+     * @param processor The processor of tasks
+     * @param detector The language detector
+     * @param threads The number of threads that transform files
+     * @param writers The number of threads that write results
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public BatchRunner(final Processors processors, final TaskProcessor processor,
+        final LanguageDetector detector, final int threads, final int writers) {
+        this(Collections.singletonList(processors), processor, detector, threads, writers);
+    }
+
+    /**
+     * Constructor for tasks transformed by several rule files.
+     * @param processors Processors of all rule files
+     * @param processor The processor of tasks
+     * @param detector The language detector
+     * @param threads The number of threads that transform files
+     * @param writers The number of threads that write results
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public BatchRunner(final Collection<Processors> processors, final TaskProcessor processor,
+        final LanguageDetector detector, final int threads, final int writers) {
+        this.processors = new ArrayList<>(processors);
+        this.processor = processor;
+        this.detector = detector;
+        this.threads = threads;
+        this.writers = writers;
+    }
+
+    /**
+     * Transforms all supported files from the source directory and stores
+     * generated files into the output directory, preserving relative paths.
+     * @param sources The directory with source files
+     * @param outputs The directory to store generated files
+     * @return The summary of the run
+     * @throws IOException If the source directory cannot be read
+     * @throws ProcessorException If DSL processing fails
+     */
+    public Summary run(final Path sources, final Path outputs)
+        throws IOException, ProcessorException {
+        final Summary summary = new Summary();
+        final List<Task> tasks = this.collect(sources, outputs, summary);
+        final Set<String> languages = new LinkedHashSet<>();
+        for (final Task task : tasks) {
+            languages.add(task.getLanguage());
+        }
+        for (final Processors rules : this.processors) {
+            for (final String language : languages) {
+                rules.get(language);
+            }
+        }
+        final ExecutorService transformers = ThreadPools.compute(this.threads);
+        final ExecutorService exporters = ThreadPools.io(this.writers);
+        if (ThreadPools.isVirtual()) {
+            BatchRunner.LOG.fine("Results are written on virtual threads");
+        }
+        final Semaphore pending = new Semaphore(this.threads + this.writers * 2);
+        try {
+            for (final Task task : tasks) {
+                transformers.execute(
+                    () -> this.transform(task, exporters, pending, summary)
+                );
+            }
+        } finally {
+            transformers.shutdown();
+        }
+        BatchRunner.await(transformers, summary);
+        exporters.shutdown();
+        BatchRunner.await(exporters, summary);
+        summary.finish();
+        return summary;
+    }
+
+    /**
+     * Walks the source directory and creates a task for each supported file.
+     * If the output directory is inside the source directory, generated files
+     * are not transformed again.
+     * @param sources The directory with source files
+     * @param outputs The directory to store generated files
+     * @param summary The summary where skipped files are registered
+     * @return The list of tasks
+     * @throws IOException If the source directory cannot be read
+     */
+    private List<Task> collect(final Path sources, final Path outputs,
+        final Summary summary) throws IOException {
+        final Path excluded = outputs.toAbsolutePath().normalize();
+        final List<Path> files;
+        try (Stream<Path> stream = Files.walk(sources)) {
+            files = stream
+                .filter(path -> !path.toAbsolutePath().normalize().startsWith(excluded))
+                .filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        final List<Task> tasks = new ArrayList<>(files.size());
+        for (final Path path : files) {
+            final File file = path.toFile();
+            if (this.detector.isSupported(file)) {
+                tasks.add(
+                    new Task(
+                        file,
+                        this.detector.detect(file),
+                        outputs.resolve(sources.relativize(path)).toFile()
+                    )
+                );
+            } else {
+                summary.skip();
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Transforms a file and passes the results to the writers, isolating any failure.
+     * Waits while too many results are not written yet.
+     * @param task The task
+     * @param exporters The pool of threads that write results
+     * @param pending Permits for transformed files whose results are not written yet
+     * @param summary The summary to register the result
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void transform(final Task task, final ExecutorService exporters,
+        final Semaphore pending, final Summary summary) {
+        boolean passed = false;
+        try {
+            pending.acquire();
+            try {
+                final Export export = this.processor.prepare(task);
+                exporters.execute(() -> BatchRunner.write(task, export, pending, summary));
+                passed = true;
+            } finally {
+                if (!passed) {
+                    pending.release();
+                }
+            }
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException | ProcessorException | RuntimeException exc) {
+            BatchRunner.LOG.log(
+                Level.WARNING,
+                String.format("Cannot transform file: %s", task.getSource()),
+                exc
+            );
+        }
+        if (!passed) {
+            summary.failure(task.getSource());
+        }
+    }
+
+    /**
+     * Writes the results of a transformed file, isolating any failure.
+     * @param task The task
+     * @param export The results to be written
+     * @param pending Permits for transformed files whose results are not written yet
+     * @param summary The summary to register the result
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static void write(final Task task, final Export export, final Semaphore pending,
+        final Summary summary) {
+        try {
+            summary.register(export.write(), task.getSource());
+        } catch (final IOException | RuntimeException exc) {
+            BatchRunner.LOG.log(
+                Level.WARNING,
+                String.format("Cannot write results of file: %s", task.getSource()),
+                exc
+            );
+            summary.failure(task.getSource());
+        } finally {
+            pending.release();
+        }
+    }
+
+    /**
+     * Waits until a pool of threads finishes its tasks.
+     * @param pool The pool, which is already shut down
+     * @param summary The summary of the run, to report the progress
+     */
+    private static void await(final ExecutorService pool, final Summary summary) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                BatchRunner.LOG.info(
+                    String.format(
+                        "Waiting for workers: %d files done",
+                        summary.getProcessed()
+                    )
+                );
+            }
+        } catch (final InterruptedException exc) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
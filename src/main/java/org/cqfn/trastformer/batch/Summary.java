@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cqfn.trastformer.Outcome;
+
+/**
+ * Statistics collected during a batch run.
+ * The counters are updated concurrently by worker threads.
+ *
+ * @since 0.1
+ */
+public final class Summary {
+    /**
+     * The number of successfully transformed files.
+     */
+    private final AtomicInteger succeeded;
+
+    /**
+     * Files that could not be transformed.
+     */
+    private final List<File> failed;
+
+    /**
+     * The number of skipped files.
+     */
+    private final AtomicInteger skipped;
+
+    /**
+     * The number of files whose results are up to date.
+     */
+    private final AtomicInteger unchanged;
+
+    /**
+     * The number of files whose generated code is the same as for another file.
+     */
+    private final AtomicInteger duplicates;
+
+    /**
+     * The number of files copied as is because no rule was applied to them.
+     */
+    private final AtomicInteger untouched;
+
+    /**
+     * The moment the run was started, in nanoseconds.
+     */
+    private final long start;
+
+    /**
+     * The duration of the run, in nanoseconds.
+     */
+    private long duration;
+
+    /**
+     * Constructor.
+     */
+    public Summary() {
+        this.succeeded = new AtomicInteger();
+        this.failed = Collections.synchronizedList(new ArrayList<>(0));
+        this.skipped = new AtomicInteger();
+        this.unchanged = new AtomicInteger();
+        this.duplicates = new AtomicInteger();
+        this.untouched = new AtomicInteger();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Registers the outcome of processing a file.
+     * @param outcome The outcome
+     * @param file The source file
+     */
+    public void register(final Outcome outcome, final File file) {
+        switch (outcome) {
+            case GENERATED:
+                this.succeeded.incrementAndGet();
+                break;
+            case UP_TO_DATE:
+                this.unchanged.incrementAndGet();
+                break;
+            case DUPLICATE:
+                this.succeeded.incrementAndGet();
+                this.duplicates.incrementAndGet();
+                break;
+            case UNTOUCHED:
+                this.succeeded.incrementAndGet();
+                this.untouched.incrementAndGet();
+                break;
+            default:
+                this.failure(file);
+                break;
+        }
+    }
+
+    /**
+     * Registers a file that could not be transformed.
+     * @param file The source file
+     */
+    public void failure(final File file) {
+        this.failed.add(file);
+    }
+
+    /**
+     * Registers a skipped file.
+     */
+    public void skip() {
+        this.skipped.incrementAndGet();
+    }
+
+    /**
+     * Marks the run as finished.
+     */
+    public void finish() {
+        this.duration = System.nanoTime() - this.start;
+    }
+
+    /**
+     * Returns the number of successfully transformed files.
+     * @return The number of files
+     */
+    public int getSucceeded() {
+        return this.succeeded.get();
+    }
+
+    /**
+     * Returns the list of files that could not be transformed.
+     * @return The list of files
+     */
+    public List<File> getFailed() {
+        synchronized (this.failed) {
+            return new ArrayList<>(this.failed);
+        }
+    }
+
+    /**
+     * Returns the number of skipped files.
+     * @return The number of files
+     */
+    public int getSkipped() {
+        return this.skipped.get();
+    }
+
+    /**
+     * Returns the number of files whose results are up to date.
+     * @return The number of files
+     */
+    public int getUnchanged() {
+        return this.unchanged.get();
+    }
+
+    /**
+     * Returns the number of successfully transformed files whose generated code
+     * is the same as for another file.
+     * @return The number of files
+     */
+    public int getDuplicates() {
+        return this.duplicates.get();
+    }
+
+    /**
+     * Returns the number of successfully processed files that were copied as is
+     * because no rule was applied to them.
+     * @return The number of files
+     */
+    public int getUntouched() {
+        return this.untouched.get();
+    }
+
+    /**
+     * Returns the number of processed files.
+     * @return The number of files
+     */
+    public int getProcessed() {
+        return this.succeeded.get() + this.unchanged.get() + this.failed.size();
+    }
+
+    /**
+     * Returns the duration of the run.
+     * @return The duration, in milliseconds
+     */
+    public long getDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(this.duration);
+    }
+
+    @Override
+    public String toString() {
+        final int processed = this.getProcessed();
+        final double seconds = this.duration / (double) TimeUnit.SECONDS.toNanos(1);
+        double throughput = 0;
+        if (seconds > 0) {
+            throughput = processed / seconds;
+        }
+        return String.format(
+            String.join(
+                "",
+                "Processed %d files in %.3f s (%.1f files/s): ",
+                "%d succeeded (%d untouched, %d duplicates), %d up to date, %d failed,",
+                " %d skipped"
+            ),
+            processed,
+            seconds,
+            throughput,
+            this.succeeded.get(),
+            this.untouched.get(),
+            this.duplicates.get(),
+            this.unchanged.get(),
+            this.failed.size(),
+            this.skipped.get()
+        );
+    }
+}
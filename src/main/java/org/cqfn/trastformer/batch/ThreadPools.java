@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.batch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread pools of batch mode.
+ * This is the version for Java 8 to 20, where both pools are classic executors
+ * with a fixed number of platform threads. The multi-release jar contains another
+ * version of this class for Java 21 and later, which writes results on virtual threads.
+ *
+ * @since 0.1
+ */
+final class ThreadPools {
+    /**
+     * Private constructor.
+     */
+    private ThreadPools() {
+    }
+
+    /**
+     * Creates the pool of threads that transform files, which is bound by the processor.
+     * @param threads The number of threads
+     * @return The pool
+     */
+    static ExecutorService compute(final int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Creates the pool of threads that write results, which mostly wait for files.
+     * @param threads The number of threads
+     * @return The pool
+     */
+    static ExecutorService io(final int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Checks whether results are written on virtual threads.
+     * @return Always {@code false} for this version
+     */
+    static boolean isVirtual() {
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.binary;
+
+/**
+ * Layout of the binary format of trees.
+ * All numbers are big-endian 32-bit integers. A file consists of:
+ * <ul>
+ *  <li>the signature and the version of the format;</li>
+ *  <li>the index of the language name in the string table, or -1;</li>
+ *  <li>the string table: the number of strings, offsets of the strings
+ *   (one more than the number of strings, the last one is the total size)
+ *   and the strings themselves, in UTF-8;</li>
+ *  <li>the number of nodes and node records in depth-first order, a parent before
+ *   its children; each record consists of the index of the type name, the index of
+ *   the data, the number of children and the index of the node that follows
+ *   the subtree of the record.</li>
+ * </ul>
+ * Since records have a fixed size, any node is accessed by its index,
+ * the first child of a node is the next record, and the next sibling
+ * is the record that follows the subtree.
+ *
+ * @since 0.1
+ */
+final class BinaryFormat {
+    /**
+     * The signature of the format.
+     */
+    static final int MAGIC = 0x55415354;
+
+    /**
+     * The version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header: the signature, the version and the language index.
+     */
+    static final int HEADER = 12;
+
+    /**
+     * The size of a node record.
+     */
+    static final int RECORD = 16;
+
+    /**
+     * Private constructor.
+     */
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a tree written in the binary format.
+ * The file is mapped into memory, and nodes are accessed by their indexes directly
+ * in the mapped data, so no objects are created for nodes; strings are decoded
+ * on first access. The root has the index 0, children of a node follow it:
+ * <pre>
+ * for (int child = reader.getFirstChild(node); child &gt;= 0;
+ *     child = reader.getNextSibling(node, child)) {
+ *     ...
+ * }
+ * </pre>
+ * The reader is thread-safe.
+ *
+ * @since 0.1
+ */
+public final class BinaryTreeReader {
+    /**
+     * The data.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of strings.
+     */
+    private final int strings;
+
+    /**
+     * The position of string offsets.
+     */
+    private final int offsets;
+
+    /**
+     * The position of string bytes.
+     */
+    private final int chars;
+
+    /**
+     * The number of nodes.
+     */
+    private final int count;
+
+    /**
+     * The position of node records.
+     */
+    private final int records;
+
+    /**
+     * Decoded strings by indexes.
+     */
+    private final String[] decoded;
+
+    /**
+     * Constructor.
+     * The whole data is validated once, so that getters never read outside it:
+     * the string offsets must not decrease and must stay within the string table,
+     * the records must refer to existing strings, and the subtree ends and the numbers
+     * of children must describe a single tree.
+     * @param buffer The data in the binary format, big-endian regardless of
+     *  the byte order of the buffer
+     * @throws IOException If the data is not in a supported format or is malformed
+     */
+    public BinaryTreeReader(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        final int limit = this.buffer.limit();
+        if (limit < BinaryFormat.HEADER + 4
+            || this.buffer.getInt(0) != BinaryFormat.MAGIC
+            || this.buffer.getInt(4) != BinaryFormat.VERSION) {
+            throw new IOException("Unsupported tree format");
+        }
+        this.strings = this.buffer.getInt(BinaryFormat.HEADER);
+        this.offsets = BinaryFormat.HEADER + 4;
+        if (this.strings < 0
+            || this.offsets + (this.strings + 1L) * 4 + 4 > limit) {
+            throw new IOException("Malformed string table");
+        }
+        this.chars = this.offsets + (this.strings + 1) * 4;
+        final int nodes = this.chars + this.checkOffsets(limit - this.chars - 4);
+        this.count = this.buffer.getInt(nodes);
+        this.records = nodes + 4;
+        if (this.count < 1
+            || (long) this.records + (long) this.count * BinaryFormat.RECORD > limit) {
+            throw new IOException("Malformed node table");
+        }
+        final int language = this.buffer.getInt(8);
+        if (language < -1 || language >= this.strings) {
+            throw new IOException("Malformed language index");
+        }
+        this.checkRecords();
+        this.decoded = new String[this.strings];
+    }
+
+    /**
+     * Maps a file into memory.
+     * @param path The path to the file
+     * @return The reader
+     * @throws IOException If the file cannot be read or is not in a supported format
+     */
+    public static BinaryTreeReader map(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryTreeReader(
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+            );
+        }
+    }
+
+    /**
+     * Returns the language of the tree.
+     * @return The language name or an empty string if the tree belongs to no specific language
+     */
+    public String getLanguage() {
+        final int index = this.buffer.getInt(8);
+        String language = "";
+        if (index >= 0) {
+            language = this.string(index);
+        }
+        return language;
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return The number of nodes
+     */
+    public int getNodeCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the type name of a node.
+     * @param node The index of the node
+     * @return The type name
+     */
+    public String getType(final int node) {
+        return this.string(this.field(node, 0));
+    }
+
+    /**
+     * Returns the data of a node.
+     * @param node The index of the node
+     * @return The data, empty if the node has no data
+     */
+    public String getData(final int node) {
+        return this.string(this.field(node, 1));
+    }
+
+    /**
+     * Returns the number of children of a node.
+     * @param node The index of the node
+     * @return The number of children
+     */
+    public int getChildCount(final int node) {
+        return this.field(node, 2);
+    }
+
+    /**
+     * Returns the index of the node that follows the subtree of a node,
+     * so that nodes of the subtree have indexes from the index of the node
+     * (inclusive) to this index (exclusive).
+     * @param node The index of the node
+     * @return The index that follows the subtree
+     */
+    public int getSubtreeEnd(final int node) {
+        return this.field(node, 3);
+    }
+
+    /**
+     * Returns the first child of a node.
+     * @param node The index of the node
+     * @return The index of the first child or -1 if the node has no children
+     */
+    public int getFirstChild(final int node) {
+        int child = -1;
+        if (this.getChildCount(node) > 0) {
+            child = node + 1;
+        }
+        return child;
+    }
+
+    /**
+     * Returns the next sibling of a child.
+     * @param parent The index of the parent
+     * @param child The index of the child
+     * @return The index of the next sibling or -1 if the child is the last one
+     */
+    public int getNextSibling(final int parent, final int child) {
+        int next = this.getSubtreeEnd(child);
+        if (next >= this.getSubtreeEnd(parent)) {
+            next = -1;
+        }
+        return next;
+    }
+
+    /**
+     * Returns a child of a node.
+     * @param node The index of the node
+     * @param index The number of the child
+     * @return The index of the child
+     * @throws IndexOutOfBoundsException If there is no such child
+     */
+    public int getChild(final int node, final int index) {
+        if (index < 0 || index >= this.getChildCount(node)) {
+            throw new IndexOutOfBoundsException(
+                String.format("Node %d has no child %d", node, index)
+            );
+        }
+        int child = node + 1;
+        for (int skipped = 0; skipped < index; skipped = skipped + 1) {
+            child = this.getSubtreeEnd(child);
+        }
+        return child;
+    }
+
+    /**
+     * Checks that string offsets start from zero, do not decrease
+     * and do not exceed the available size.
+     * @param available The maximum total size of strings
+     * @return The total size of strings
+     * @throws IOException If the offsets are malformed
+     */
+    private int checkOffsets(final int available) throws IOException {
+        int previous = 0;
+        for (int index = 0; index <= this.strings; index = index + 1) {
+            final int offset = this.buffer.getInt(this.offsets + index * 4);
+            if (index == 0 && offset != 0 || offset < previous || offset > available) {
+                throw new IOException("Malformed string table");
+            }
+            previous = offset;
+        }
+        return previous;
+    }
+
+    /**
+     * Checks that node records refer to existing strings and form a single tree:
+     * each subtree ends after its node and within the subtree of the parent,
+     * and the children of each node, followed by subtree ends, fill its subtree exactly.
+     * @throws IOException If the records are malformed
+     */
+    private void checkRecords() throws IOException {
+        long children = 0;
+        for (int node = 0; node < this.count; node = node + 1) {
+            final int type = this.field(node, 0);
+            final int data = this.field(node, 1);
+            final int number = this.field(node, 2);
+            final int end = this.field(node, 3);
+            if (type < 0 || type >= this.strings || data < 0 || data >= this.strings
+                || number < 0 || end <= node || end > this.count
+                || node == 0 && end != this.count) {
+                throw new IOException(String.format("Malformed node record %d", node));
+            }
+            children = children + number;
+        }
+        if (children != this.count - 1) {
+            throw new IOException("Malformed node table");
+        }
+        for (int node = 0; node < this.count; node = node + 1) {
+            final int end = this.field(node, 3);
+            int child = node + 1;
+            for (int index = this.field(node, 2); index > 0; index = index - 1) {
+                if (child >= end) {
+                    throw new IOException(String.format("Malformed node record %d", node));
+                }
+                child = this.field(child, 3);
+            }
+            if (child != end) {
+                throw new IOException(String.format("Malformed node record %d", node));
+            }
+        }
+    }
+
+    /**
+     * Reads a field of a node record.
+     * @param node The index of the node
+     * @param field The number of the field
+     * @return The value
+     */
+    private int field(final int node, final int field) {
+        if (node < 0 || node >= this.count) {
+            throw new IndexOutOfBoundsException(String.format("No node %d", node));
+        }
+        return this.buffer.getInt(this.records + node * BinaryFormat.RECORD + field * 4);
+    }
+
+    /**
+     * Returns a string from the string table.
+     * @param index The index of the string
+     * @return The string
+     */
+    private String string(final int index) {
+        String string = this.decoded[index];
+        if (string == null) {
+            final int begin = this.buffer.getInt(this.offsets + index * 4);
+            final int end = this.buffer.getInt(this.offsets + index * 4 + 4);
+            final byte[] bytes = new byte[end - begin];
+            final ByteBuffer view = this.buffer.duplicate();
+            view.position(this.chars + begin);
+            view.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            this.decoded[index] = string;
+        }
+        return string;
+    }
+}
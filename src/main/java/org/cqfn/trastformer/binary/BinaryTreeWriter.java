@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Writes a syntax tree in the binary format.
+ * The language is detected the same way as by the JSON serializer.
+ *
+ * @since 0.1
+ */
+public final class BinaryTreeWriter {
+    /**
+     * The 'language' property of node types.
+     */
+    private static final String LANGUAGE = "language";
+
+    /**
+     * The language of nodes that belong to no specific language.
+     */
+    private static final String COMMON = "common";
+
+    /**
+     * The root of the tree.
+     */
+    private final Node root;
+
+    /**
+     * Constructor.
+     * @param root The root of the tree
+     */
+    public BinaryTreeWriter(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Writes the tree into a file, creating parent directories if necessary.
+     * @param path The path of the file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeToFile(final Path path) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+            this.write(output);
+        }
+    }
+
+    /**
+     * Writes the tree.
+     * @param stream The stream, it is flushed but not closed
+     * @throws IOException If the tree cannot be written
+     */
+    public void write(final OutputStream stream) throws IOException {
+        final Map<String, Integer> indexes = new HashMap<>();
+        final List<String> strings = new ArrayList<>(0);
+        final List<Node> nodes = new ArrayList<>(0);
+        final List<Integer> ends = new ArrayList<>(0);
+        final String language = BinaryTreeWriter.collect(
+            this.root, indexes, strings, nodes, ends
+        );
+        final DataOutputStream output = new DataOutputStream(stream);
+        output.writeInt(BinaryFormat.MAGIC);
+        output.writeInt(BinaryFormat.VERSION);
+        if (language.isEmpty()) {
+            output.writeInt(-1);
+        } else {
+            output.writeInt(BinaryTreeWriter.index(language, indexes, strings));
+        }
+        final List<byte[]> encoded = new ArrayList<>(strings.size());
+        output.writeInt(strings.size());
+        int offset = 0;
+        for (final String string : strings) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            output.writeInt(offset);
+            offset = offset + bytes.length;
+        }
+        output.writeInt(offset);
+        for (final byte[] bytes : encoded) {
+            output.write(bytes);
+        }
+        output.writeInt(nodes.size());
+        for (int index = 0; index < nodes.size(); index = index + 1) {
+            final Node node = nodes.get(index);
+            output.writeInt(indexes.get(node.getTypeName()));
+            output.writeInt(indexes.get(node.getData()));
+            output.writeInt(node.getChildCount());
+            output.writeInt(ends.get(index));
+        }
+        output.flush();
+    }
+
+    /**
+     * Collects nodes of a subtree in depth-first order, indexes their strings
+     * and calculates the ends of their subtrees.
+     * @param node The root of the subtree
+     * @param indexes Indexes of strings
+     * @param strings Strings by indexes
+     * @param nodes Nodes in depth-first order
+     * @param ends Indexes of nodes that follow subtrees, by indexes of nodes
+     * @return The language of the first node, in post-order, that belongs
+     *  to a specific language, or an empty string
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static String collect(final Node node, final Map<String, Integer> indexes,
+        final List<String> strings, final List<Node> nodes, final List<Integer> ends) {
+        final int position = nodes.size();
+        nodes.add(node);
+        ends.add(0);
+        BinaryTreeWriter.index(node.getTypeName(), indexes, strings);
+        BinaryTreeWriter.index(node.getData(), indexes, strings);
+        String language = "";
+        final int count = node.getChildCount();
+        for (int index = 0; index < count; index = index + 1) {
+            final String child = BinaryTreeWriter.collect(
+                node.getChild(index), indexes, strings, nodes, ends
+            );
+            if (language.isEmpty()) {
+                language = child;
+            }
+        }
+        ends.set(position, nodes.size());
+        if (language.isEmpty()) {
+            language = node.getType().getProperty(BinaryTreeWriter.LANGUAGE);
+            if (language == null || BinaryTreeWriter.COMMON.equals(language)) {
+                language = "";
+            }
+        }
+        return language;
+    }
+
+    /**
+     * Returns the index of a string, adding the string to the table if necessary.
+     * @param string The string
+     * @param indexes Indexes of strings
+     * @param strings Strings by indexes
+     * @return The index
+     */
+    private static int index(final String string, final Map<String, Integer> indexes,
+        final List<String> strings) {
+        Integer index = indexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            indexes.put(string, index);
+            strings.add(string);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.cli;
+
+import com.beust.jcommander.IParameterValidator;
+import com.beust.jcommander.ParameterException;
+import java.util.Locale;
+
+/**
+ * Validator of the path to the file that stores the result tree:
+ * a JSON file or a file in the binary format.
+ *
+ * @since 0.1
+ */
+public final class TreePathValidator implements IParameterValidator {
+    @Override
+    public void validate(final String name, final String value) throws ParameterException {
+        if (value.isEmpty() || value.charAt(0) == '-') {
+            throw new ParameterException(
+                String.format("Missed parameter for the option [%s]", name)
+            );
+        }
+        final String lower = value.toLowerCase(Locale.ENGLISH);
+        if (!lower.endsWith(".json") && !lower.endsWith(".uast")) {
+            throw new ParameterException(
+                String.format(
+                    "The parameter [%s] should be a path to a .json or .uast file", value
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Export;
+import org.cqfn.trastformer.Outcome;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.TaskProcessor;
+import org.cqfn.trastformer.utils.ContentHash;
+
+/**
+ * Processor that skips tasks whose inputs have not changed since the previous run.
+ *
+ * @since 0.1
+ */
+public final class IncrementalProcessor implements TaskProcessor {
+    /**
+     * The tool version.
+     */
+    private static final String VERSION = IncrementalProcessor.version();
+
+    /**
+     * The processor that actually transforms files.
+     */
+    private final TaskProcessor origin;
+
+    /**
+     * The manifest.
+     */
+    private final Manifest manifest;
+
+    /**
+     * The hash of the rules.
+     */
+    private final String rules;
+
+    /**
+     * Constructor.
+     * @param origin The processor that actually transforms files
+     * @param manifest The manifest
+     * @param rules The hash of the rules
+     */
+    public IncrementalProcessor(final TaskProcessor origin, final Manifest manifest,
+        final String rules) {
+        this.origin = origin;
+        this.manifest = manifest;
+        this.rules = rules;
+    }
+
+    @Override
+    public Export prepare(final Task task) throws IOException, ProcessorException {
+        final ManifestEntry entry = new ManifestEntry(
+            task,
+            new ContentHash(Files.readAllBytes(task.getSource().toPath())).asHex(),
+            this.rules,
+            IncrementalProcessor.VERSION
+        );
+        Export export = () -> Outcome.UP_TO_DATE;
+        if (!this.manifest.isUpToDate(entry)) {
+            final Export origin = this.origin.prepare(task);
+            export = () -> {
+                final Outcome outcome = origin.write();
+                if (outcome.isWritten()) {
+                    this.manifest.put(entry);
+                }
+                return outcome;
+            };
+        }
+        return export;
+    }
+
+    /**
+     * Returns the tool version.
+     * @return The version from the jar manifest or "dev" if it is not available
+     */
+    private static String version() {
+        String version = IncrementalProcessor.class.getPackage().getImplementationVersion();
+        if (version == null) {
+            version = "dev";
+        }
+        return version;
+    }
+}
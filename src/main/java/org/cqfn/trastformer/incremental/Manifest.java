@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manifest of processed files, stored between runs.
+ * Can be updated concurrently by several worker threads.
+ *
+ * @since 0.1
+ */
+public final class Manifest {
+    /**
+     * The signature of the manifest file.
+     */
+    private static final int MAGIC = 0x54524d31;
+
+    /**
+     * The manifest file.
+     */
+    private final Path file;
+
+    /**
+     * Entries by absolute paths of source files.
+     */
+    private final Map<String, ManifestEntry> entries;
+
+    /**
+     * Constructor.
+     * @param file The manifest file
+     */
+    public Manifest(final Path file) {
+        this.file = file;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads entries from the manifest file, if it exists.
+     * @throws IOException If the manifest file cannot be read
+     */
+    public void load() throws IOException {
+        if (Files.isRegularFile(this.file)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.file))
+            )) {
+                if (input.readInt() != Manifest.MAGIC) {
+                    throw new IOException(
+                        String.format("Not a manifest file: %s", this.file)
+                    );
+                }
+                final int count = input.readInt();
+                for (int index = 0; index < count; index = index + 1) {
+                    final ManifestEntry entry = new ManifestEntry(input);
+                    this.entries.put(entry.getSource(), entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores entries into the manifest file.
+     * @throws IOException If the manifest file cannot be written
+     */
+    public void save() throws IOException {
+        final Path parent = this.file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temp = Files.createTempFile(parent, "manifest", ".tmp");
+        final List<ManifestEntry> list = new ArrayList<>(this.entries.values());
+        try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temp))
+        )) {
+            output.writeInt(Manifest.MAGIC);
+            output.writeInt(list.size());
+            for (final ManifestEntry entry : list) {
+                entry.write(output);
+            }
+        }
+        Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Checks whether the results described by an entry are already produced.
+     * @param entry The entry that describes the current inputs and outputs
+     * @return A boolean {@code true} if the inputs have not changed since the last run
+     *  and all outputs exist, or {@code false} otherwise
+     */
+    public boolean isUpToDate(final ManifestEntry entry) {
+        return entry.equals(this.entries.get(entry.getSource())) && entry.outputsExist();
+    }
+
+    /**
+     * Adds or replaces an entry.
+     * @param entry The entry
+     */
+    public void put(final ManifestEntry entry) {
+        this.entries.put(entry.getSource(), entry);
+    }
+}
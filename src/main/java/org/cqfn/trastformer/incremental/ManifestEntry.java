@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.incremental;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.cqfn.trastformer.Task;
+
+/**
+ * Entry of the manifest that describes inputs and outputs of a processed file.
+ *
+ * @since 0.1
+ */
+public final class ManifestEntry {
+    /**
+     * The values: source path, language, source hash, rules hash, tool version,
+     * output path, json path and image path.
+     */
+    private final String[] values;
+
+    /**
+     * Constructor.
+     * @param task The task
+     * @param source The hash of the source file content
+     * @param rules The hash of the rules
+     * @param version The tool version
+     */
+    public ManifestEntry(final Task task, final String source, final String rules,
+        final String version) {
+        this(
+            new String[] {
+                task.getSource().getAbsolutePath(),
+                task.getLanguage(),
+                source,
+                rules,
+                version,
+                ManifestEntry.path(task.getOutput()),
+                ManifestEntry.path(task.getJson()),
+                ManifestEntry.path(task.getImage()),
+            }
+        );
+    }
+
+    /**
+     * Constructor.
+     * @param input The stream to read the entry
+     * @throws IOException If the entry cannot be read
+     */
+    public ManifestEntry(final DataInputStream input) throws IOException {
+        this(ManifestEntry.read(input));
+    }
+
+    /**
+     * Primary constructor.
+     * @param values The values
+     */
+    private ManifestEntry(final String... values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the absolute path of the source file.
+     * @return The path
+     */
+    public String getSource() {
+        return this.values[0];
+    }
+
+    /**
+     * Checks whether all output files of the entry exist.
+     * @return A boolean {@code true} if all outputs exist or {@code false} otherwise
+     */
+    public boolean outputsExist() {
+        boolean exist = true;
+        for (int index = 5; index < this.values.length && exist; index = index + 1) {
+            exist = this.values[index].isEmpty() || new File(this.values[index]).exists();
+        }
+        return exist;
+    }
+
+    /**
+     * Writes the entry.
+     * @param output The stream
+     * @throws IOException If the entry cannot be written
+     */
+    public void write(final DataOutputStream output) throws IOException {
+        output.writeInt(this.values.length);
+        for (final String value : this.values) {
+            output.writeUTF(value);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof ManifestEntry
+            && Arrays.equals(this.values, ((ManifestEntry) obj).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.values);
+    }
+
+    /**
+     * Returns the absolute path of an optional file.
+     * @param file The file, may be {@code null}
+     * @return The path or an empty string
+     */
+    private static String path(final File file) {
+        final String path;
+        if (file == null) {
+            path = "";
+        } else {
+            path = file.getAbsolutePath();
+        }
+        return path;
+    }
+
+    /**
+     * Reads values of an entry.
+     * @param input The stream
+     * @return The values
+     * @throws IOException If the values cannot be read
+     */
+    private static String[] read(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        final String[] values = new String[count];
+        for (int index = 0; index < count; index = index + 1) {
+            values[index] = input.readUTF();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorder of phase events into Java Flight Recorder.
+ * This class is loaded only if the runtime provides the JFR API.
+ *
+ * @since 0.1
+ */
+final class JfrRecorder implements Recorder {
+    @Override
+    public Object begin() {
+        final PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commit(final Object event, final Phase phase, final String file,
+        final long time, final long bytes) {
+        final PhaseEvent jfr = (PhaseEvent) event;
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.phase = phase.getName();
+            jfr.file = file;
+            jfr.cpu = time;
+            jfr.allocated = bytes;
+            jfr.commit();
+        }
+    }
+
+    /**
+     * JFR event of a measured phase.
+     *
+     * @since 0.1
+     */
+    @Name("org.cqfn.trastformer.Phase")
+    @Label("Phase")
+    @Category("Trastformer")
+    @Description("A stage of transformation of a file")
+    @SuppressWarnings("PMD.ImmutableField")
+    static final class PhaseEvent extends Event {
+        /**
+         * The phase name.
+         */
+        @Label("Phase")
+        private String phase;
+
+        /**
+         * The processed file.
+         */
+        @Label("File")
+        private String file;
+
+        /**
+         * The CPU time.
+         */
+        @Label("CPU Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long cpu;
+
+        /**
+         * The number of allocated bytes.
+         */
+        @Label("Allocated")
+        @DataAmount(DataAmount.BYTES)
+        private long allocated;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Performance metrics of a run: time and memory spent in each phase and sizes of trees.
+ * Each measured phase is also recorded as a Java Flight Recorder event
+ * if the runtime supports JFR. Thread-safe.
+ *
+ * @since 0.1
+ */
+public final class Metrics {
+    /**
+     * The JFR recorder, created if JFR is available.
+     */
+    private static final Recorder RECORDER = Metrics.recorder();
+
+    /**
+     * Statistics by phases.
+     */
+    private final Map<Phase, PhaseStats> phases;
+
+    /**
+     * The number of processed files.
+     */
+    private final AtomicLong files;
+
+    /**
+     * The total number of nodes of trees before transformation.
+     */
+    private final AtomicLong before;
+
+    /**
+     * The total number of nodes of trees after transformation.
+     */
+    private final AtomicLong after;
+
+    /**
+     * The bean to measure CPU time and allocations of threads.
+     */
+    private final ThreadMXBean threads;
+
+    /**
+     * Whether sizes of trees are counted.
+     */
+    private final boolean sizes;
+
+    /**
+     * Constructor.
+     * @param sizes Whether sizes of trees are counted, which takes a walk over
+     *  each tree before and after transformation, so it is only worth it
+     *  if a report is requested
+     */
+    public Metrics(final boolean sizes) {
+        this.phases = new EnumMap<>(Phase.class);
+        for (final Phase phase : Phase.values()) {
+            this.phases.put(phase, new PhaseStats());
+        }
+        this.files = new AtomicLong();
+        this.before = new AtomicLong();
+        this.after = new AtomicLong();
+        this.threads = ManagementFactory.getThreadMXBean();
+        this.sizes = sizes;
+    }
+
+    /**
+     * Constructor of metrics that do not count sizes of trees.
+     */
+    public Metrics() {
+        this(false);
+    }
+
+    /**
+     * Starts measuring a phase on the current thread.
+     * @param phase The phase
+     * @param file The processed file, may be {@code null}
+     * @return The measurement to be stopped on the same thread
+     */
+    public Measurement start(final Phase phase, final File file) {
+        return new Measurement(phase, file);
+    }
+
+    /**
+     * Registers a transformed tree.
+     * @param source The tree before transformation
+     * @param result The tree after transformation
+     */
+    public void countTree(final Node source, final Node result) {
+        this.files.incrementAndGet();
+        if (this.sizes) {
+            this.before.addAndGet(Metrics.size(source));
+            this.after.addAndGet(Metrics.size(result));
+        }
+    }
+
+    /**
+     * Returns statistics of a phase.
+     * @param phase The phase
+     * @return The statistics
+     */
+    public PhaseStats getPhase(final Phase phase) {
+        return this.phases.get(phase);
+    }
+
+    /**
+     * Returns the number of transformed files.
+     * @return The number of files
+     */
+    public long getFiles() {
+        return this.files.get();
+    }
+
+    /**
+     * Returns the total number of nodes of trees before transformation.
+     * @return The number of nodes, zero if sizes of trees are not counted
+     */
+    public long getNodesBefore() {
+        return this.before.get();
+    }
+
+    /**
+     * Returns the total number of nodes of trees after transformation.
+     * @return The number of nodes, zero if sizes of trees are not counted
+     */
+    public long getNodesAfter() {
+        return this.after.get();
+    }
+
+    /**
+     * Returns the CPU time of the current thread.
+     * @return The time, in nanoseconds, or zero if it cannot be measured
+     */
+    private long cpuTime() {
+        long time = 0;
+        if (this.threads.isCurrentThreadCpuTimeSupported()) {
+            time = this.threads.getCurrentThreadCpuTime();
+        }
+        return time;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread.
+     * @return The number of bytes, or zero if it cannot be measured
+     */
+    private long allocatedBytes() {
+        long bytes = 0;
+        if (this.threads instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) this.threads;
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bytes = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Counts nodes of a tree.
+     * @param root The root of the tree
+     * @return The number of nodes
+     */
+    private static long size(final Node root) {
+        long count = 1;
+        final int children = root.getChildCount();
+        for (int index = 0; index < children; index = index + 1) {
+            count = count + Metrics.size(root.getChild(index));
+        }
+        return count;
+    }
+
+    /**
+     * Creates the JFR recorder if the runtime supports JFR.
+     * @return The recorder or {@code null}
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static Recorder recorder() {
+        Recorder recorder = null;
+        try {
+            Class.forName("jdk.jfr.Event");
+            recorder = (Recorder) Class.forName(
+                "org.cqfn.trastformer.metrics.JfrRecorder"
+            ).getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError exc) {
+            recorder = null;
+        }
+        return recorder;
+    }
+
+    /**
+     * Measurement of a phase, started on a thread.
+     *
+     * @since 0.1
+     */
+    public final class Measurement {
+        /**
+         * The phase.
+         */
+        private final Phase phase;
+
+        /**
+         * The processed file, may be {@code null}.
+         */
+        private final File file;
+
+        /**
+         * The JFR event, may be {@code null}.
+         */
+        private final Object event;
+
+        /**
+         * The wall-clock time at start.
+         */
+        private final long nanos;
+
+        /**
+         * The CPU time of the thread at start.
+         */
+        private final long time;
+
+        /**
+         * The number of bytes allocated by the thread before start.
+         */
+        private final long bytes;
+
+        /**
+         * Constructor.
+         * @param phase The phase
+         * @param file The processed file, may be {@code null}
+         */
+        private Measurement(final Phase phase, final File file) {
+            this.phase = phase;
+            this.file = file;
+            if (Metrics.RECORDER == null) {
+                this.event = null;
+            } else {
+                this.event = Metrics.RECORDER.begin();
+            }
+            this.bytes = Metrics.this.allocatedBytes();
+            this.time = Metrics.this.cpuTime();
+            this.nanos = System.nanoTime();
+        }
+
+        /**
+         * Stops the measurement and adds it to the statistics of the phase.
+         */
+        public void stop() {
+            final long wall = System.nanoTime() - this.nanos;
+            final long cpu = Metrics.this.cpuTime() - this.time;
+            final long allocated = Metrics.this.allocatedBytes() - this.bytes;
+            Metrics.this.phases.get(this.phase).add(wall, cpu, allocated);
+            if (this.event != null) {
+                String name = "";
+                if (this.file != null) {
+                    name = this.file.getPath();
+                }
+                Metrics.RECORDER.commit(this.event, this.phase, name, cpu, allocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import java.util.Locale;
+
+/**
+ * A stage of processing that is measured.
+ *
+ * @since 0.1
+ */
+public enum Phase {
+    /**
+     * Loading of DSL rules.
+     */
+    RULES,
+
+    /**
+     * Scanning of a source file for words required by rules.
+     */
+    FILTER,
+
+    /**
+     * Parsing of a source file.
+     */
+    PARSE,
+
+    /**
+     * Applying of rules to a tree.
+     */
+    TRANSFORM,
+
+    /**
+     * Generation of code from a tree.
+     */
+    GENERATE,
+
+    /**
+     * Writing of the generated code.
+     */
+    WRITE,
+
+    /**
+     * Export of a tree to JSON.
+     */
+    JSON,
+
+    /**
+     * Rendering of a tree to an image.
+     */
+    IMAGE;
+
+    /**
+     * Returns the name of the phase used in reports.
+     * @return The name in lower case
+     */
+    public String getName() {
+        return this.name().toLowerCase(Locale.ENGLISH);
+    }
+}
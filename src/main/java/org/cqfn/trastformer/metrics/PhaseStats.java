@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulated measurements of a phase. Thread-safe.
+ *
+ * @since 0.1
+ */
+public final class PhaseStats {
+    /**
+     * The number of measurements.
+     */
+    private final AtomicLong count;
+
+    /**
+     * The total wall-clock time, in nanoseconds.
+     */
+    private final AtomicLong wall;
+
+    /**
+     * The total CPU time, in nanoseconds.
+     */
+    private final AtomicLong cpu;
+
+    /**
+     * The total number of allocated bytes.
+     */
+    private final AtomicLong allocated;
+
+    /**
+     * Constructor.
+     */
+    public PhaseStats() {
+        this.count = new AtomicLong();
+        this.wall = new AtomicLong();
+        this.cpu = new AtomicLong();
+        this.allocated = new AtomicLong();
+    }
+
+    /**
+     * Adds a measurement.
+     * @param nanos The wall-clock time, in nanoseconds
+     * @param time The CPU time, in nanoseconds
+     * @param bytes The number of allocated bytes
+     */
+    public void add(final long nanos, final long time, final long bytes) {
+        this.count.incrementAndGet();
+        this.wall.addAndGet(nanos);
+        this.cpu.addAndGet(time);
+        this.allocated.addAndGet(bytes);
+    }
+
+    /**
+     * Returns the number of measurements.
+     * @return The number
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Returns the total wall-clock time.
+     * @return The time, in nanoseconds
+     */
+    public long getWallTime() {
+        return this.wall.get();
+    }
+
+    /**
+     * Returns the total CPU time.
+     * @return The time, in nanoseconds, or zero if it cannot be measured
+     */
+    public long getCpuTime() {
+        return this.cpu.get();
+    }
+
+    /**
+     * Returns the total number of allocated bytes.
+     * @return The number of bytes, or zero if it cannot be measured
+     */
+    public long getAllocatedBytes() {
+        return this.allocated.get();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.RuleDispatcher;
+
+/**
+ * Machine-readable JSON report of performance metrics of a run:
+ * statistics of phases, sizes of trees and match and application counts of rules.
+ *
+ * @since 0.1
+ */
+public final class StatsReport {
+    /**
+     * The performance metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Loaded rules by language names.
+     */
+    private final Map<String, CompiledRules> rules;
+
+    /**
+     * Constructor.
+     * @param metrics The performance metrics
+     * @param rules Loaded rules by language names
+     */
+    public StatsReport(final Metrics metrics, final Map<String, CompiledRules> rules) {
+        this.metrics = metrics;
+        this.rules = rules;
+    }
+
+    /**
+     * Writes the report into a file, creating parent directories if necessary.
+     * @param path The path of the file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeToFile(final Path path) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            this.write(writer);
+        }
+    }
+
+    /**
+     * Writes the report.
+     * @param output The writer, it is flushed but not closed
+     * @throws IOException If the report cannot be written
+     */
+    public void write(final Writer output) throws IOException {
+        final JsonWriter writer = new JsonWriter(output);
+        writer.setIndent("  ");
+        writer.beginObject();
+        writer.name("files").value(this.metrics.getFiles());
+        writer.name("phases").beginArray();
+        for (final Phase phase : Phase.values()) {
+            final PhaseStats stats = this.metrics.getPhase(phase);
+            writer.beginObject();
+            writer.name("phase").value(phase.getName());
+            writer.name("count").value(stats.getCount());
+            writer.name("wallNanos").value(stats.getWallTime());
+            writer.name("cpuNanos").value(stats.getCpuTime());
+            writer.name("allocatedBytes").value(stats.getAllocatedBytes());
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.name("nodes").beginObject();
+        writer.name("before").value(this.metrics.getNodesBefore());
+        writer.name("after").value(this.metrics.getNodesAfter());
+        writer.endObject();
+        writer.name("rules").beginArray();
+        for (final Map.Entry<String, CompiledRules> entry : this.rules.entrySet()) {
+            final RuleDispatcher dispatcher = entry.getValue().getDispatcher();
+            final List<Instruction<Transformation>> list = entry.getValue().getRules();
+            for (int index = 0; index < list.size(); index = index + 1) {
+                writer.beginObject();
+                writer.name("language").value(entry.getKey());
+                writer.name("index").value(index + 1);
+                writer.name("rule").value(list.get(index).getRule().toString());
+                writer.name("attempts").value(dispatcher.getAttempts(index));
+                writer.name("applications").value(dispatcher.getApplications(index));
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+    }
+}
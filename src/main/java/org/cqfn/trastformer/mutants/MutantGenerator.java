@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.mutants;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.core.Converter;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.tree.PersistentTree;
+
+/**
+ * Finds all sites of a tree where rules can be applied and creates mutants,
+ * that is, copies of the tree with a single rule applied at a single site.
+ * The original tree is not modified, so it is parsed only once for all mutants.
+ * A mutant shares all unchanged subtrees with the original tree, so it costs memory
+ * proportional to the depth of the site and the size of the changed subtree.
+ *
+ * @since 0.1
+ */
+public final class MutantGenerator {
+    /**
+     * The rules.
+     */
+    private final CompiledRules rules;
+
+    /**
+     * The original tree.
+     */
+    private final PersistentTree tree;
+
+    /**
+     * Constructor.
+     * @param rules The rules
+     * @param root The root of the original tree
+     */
+    public MutantGenerator(final CompiledRules rules, final Node root) {
+        this.rules = rules;
+        this.tree = new PersistentTree(root);
+    }
+
+    /**
+     * Finds all sites where rules can be applied, with paths of their nodes.
+     * @return The list of sites, sorted by rules
+     */
+    public List<MutationSite> findSites() {
+        final List<List<int[]>> matches = this.rules.getDispatcher()
+            .findMatches(this.tree.getRoot(), this.rules.getFactory());
+        final List<MutationSite> sites = new ArrayList<>(0);
+        for (int rule = 0; rule < matches.size(); rule = rule + 1) {
+            final List<int[]> paths = matches.get(rule);
+            for (int index = 0; index < paths.size(); index = index + 1) {
+                sites.add(new MutationSite(rule, index, paths.get(index)));
+            }
+        }
+        return sites;
+    }
+
+    /**
+     * Creates a mutant.
+     * If the site holds the path of its node, the node is taken by the path,
+     * otherwise it is searched for in the tree.
+     * @param site The site where the rule is applied
+     * @return The root of the mutant tree or {@link EmptyTree#INSTANCE} if some ancestor
+     *  of the site cannot be rebuilt around the converted node
+     * @throws IllegalArgumentException If the rule does not match enough nodes
+     */
+    public Node mutate(final MutationSite site) {
+        final Converter rule = this.rules.getDispatcher().getRule(site.getRule());
+        final Factory factory = this.rules.getFactory();
+        int[] path = site.getPath();
+        if (path == null) {
+            path = this.tree.find(
+                node -> rule.convert(node, factory) != EmptyTree.INSTANCE,
+                site.getOccurrence()
+            );
+        }
+        if (path == null) {
+            throw new IllegalArgumentException(String.format("No such site: %s", site));
+        }
+        return this.tree.replace(path, rule.convert(this.tree.get(path), factory)).getRoot();
+    }
+}
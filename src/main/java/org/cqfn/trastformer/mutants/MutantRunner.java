@@ -0,0 +1,206 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.mutants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Pipeline;
+import org.cqfn.trastformer.PipelineOptions;
+import org.cqfn.trastformer.Processors;
+import org.cqfn.trastformer.RuleChain;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.store.OutputStore;
+import org.cqfn.trastformer.tree.TreeCache;
+import org.cqfn.trastformer.utils.CodeFileWriter;
+
+/**
+ * Generates mutants of a source file.
+ * The file is parsed once, or its tree is loaded from the cache of parsed trees,
+ * then mutants are generated and written one by one,
+ * so only one mutant tree is kept in memory at a time.
+ * Each mutant is stored in its own numbered subdirectory of the output directory
+ * under the name of the source file, or, if a store of results is specified,
+ * in the store under the same relative name. In the latter case, the code generated
+ * from the original tree is stored too, so mutants identical to it (equivalent ones)
+ * and to each other are reported.
+ *
+ * @since 0.1
+ */
+public final class MutantRunner {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(MutantRunner.class.getName());
+
+    /**
+     * The directory name of the code generated from the original tree in the store.
+     */
+    private static final String ORIGINAL = "original";
+
+    /**
+     * Processors with loaded rules.
+     */
+    private final Processors processors;
+
+    /**
+     * The pipeline that parses source files.
+     */
+    private final Pipeline pipeline;
+
+    /**
+     * The sampler of mutation sites.
+     */
+    private final SiteSampler sampler;
+
+    /**
+     * The store of results, may be {@code null}.
+     */
+    private final OutputStore store;
+
+    /**
+     * Constructor.
+     * @param processors Processors with loaded rules
+     * @param sampler The sampler of mutation sites
+     * @param store The store of results, {@code null} to write mutants to files
+     * @param trees The cache of parsed trees, may be {@code null}
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public MutantRunner(final Processors processors, final SiteSampler sampler,
+        final OutputStore store, final TreeCache trees) {
+        this.processors = processors;
+        this.sampler = sampler;
+        this.store = store;
+        this.pipeline = new Pipeline(
+            Collections.singletonList(new RuleChain(processors)),
+            PipelineOptions.DEFAULT.withTrees(trees)
+        );
+    }
+
+    /**
+     * Generates mutants of a source file.
+     * @param task The task, only the source file and the language are used
+     * @param outputs The directory to store mutants
+     * @return The number of written mutants
+     * @throws IOException If the source file cannot be parsed
+     * @throws ProcessorException If DSL processing fails
+     */
+    public int run(final Task task, final Path outputs) throws IOException, ProcessorException {
+        final Node root = this.pipeline.parse(task);
+        final MutantGenerator generator =
+            new MutantGenerator(this.processors.get(task.getLanguage()), root);
+        final List<MutationSite> sites = generator.findSites();
+        final List<MutationSite> selected = this.sampler.sample(sites);
+        MutantRunner.LOG.info(
+            String.format(
+                "%d sites found, %d mutants selected", sites.size(), selected.size()
+            )
+        );
+        final String name = task.getSource().getName();
+        final String original = new File(MutantRunner.ORIGINAL, name).getPath();
+        if (this.store != null) {
+            this.store.put(
+                original, OutputStore.CODE,
+                Pipeline.generate(root).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        int written = 0;
+        for (int index = 0; index < selected.size(); index = index + 1) {
+            final MutationSite site = selected.get(index);
+            final Node mutant = generator.mutate(site);
+            final File file = outputs.resolve(String.valueOf(index + 1)).resolve(name).toFile();
+            if (mutant == EmptyTree.INSTANCE) {
+                MutantRunner.LOG.warning(
+                    String.format("Mutant %s skipped, the tree cannot be rebuilt: %s", file, site)
+                );
+            } else if (this.write(file, index + 1, name, site, mutant)) {
+                written = written + 1;
+            }
+        }
+        if (this.store != null) {
+            this.report(original);
+        }
+        return written;
+    }
+
+    /**
+     * Writes a mutant to its file or into the store.
+     * @param file The file of the mutant
+     * @param number The number of the mutant
+     * @param name The name of the source file
+     * @param site The site where the rule is applied
+     * @param mutant The root of the mutant tree
+     * @return Whether the mutant is written
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private boolean write(final File file, final int number, final String name,
+        final MutationSite site, final Node mutant) {
+        final String code = Pipeline.generate(mutant);
+        boolean written = false;
+        try {
+            if (this.store == null) {
+                new CodeFileWriter(file.toPath()).write(code);
+            } else {
+                final String key = new File(String.valueOf(number), name).getPath();
+                this.store.label(key, "site", site.toString());
+                this.store.put(key, OutputStore.CODE, code.getBytes(StandardCharsets.UTF_8));
+            }
+            MutantRunner.LOG.info(String.format("Mutant %s: %s", file, site));
+            written = true;
+        } catch (final IOException exc) {
+            MutantRunner.LOG.severe(String.format("Cannot write to file: %s", file));
+        }
+        return written;
+    }
+
+    /**
+     * Logs mutants whose code is the same as the code of the original tree
+     * or of other mutants.
+     * @param original The name of the code of the original tree in the store
+     */
+    private void report(final String original) {
+        for (final List<String> group : this.store.getDuplicates(OutputStore.CODE)) {
+            final List<String> mutants = new ArrayList<>(group);
+            if (mutants.remove(original)) {
+                MutantRunner.LOG.warning(
+                    String.format(
+                        "Mutants equivalent to the original: %s", String.join(", ", mutants)
+                    )
+                );
+            } else {
+                MutantRunner.LOG.warning(
+                    String.format("Identical mutants: %s", String.join(", ", mutants))
+                );
+            }
+        }
+    }
+}
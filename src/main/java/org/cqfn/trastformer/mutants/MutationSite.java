@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.mutants;
+
+/**
+ * A site where a rule can be applied: the rule and the number of the matched node
+ * among all nodes of the tree matched by this rule.
+ * A site found in a tree also holds the path of the matched node, so that it is not
+ * searched for again; sites are compared by the rule and the number only.
+ *
+ * @since 0.1
+ */
+public final class MutationSite implements Comparable<MutationSite> {
+    /**
+     * The index of the rule.
+     */
+    private final int rule;
+
+    /**
+     * The number of the matched node, starting from zero.
+     */
+    private final int occurrence;
+
+    /**
+     * The path of the matched node from the root, {@code null} if it is not known.
+     */
+    private final int[] path;
+
+    /**
+     * Constructor for a site whose node is not known yet.
+     * @param rule The index of the rule
+     * @param occurrence The number of the matched node, starting from zero
+     */
+    public MutationSite(final int rule, final int occurrence) {
+        this(rule, occurrence, null);
+    }
+
+    /**
+     * Constructor.
+     * @param rule The index of the rule
+     * @param occurrence The number of the matched node, starting from zero
+     * @param path The path of the matched node from the root, {@code null} if it is not known
+     */
+    public MutationSite(final int rule, final int occurrence, final int[] path) {
+        this.rule = rule;
+        this.occurrence = occurrence;
+        if (path == null) {
+            this.path = null;
+        } else {
+            this.path = path.clone();
+        }
+    }
+
+    /**
+     * Returns the index of the rule.
+     * @return The index
+     */
+    public int getRule() {
+        return this.rule;
+    }
+
+    /**
+     * Returns the number of the matched node among all nodes matched by the rule.
+     * @return The number, starting from zero
+     */
+    public int getOccurrence() {
+        return this.occurrence;
+    }
+
+    /**
+     * Returns the path of the matched node from the root.
+     * @return The path or {@code null} if it is not known
+     */
+    public int[] getPath() {
+        int[] result = null;
+        if (this.path != null) {
+            result = this.path.clone();
+        }
+        return result;
+    }
+
+    @Override
+    public int compareTo(final MutationSite other) {
+        int result = Integer.compare(this.rule, other.rule);
+        if (result == 0) {
+            result = Integer.compare(this.occurrence, other.occurrence);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        boolean result = false;
+        if (obj instanceof MutationSite) {
+            final MutationSite other = (MutationSite) obj;
+            result = this.rule == other.rule && this.occurrence == other.occurrence;
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.rule * 31 + this.occurrence;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rule %d, site %d", this.rule + 1, this.occurrence + 1);
+    }
+}
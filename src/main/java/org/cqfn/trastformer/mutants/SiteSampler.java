@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.mutants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selects a limited number of mutation sites.
+ * If there are more sites than the limit, a random sample is taken;
+ * the same seed always gives the same sample for the same sites.
+ *
+ * @since 0.1
+ */
+public final class SiteSampler {
+    /**
+     * The seed of the random generator.
+     */
+    private final long seed;
+
+    /**
+     * The maximum number of selected sites.
+     */
+    private final int limit;
+
+    /**
+     * Constructor.
+     * @param seed The seed of the random generator
+     * @param limit The maximum number of selected sites
+     */
+    public SiteSampler(final long seed, final int limit) {
+        this.seed = seed;
+        this.limit = limit;
+    }
+
+    /**
+     * Selects sites.
+     * @param sites All sites
+     * @return Selected sites, in the same order as in the original list
+     */
+    public List<MutationSite> sample(final List<MutationSite> sites) {
+        final List<MutationSite> result;
+        if (sites.size() <= this.limit) {
+            result = sites;
+        } else {
+            final List<MutationSite> copy = new ArrayList<>(sites);
+            final Random random = new Random(this.seed);
+            final int size = copy.size();
+            for (int index = 0; index < this.limit; index = index + 1) {
+                Collections.swap(copy, index, index + random.nextInt(size - index));
+            }
+            result = new ArrayList<>(copy.subList(0, this.limit));
+            Collections.sort(result);
+        }
+        return result;
+    }
+}
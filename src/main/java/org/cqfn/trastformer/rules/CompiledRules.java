@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.cqfn.astranaut.core.Adapter;
+import org.cqfn.astranaut.core.Converter;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+
+/**
+ * Transformation rules prepared for a specific language.
+ * Rules are applied through a {@link RuleDispatcher}, which is thread-safe,
+ * so the same object can be used from several threads.
+ *
+ * @since 0.1
+ */
+public final class CompiledRules {
+    /**
+     * The transformation rules.
+     */
+    private final List<Instruction<Transformation>> rules;
+
+    /**
+     * The node factory of the language.
+     */
+    private final Factory factory;
+
+    /**
+     * The dispatcher that selects and applies rules.
+     */
+    private final RuleDispatcher dispatcher;
+
+    /**
+     * Constructor.
+     * @param rules The transformation rules
+     * @param factory The node factory of the language
+     */
+    public CompiledRules(final List<Instruction<Transformation>> rules, final Factory factory) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.factory = factory;
+        this.dispatcher = new RuleDispatcher(this.rules);
+    }
+
+    /**
+     * Returns the transformation rules.
+     * @return The unmodifiable list of rules
+     */
+    public List<Instruction<Transformation>> getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Returns the node factory of the language.
+     * @return The factory
+     */
+    public Factory getFactory() {
+        return this.factory;
+    }
+
+    /**
+     * Returns the dispatcher that selects and applies rules.
+     * @return The dispatcher, which also counts match attempts
+     */
+    public RuleDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Returns the number of rules.
+     * @return The number of rules
+     */
+    public int countRules() {
+        return this.rules.size();
+    }
+
+    /**
+     * Transforms a tree, applying the rules to each node.
+     * @param node The root of the tree
+     * @return The root of the transformed tree, the same node if no rule was applied,
+     *  so callers can tell unchanged trees by identity
+     */
+    public Node transform(final Node node) {
+        final AtomicBoolean applied = new AtomicBoolean();
+        final Converter converter = (current, factory) ->
+            this.dispatcher.apply(current, factory, index -> applied.set(true));
+        final Node result = new Adapter(Collections.singletonList(converter), this.factory)
+            .convert(node);
+        Node root = node;
+        if (applied.get()) {
+            root = result;
+        }
+        return root;
+    }
+
+    /**
+     * Transforms a tree, applying the rules repeatedly until no rule can be applied,
+     * so that the result of one rule can be matched by another one.
+     * Nodes that are not changed are shared with the original tree, the root
+     * of the result is the same node if no rule was applied.
+     * @param node The root of the tree
+     * @param limit The maximum number of passes over the tree
+     * @return The result of the transformation
+     */
+    public FixpointResult transformUntilFixpoint(final Node node, final int limit) {
+        return new FixpointTransformer(this.dispatcher, this.factory).transform(node, limit);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import org.cqfn.astranaut.exceptions.ProcessorException;
+
+/**
+ * Exception "Could not read DSL file".
+ *
+ * @since 0.1
+ */
+public final class DslFileNotRead extends ProcessorException {
+    /**
+     * Version identifier.
+     */
+    private static final long serialVersionUID = -3571235683520981654L;
+
+    /**
+     * The path to the file.
+     */
+    private final String path;
+
+    /**
+     * Constructor.
+     * @param path The path to the file
+     */
+    public DslFileNotRead(final String path) {
+        super();
+        this.path = path;
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return String.format("Could not read DSL file: %s", this.path);
+    }
+}
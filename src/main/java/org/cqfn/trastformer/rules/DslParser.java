@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.core.exceptions.BaseException;
+import org.cqfn.astranaut.parser.ProgramParser;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+
+/**
+ * Parser of DSL text that extracts transformation rules.
+ *
+ * @since 0.1
+ */
+public final class DslParser {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(DslParser.class.getName());
+
+    /**
+     * Parses DSL text.
+     * As well as {@link org.cqfn.astranaut.api.TreeProcessor}, skips all rules
+     * if the text contains errors.
+     * @param text The DSL text
+     * @return The list of transformation rules
+     */
+    public List<Instruction<Transformation>> parse(final String text) {
+        List<Instruction<Transformation>> rules;
+        try {
+            rules = this.parseStrictly(text);
+        } catch (final BaseException exc) {
+            DslParser.LOG.severe(
+                String.format("%s, %s", exc.getInitiator(), exc.getErrorMessage())
+            );
+            rules = Collections.emptyList();
+        }
+        return rules;
+    }
+
+    /**
+     * Parses DSL text, failing if the text contains errors.
+     * @param text The DSL text
+     * @return The list of transformation rules
+     * @throws BaseException If the text contains errors
+     */
+    public List<Instruction<Transformation>> parseStrictly(final String text)
+        throws BaseException {
+        return new ProgramParser(text).parse().getTransformations();
+    }
+}
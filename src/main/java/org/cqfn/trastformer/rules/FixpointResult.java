@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * The result of applying rules repeatedly until the tree no longer changes.
+ *
+ * @since 0.1
+ */
+public final class FixpointResult {
+    /**
+     * The root of the transformed tree.
+     */
+    private final Node root;
+
+    /**
+     * The number of passes made over the tree.
+     */
+    private final int passes;
+
+    /**
+     * The reason the transformation stopped.
+     */
+    private final Status status;
+
+    /**
+     * Indexes of rules that keep changing the tree.
+     */
+    private final SortedSet<Integer> rules;
+
+    /**
+     * Constructor.
+     * @param root The root of the transformed tree
+     * @param passes The number of passes made over the tree
+     * @param status The reason the transformation stopped
+     * @param rules Indexes of rules that keep changing the tree
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    FixpointResult(final Node root, final int passes, final Status status,
+        final SortedSet<Integer> rules) {
+        this.root = root;
+        this.passes = passes;
+        this.status = status;
+        this.rules = Collections.unmodifiableSortedSet(new TreeSet<>(rules));
+    }
+
+    /**
+     * Returns the root of the transformed tree.
+     * @return The root node
+     */
+    public Node getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns the number of passes made over the tree, including the last one
+     * that did not change anything.
+     * @return The number of passes
+     */
+    public int getPasses() {
+        return this.passes;
+    }
+
+    /**
+     * Returns the reason the transformation stopped.
+     * @return The status
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Returns indexes of rules that keep changing the tree: rules applied within a rewrite
+     * cycle or, if the number of passes is exceeded, rules applied in the last pass.
+     * @return The sorted set of rule indexes, empty if the fixpoint is reached
+     */
+    public SortedSet<Integer> getRules() {
+        return this.rules;
+    }
+
+    /**
+     * The reason the transformation stopped.
+     *
+     * @since 0.1
+     */
+    public enum Status {
+        /**
+         * No rule can be applied to the tree.
+         */
+        REACHED,
+
+        /**
+         * The tree returned to one of its previous states.
+         */
+        CYCLE,
+
+        /**
+         * The maximum number of passes is exceeded.
+         */
+        LIMIT
+    }
+}
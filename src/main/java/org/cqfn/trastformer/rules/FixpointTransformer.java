@@ -0,0 +1,357 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Applies rules to a tree pass by pass until no rule can be applied.
+ * The first pass is the same as a single transformation: each node is tried once,
+ * after its children. Each next pass re-matches only the subtrees produced by rules
+ * in the previous pass and the ancestors of the nodes it changes, since a node
+ * whose subtree has not changed was already tried and did not match.
+ * After each pass the fingerprint of the tree is compared with fingerprints
+ * of its previous states, so a rewrite cycle is detected as soon as the tree
+ * returns to a state it already had. A matching fingerprint is confirmed by comparing
+ * the trees structurally, so a hash collision is not taken for a cycle.
+ * An object of this class is intended for a single transformation and is not thread-safe.
+ *
+ * @since 0.1
+ */
+final class FixpointTransformer {
+    /**
+     * A multiplier used to mix fingerprints.
+     */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The dispatcher that selects and applies rules.
+     */
+    private final RuleDispatcher dispatcher;
+
+    /**
+     * The node factory.
+     */
+    private final Factory factory;
+
+    /**
+     * Fingerprints of nodes, computed once for each node.
+     */
+    private final Map<Node, Long> fingerprints;
+
+    /**
+     * Constructor.
+     * @param dispatcher The dispatcher that selects and applies rules
+     * @param factory The node factory
+     */
+    FixpointTransformer(final RuleDispatcher dispatcher, final Factory factory) {
+        this.dispatcher = dispatcher;
+        this.factory = factory;
+        this.fingerprints = new IdentityHashMap<>();
+    }
+
+    /**
+     * Transforms a tree until no rule can be applied.
+     * @param root The root of the tree
+     * @param limit The maximum number of passes
+     * @return The result of the transformation
+     */
+    public FixpointResult transform(final Node root, final int limit) {
+        final List<Long> states = new ArrayList<>(limit + 1);
+        states.add(this.fingerprint(root));
+        final List<Node> trees = new ArrayList<>(limit + 1);
+        trees.add(root);
+        final List<SortedSet<Integer>> history = new ArrayList<>(limit);
+        Node current = root;
+        Marks marks = Marks.WHOLE;
+        FixpointResult result = null;
+        int passes = 0;
+        while (result == null) {
+            passes = passes + 1;
+            final Marks next = new Marks(false);
+            final SortedSet<Integer> applied = new TreeSet<>();
+            current = this.visit(current, marks, next, 0, applied);
+            if (applied.isEmpty()) {
+                result = new FixpointResult(
+                    current, passes, FixpointResult.Status.REACHED, applied
+                );
+            } else {
+                history.add(applied);
+                final long state = this.fingerprint(current);
+                final int previous = this.find(states, trees, state, current);
+                states.add(state);
+                trees.add(current);
+                if (previous >= 0) {
+                    final SortedSet<Integer> cycle = new TreeSet<>();
+                    for (final SortedSet<Integer> rules
+                        : history.subList(previous, history.size())) {
+                        cycle.addAll(rules);
+                    }
+                    result = new FixpointResult(
+                        current, passes, FixpointResult.Status.CYCLE, cycle
+                    );
+                } else if (passes >= limit) {
+                    result = new FixpointResult(
+                        current, passes, FixpointResult.Status.LIMIT, applied
+                    );
+                } else {
+                    marks = next.get(0);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits marked nodes of a subtree, children before their parent, and applies rules.
+     * @param node The root of the subtree
+     * @param marks The marks of nodes to be tried in this pass
+     * @param next The marks of the parent node for the next pass
+     * @param position The index of the node among children of its parent
+     * @param applied Indexes of rules applied in this pass
+     * @return The root of the transformed subtree
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Node visit(final Node node, final Marks marks, final Marks next,
+        final int position, final SortedSet<Integer> applied) {
+        final Marks own = new Marks(false);
+        final int count = node.getChildCount();
+        Node[] children = null;
+        for (int index = marks.next(0, count); index < count;
+            index = marks.next(index + 1, count)) {
+            final Node child = node.getChild(index);
+            final Node converted = this.visit(child, marks.get(index), own, index, applied);
+            if (converted != child) {
+                if (children == null) {
+                    children = node.getChildrenList().toArray(new Node[0]);
+                }
+                children[index] = converted;
+            }
+        }
+        Node current = node;
+        if (children != null) {
+            current = FixpointTransformer.rebuild(node, children);
+        }
+        Node result = current;
+        if (current != EmptyTree.INSTANCE && (marks.isWhole() || children != null)) {
+            final Node converted = this.dispatcher.apply(current, this.factory, applied::add);
+            if (converted != EmptyTree.INSTANCE) {
+                result = converted;
+            }
+        }
+        if (result != current) {
+            next.put(position, Marks.WHOLE);
+        } else if (!own.isEmpty()) {
+            next.put(position, own);
+        }
+        return result;
+    }
+
+    /**
+     * Finds a previous state of the tree equal to the current one.
+     * @param states Fingerprints of previous states
+     * @param trees Roots of previous states
+     * @param state The fingerprint of the current state
+     * @param current The root of the current state
+     * @return The index of the previous state or -1 if there is none
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private int find(final List<Long> states, final List<Node> trees, final long state,
+        final Node current) {
+        int result = -1;
+        for (int index = 0; result < 0 && index < states.size(); index = index + 1) {
+            if (states.get(index) == state && this.same(trees.get(index), current)) {
+                result = index;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether two subtrees have the same types, data and children.
+     * Subtrees with different fingerprints are not compared further.
+     * @param first The root of the first subtree
+     * @param second The root of the second subtree
+     * @return Checking result
+     */
+    private boolean same(final Node first, final Node second) {
+        boolean result = first == second;
+        if (!result && this.fingerprint(first) == this.fingerprint(second)
+            && first.getTypeName().equals(second.getTypeName())
+            && first.getData().equals(second.getData())
+            && first.getChildCount() == second.getChildCount()) {
+            result = true;
+            final int count = first.getChildCount();
+            for (int index = 0; result && index < count; index = index + 1) {
+                result = this.same(first.getChild(index), second.getChild(index));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of a subtree, that depends on types, data and children
+     * of all its nodes. Fingerprints of nodes already seen are reused.
+     * @param node The root of the subtree
+     * @return The fingerprint
+     */
+    private long fingerprint(final Node node) {
+        final Long known = this.fingerprints.get(node);
+        final long result;
+        if (known == null) {
+            long hash = node.getTypeName().hashCode() * 31L + node.getData().hashCode();
+            final int count = node.getChildCount();
+            hash = hash * 31L + count;
+            for (int index = 0; index < count; index = index + 1) {
+                hash = (hash ^ this.fingerprint(node.getChild(index))) * FixpointTransformer.MIX;
+            }
+            result = hash;
+            this.fingerprints.put(node, result);
+        } else {
+            result = known;
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds a node with new children, like the astranaut adapter does.
+     * @param node The node
+     * @param children The new children
+     * @return The new node or {@link EmptyTree#INSTANCE} if it cannot be built
+     */
+    private static Node rebuild(final Node node, final Node... children) {
+        final Builder builder = node.getType().createBuilder();
+        builder.setFragment(node.getFragment());
+        builder.setData(node.getData());
+        builder.setChildrenList(Arrays.asList(children));
+        Node result = EmptyTree.INSTANCE;
+        if (builder.isValid()) {
+            result = builder.createNode();
+        }
+        return result;
+    }
+
+    /**
+     * Marks of nodes to be tried in a pass: either the whole subtree or some of
+     * the descendants, by indexes of children.
+     *
+     * @since 0.1
+     */
+    private static final class Marks {
+        /**
+         * The marks of a whole subtree.
+         */
+        private static final Marks WHOLE = new Marks(true);
+
+        /**
+         * Whether all nodes of the subtree are marked.
+         */
+        private final boolean whole;
+
+        /**
+         * Marks of children by their indexes, if not the whole subtree is marked.
+         */
+        private final NavigableMap<Integer, Marks> children;
+
+        /**
+         * Constructor.
+         * @param whole Whether all nodes of the subtree are marked
+         */
+        Marks(final boolean whole) {
+            this.whole = whole;
+            this.children = new TreeMap<>();
+        }
+
+        /**
+         * Checks whether all nodes of the subtree are marked.
+         * @return A boolean {@code true} for the whole subtree
+         */
+        public boolean isWhole() {
+            return this.whole;
+        }
+
+        /**
+         * Checks whether no node of the subtree is marked.
+         * @return A boolean {@code true} if nothing is marked
+         */
+        public boolean isEmpty() {
+            return !this.whole && this.children.isEmpty();
+        }
+
+        /**
+         * Returns marks of a child.
+         * @param index The index of the child
+         * @return The marks or {@code null} if the subtree of the child is not marked
+         */
+        public Marks get(final int index) {
+            final Marks result;
+            if (this.whole) {
+                result = Marks.WHOLE;
+            } else {
+                result = this.children.get(index);
+            }
+            return result;
+        }
+
+        /**
+         * Sets marks of a child.
+         * @param index The index of the child
+         * @param marks The marks
+         */
+        public void put(final int index, final Marks marks) {
+            this.children.put(index, marks);
+        }
+
+        /**
+         * Returns the index of the next child that has marks.
+         * @param from The index to start from
+         * @param count The number of children
+         * @return The index of the child or the number of children if there is none
+         */
+        public int next(final int from, final int count) {
+            int result = from;
+            if (!this.whole) {
+                final Integer key = this.children.ceilingKey(from);
+                if (key == null) {
+                    result = count;
+                } else {
+                    result = key;
+                }
+            }
+            return result;
+        }
+    }
+}
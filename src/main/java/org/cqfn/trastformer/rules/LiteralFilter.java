@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.cqfn.astranaut.rules.Data;
+import org.cqfn.astranaut.rules.Descriptor;
+import org.cqfn.astranaut.rules.DescriptorAttribute;
+import org.cqfn.astranaut.rules.HoleDecorator;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Parameter;
+import org.cqfn.astranaut.rules.StringData;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.utils.MultiPatternSearch;
+
+/**
+ * Check of a source file, made before parsing, that tells whether rules can be applied to it.
+ * Words (letters, digits, underscores and dollar signs, not starting with a digit) are taken
+ * from the data that the left sides of rules require from nodes, for example {@code IOUtils}
+ * from {@code Identifier<"IOUtils">}. A rule cannot match a tree parsed from a file that
+ * does not contain all words of the rule, so such a file can be skipped if this is true
+ * for each rule. Data of optional and repeated parts of patterns is not taken into account.
+ * If some rule requires no words, any file can match it and the filter accepts all files.
+ * The object is immutable and can be used from several threads.
+ *
+ * @since 0.1
+ */
+public final class LiteralFilter {
+    /**
+     * The search for all words, {@code null} if the filter accepts all files.
+     */
+    private final MultiPatternSearch search;
+
+    /**
+     * Indexes of words required by each rule.
+     */
+    private final List<BitSet> required;
+
+    /**
+     * Constructor.
+     * @param rules Sets of rules applied to the same files
+     */
+    public LiteralFilter(final List<CompiledRules> rules) {
+        final Map<String, Integer> words = new LinkedHashMap<>();
+        this.required = new ArrayList<>(0);
+        boolean selective = true;
+        for (final CompiledRules set : rules) {
+            for (final Instruction<Transformation> instruction : set.getRules()) {
+                final Set<String> own = new TreeSet<>();
+                LiteralFilter.collect(instruction.getRule().getLeft(), own);
+                final BitSet indexes = new BitSet();
+                for (final String word : own) {
+                    indexes.set(words.computeIfAbsent(word, key -> words.size()));
+                }
+                this.required.add(indexes);
+                selective = selective && !own.isEmpty();
+            }
+        }
+        if (selective && !words.isEmpty()) {
+            final List<byte[]> patterns = new ArrayList<>(words.size());
+            for (final String word : words.keySet()) {
+                patterns.add(word.getBytes(StandardCharsets.UTF_8));
+            }
+            this.search = new MultiPatternSearch(patterns);
+        } else {
+            this.search = null;
+        }
+    }
+
+    /**
+     * Checks whether the filter can reject some files.
+     * @return Whether each rule requires some words
+     */
+    public boolean isSelective() {
+        return this.search != null;
+    }
+
+    /**
+     * Checks whether rules can be applied to the file. The file is mapped into memory
+     * and scanned once for all words.
+     * @param file The path to the file
+     * @return A boolean {@code false} if no rule can match the tree parsed from the file
+     *  or {@code true} otherwise
+     * @throws IOException If the file cannot be read
+     */
+    public boolean accepts(final Path file) throws IOException {
+        boolean result = true;
+        if (this.search != null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                if (size <= Integer.MAX_VALUE) {
+                    result = this.accepts(
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether rules can be applied to the content of a file.
+     * @param content The content, from the current position to the limit
+     * @return A boolean {@code false} if no rule can match the tree parsed from the content
+     *  or {@code true} otherwise
+     */
+    public boolean accepts(final ByteBuffer content) {
+        boolean result = true;
+        if (this.search != null) {
+            final BitSet found = this.search.find(content);
+            result = false;
+            for (final BitSet indexes : this.required) {
+                final BitSet missing = (BitSet) indexes.clone();
+                missing.andNot(found);
+                if (missing.isEmpty()) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects words from data required by a pattern and by its mandatory children.
+     * @param descriptor The pattern
+     * @param words Where to put the words
+     */
+    private static void collect(final Descriptor descriptor, final Set<String> words) {
+        if (!(descriptor instanceof HoleDecorator)
+            && descriptor.getAttribute() == DescriptorAttribute.NONE) {
+            final Data data = descriptor.getData();
+            if (data instanceof StringData) {
+                LiteralFilter.split(((StringData) data).getValue(), words);
+            }
+            for (final Parameter parameter : descriptor.getParameters()) {
+                if (parameter instanceof Descriptor) {
+                    LiteralFilter.collect((Descriptor) parameter, words);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits data into words.
+     * @param data The data
+     * @param words Where to put the words
+     */
+    private static void split(final String data, final Set<String> words) {
+        final int length = data.length();
+        int start = 0;
+        for (int index = 0; index <= length; index = index + 1) {
+            if (index == length || !LiteralFilter.isWordPart(data.charAt(index))) {
+                if (index > start && !Character.isDigit(data.charAt(start))) {
+                    words.add(data.substring(start, index));
+                }
+                start = index + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a character can be a part of a word.
+     * @param symbol The character
+     * @return Whether it is an ASCII letter, a digit, an underscore or a dollar sign
+     */
+    private static boolean isWordPart(final char symbol) {
+        return symbol >= 'a' && symbol <= 'z' || symbol >= 'A' && symbol <= 'Z'
+            || symbol >= '0' && symbol <= '9' || symbol == '_' || symbol == '$';
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.List;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.rules.Data;
+import org.cqfn.astranaut.rules.Descriptor;
+import org.cqfn.astranaut.rules.Empty;
+import org.cqfn.astranaut.rules.Hole;
+import org.cqfn.astranaut.rules.HoleDecorator;
+import org.cqfn.astranaut.rules.Parameter;
+import org.cqfn.astranaut.rules.StringData;
+
+/**
+ * Constraints on node types, data and children extracted from the left side of a rule.
+ * A pattern is a fast conservative check: it rejects only nodes that the rule
+ * certainly cannot match, so a node accepted by the pattern still must be checked
+ * by the rule matcher.
+ *
+ * @since 0.1
+ */
+final class NodePattern {
+    /**
+     * The required type (or group) of a node, or {@code null} if any node is accepted.
+     */
+    private final String type;
+
+    /**
+     * Whether the data of a node is checked.
+     */
+    private final boolean checked;
+
+    /**
+     * The required data of a node, used if the data is checked.
+     */
+    private final String data;
+
+    /**
+     * Patterns of children, or {@code null} if children are not checked.
+     * An element is {@code null} if the corresponding child may be any node.
+     */
+    private final NodePattern[] children;
+
+    /**
+     * Constructor.
+     * @param descriptor The descriptor from the left side of a rule
+     */
+    NodePattern(final Descriptor descriptor) {
+        if (descriptor instanceof HoleDecorator || descriptor instanceof Empty
+            || descriptor.getType().isEmpty()) {
+            this.type = null;
+            this.checked = false;
+            this.data = "";
+            this.children = null;
+        } else {
+            this.type = descriptor.getType();
+            final Data value = descriptor.getData();
+            this.checked = !(value instanceof Hole);
+            if (value instanceof StringData) {
+                this.data = ((StringData) value).getValue();
+            } else {
+                this.data = "";
+            }
+            this.children = NodePattern.children(descriptor);
+        }
+    }
+
+    /**
+     * Returns the required type (or group) of a node.
+     * @return The type name or {@code null} if a node of any type is accepted
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the required data of a node.
+     * @return The data or {@code null} if a node with any data is accepted
+     */
+    public String getData() {
+        String result = null;
+        if (this.checked) {
+            result = this.data;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a node can match the rule.
+     * @param node The node
+     * @return A boolean {@code false} if the rule certainly does not match
+     *  or {@code true} otherwise
+     */
+    public boolean accepts(final Node node) {
+        boolean result = this.type == null;
+        if (!result) {
+            result = node.belongsToGroup(this.type)
+                && (!this.checked || this.data.equals(node.getData()))
+                && this.acceptsChildren(node);
+        }
+        return result;
+    }
+
+    /**
+     * Checks children of a node.
+     * @param node The node
+     * @return A boolean {@code false} if the rule certainly does not match
+     *  or {@code true} otherwise
+     */
+    private boolean acceptsChildren(final Node node) {
+        boolean result = true;
+        if (this.children != null) {
+            final int count = this.children.length;
+            result = node.getChildCount() == count;
+            for (int index = 0; result && index < count; index = index + 1) {
+                final NodePattern child = this.children[index];
+                result = child == null || child.accepts(node.getChild(index));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates patterns for children of a descriptor.
+     * Children are checked only if each parameter corresponds to exactly one child,
+     * that is, the descriptor contains neither ellipses nor typed holes.
+     * @param descriptor The descriptor
+     * @return Patterns of children or {@code null}
+     */
+    private static NodePattern[] children(final Descriptor descriptor) {
+        NodePattern[] result = null;
+        if (!descriptor.hasEllipsisOrTypedHole()) {
+            final List<Parameter> parameters = descriptor.getParameters();
+            result = new NodePattern[parameters.size()];
+            for (int index = 0; index < result.length; index = index + 1) {
+                final Parameter parameter = parameters.get(index);
+                if (parameter instanceof Descriptor && !(parameter instanceof HoleDecorator)) {
+                    result[index] = new NodePattern((Descriptor) parameter);
+                }
+            }
+        }
+        return result;
+    }
+}
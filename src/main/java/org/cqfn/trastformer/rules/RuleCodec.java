@@ -0,0 +1,294 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.rules.Data;
+import org.cqfn.astranaut.rules.Descriptor;
+import org.cqfn.astranaut.rules.DescriptorAttribute;
+import org.cqfn.astranaut.rules.DescriptorFactory;
+import org.cqfn.astranaut.rules.Empty;
+import org.cqfn.astranaut.rules.Hole;
+import org.cqfn.astranaut.rules.HoleAttribute;
+import org.cqfn.astranaut.rules.HoleDecorator;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Parameter;
+import org.cqfn.astranaut.rules.StringData;
+import org.cqfn.astranaut.rules.Transformation;
+
+/**
+ * Binary encoding of parsed transformation rules.
+ * Decoding restores the descriptors directly, without parsing DSL text.
+ *
+ * @since 0.1
+ */
+public final class RuleCodec {
+    /**
+     * The signature of encoded rules.
+     */
+    private static final int MAGIC = 0x54524331;
+
+    /**
+     * The version of the encoding.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Marker of an ordinary descriptor.
+     */
+    private static final byte DESCRIPTOR = 1;
+
+    /**
+     * Marker of a hole used as a descriptor.
+     */
+    private static final byte DECORATOR = 2;
+
+    /**
+     * Marker of an empty descriptor.
+     */
+    private static final byte EMPTY = 3;
+
+    /**
+     * Marker of a hole used as a parameter.
+     */
+    private static final byte HOLE = 4;
+
+    /**
+     * Marker of a descriptor without data.
+     */
+    private static final byte NO_DATA = 0;
+
+    /**
+     * Marker of string data.
+     */
+    private static final byte STRING = 1;
+
+    /**
+     * Encodes rules.
+     * @param rules The rules
+     * @param output The stream to write encoded rules
+     * @throws IOException If the rules cannot be encoded or written
+     */
+    public void encode(final List<Instruction<Transformation>> rules,
+        final DataOutputStream output) throws IOException {
+        output.writeInt(RuleCodec.MAGIC);
+        output.writeInt(RuleCodec.VERSION);
+        output.writeInt(rules.size());
+        for (final Instruction<Transformation> rule : rules) {
+            output.writeUTF(rule.getLanguage());
+            RuleCodec.write(rule.getRule().getLeft(), output);
+            RuleCodec.write(rule.getRule().getRight(), output);
+        }
+    }
+
+    /**
+     * Decodes rules.
+     * @param input The stream to read encoded rules
+     * @return The rules
+     * @throws IOException If the rules cannot be read or the encoding is not supported
+     */
+    public List<Instruction<Transformation>> decode(final DataInputStream input)
+        throws IOException {
+        if (input.readInt() != RuleCodec.MAGIC || input.readInt() != RuleCodec.VERSION) {
+            throw new IOException("Unsupported rules encoding");
+        }
+        final int count = RuleCodec.readCount(input);
+        final List<Instruction<Transformation>> rules = new ArrayList<>();
+        for (int index = 0; index < count; index = index + 1) {
+            final String language = input.readUTF();
+            final Descriptor left = RuleCodec.readDescriptor(input);
+            final Descriptor right = RuleCodec.readDescriptor(input);
+            rules.add(new Instruction<>(new Transformation(left, right), language));
+        }
+        return rules;
+    }
+
+    /**
+     * Writes a descriptor or a hole.
+     * @param parameter The parameter
+     * @param output The stream
+     * @throws IOException If the parameter cannot be encoded or written
+     */
+    private static void write(final Parameter parameter, final DataOutputStream output)
+        throws IOException {
+        if (parameter instanceof Hole) {
+            output.writeByte(RuleCodec.HOLE);
+            RuleCodec.writeHole((Hole) parameter, output);
+        } else if (parameter instanceof Empty) {
+            output.writeByte(RuleCodec.EMPTY);
+        } else if (parameter instanceof HoleDecorator) {
+            output.writeByte(RuleCodec.DECORATOR);
+            output.writeInt(((HoleDecorator) parameter).getHoleNumber());
+        } else if (parameter instanceof Descriptor) {
+            final Descriptor descriptor = (Descriptor) parameter;
+            if (!descriptor.getTag().isEmpty()) {
+                throw new IOException("Tagged descriptors are not supported");
+            }
+            output.writeByte(RuleCodec.DESCRIPTOR);
+            output.writeUTF(descriptor.getLabel());
+            output.writeUTF(descriptor.getType());
+            output.writeUTF(descriptor.getAttribute().name());
+            final Data data = descriptor.getData();
+            if (data instanceof StringData) {
+                output.writeByte(RuleCodec.STRING);
+                output.writeUTF(((StringData) data).getValue());
+            } else if (data instanceof Hole) {
+                output.writeByte(RuleCodec.HOLE);
+                RuleCodec.writeHole((Hole) data, output);
+            } else {
+                output.writeByte(RuleCodec.NO_DATA);
+            }
+            final List<Parameter> parameters = descriptor.getParameters();
+            output.writeInt(parameters.size());
+            for (final Parameter child : parameters) {
+                RuleCodec.write(child, output);
+            }
+        } else {
+            throw new IOException(
+                String.format("Unsupported rule parameter: %s", parameter)
+            );
+        }
+    }
+
+    /**
+     * Writes a hole.
+     * @param hole The hole
+     * @param output The stream
+     * @throws IOException If the hole cannot be written
+     */
+    private static void writeHole(final Hole hole, final DataOutputStream output)
+        throws IOException {
+        output.writeInt(hole.getValue());
+        output.writeUTF(hole.getAttribute().name());
+        output.writeUTF(hole.getType());
+    }
+
+    /**
+     * Reads a descriptor.
+     * @param input The stream
+     * @return The descriptor
+     * @throws IOException If the descriptor cannot be read
+     */
+    private static Descriptor readDescriptor(final DataInputStream input) throws IOException {
+        final Parameter parameter = RuleCodec.read(input);
+        if (!(parameter instanceof Descriptor)) {
+            throw new IOException("Expected a descriptor");
+        }
+        return (Descriptor) parameter;
+    }
+
+    /**
+     * Reads a descriptor or a hole.
+     * @param input The stream
+     * @return The parameter
+     * @throws IOException If the parameter cannot be read
+     */
+    private static Parameter read(final DataInputStream input) throws IOException {
+        final byte marker = input.readByte();
+        final Parameter parameter;
+        switch (marker) {
+            case RuleCodec.HOLE:
+                parameter = RuleCodec.readHole(input);
+                break;
+            case RuleCodec.EMPTY:
+                parameter = Empty.INSTANCE;
+                break;
+            case RuleCodec.DECORATOR:
+                parameter = new HoleDecorator(
+                    new Hole(input.readInt(), HoleAttribute.NONE, "")
+                );
+                break;
+            case RuleCodec.DESCRIPTOR:
+                final DescriptorFactory factory =
+                    new DescriptorFactory(input.readUTF(), input.readUTF());
+                factory.setAttribute(
+                    RuleCodec.constant(DescriptorAttribute.class, input.readUTF())
+                );
+                final byte data = input.readByte();
+                if (data == RuleCodec.STRING) {
+                    factory.setData(new StringData(input.readUTF()));
+                } else if (data == RuleCodec.HOLE) {
+                    factory.setData(RuleCodec.readHole(input));
+                }
+                final int count = RuleCodec.readCount(input);
+                for (int index = 0; index < count; index = index + 1) {
+                    factory.addParameter(RuleCodec.read(input));
+                }
+                parameter = factory.createDescriptor();
+                break;
+            default:
+                throw new IOException(String.format("Unknown marker: %d", marker));
+        }
+        return parameter;
+    }
+
+    /**
+     * Reads a hole.
+     * @param input The stream
+     * @return The hole
+     * @throws IOException If the hole cannot be read
+     */
+    private static Hole readHole(final DataInputStream input) throws IOException {
+        final int value = input.readInt();
+        final HoleAttribute attribute = RuleCodec.constant(HoleAttribute.class, input.readUTF());
+        return new Hole(value, attribute, input.readUTF());
+    }
+
+    /**
+     * Reads the number of elements that follow.
+     * @param input The stream
+     * @return The number of elements
+     * @throws IOException If the number cannot be read or is negative
+     */
+    private static int readCount(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0) {
+            throw new IOException(String.format("Wrong number of elements: %d", count));
+        }
+        return count;
+    }
+
+    /**
+     * Finds a constant of an enumeration by its encoded name.
+     * @param type The class of the enumeration
+     * @param name The name of the constant
+     * @param <E> The type of the enumeration
+     * @return The constant
+     * @throws IOException If there is no constant with this name
+     */
+    private static <E extends Enum<E>> E constant(final Class<E> type, final String name)
+        throws IOException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (final IllegalArgumentException exc) {
+            throw new IOException(
+                String.format("Unknown %s: %s", type.getSimpleName(), name), exc
+            );
+        }
+    }
+}
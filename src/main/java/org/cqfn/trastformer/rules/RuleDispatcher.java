@@ -0,0 +1,436 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import org.cqfn.astranaut.core.Converter;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+
+/**
+ * Converter that applies the first matching rule from a list of rules.
+ * Instead of trying every rule on every node, it selects candidates by the type
+ * of the node (including groups the type belongs to) and by the node data,
+ * then filters them by the constraints on nested children.
+ * Only the remaining candidates are checked by the rule matcher, in the order
+ * the rules are declared, so the result is the same as trying all rules one by one.
+ * The dispatcher is thread-safe and counts match attempts.
+ *
+ * @since 0.1
+ */
+public final class RuleDispatcher implements Converter {
+    /**
+     * The rules.
+     */
+    private final Rule[] rules;
+
+    /**
+     * Rules with a root of a certain type or group, by type names.
+     */
+    private final Map<String, List<Rule>> typed;
+
+    /**
+     * Rules that can be applied to a node of any type.
+     */
+    private final List<Rule> untyped;
+
+    /**
+     * Candidate selectors by names of node types, built on first use.
+     */
+    private final Map<String, Selector> selectors;
+
+    /**
+     * The number of times the rule matcher was called.
+     */
+    private final AtomicLong attempts;
+
+    /**
+     * The number of times the rule matcher would be called if all rules were
+     * tried on each node one by one.
+     */
+    private final AtomicLong baseline;
+
+    /**
+     * The number of match attempts, by rule indexes.
+     */
+    private final AtomicLongArray matches;
+
+    /**
+     * The number of applications, by rule indexes.
+     */
+    private final AtomicLongArray applications;
+
+    /**
+     * Constructor.
+     * @param instructions The rules
+     */
+    public RuleDispatcher(final List<Instruction<Transformation>> instructions) {
+        final int count = instructions.size();
+        this.rules = new Rule[count];
+        this.typed = new HashMap<>();
+        this.untyped = new ArrayList<>(0);
+        for (int index = 0; index < count; index = index + 1) {
+            final Rule rule = new Rule(index, instructions.get(index).getRule());
+            this.rules[index] = rule;
+            final String type = rule.getPattern().getType();
+            if (type == null) {
+                this.untyped.add(rule);
+            } else {
+                this.typed.computeIfAbsent(type, key -> new ArrayList<>(1)).add(rule);
+            }
+        }
+        this.selectors = new ConcurrentHashMap<>();
+        this.attempts = new AtomicLong();
+        this.baseline = new AtomicLong();
+        this.matches = new AtomicLongArray(count);
+        this.applications = new AtomicLongArray(count);
+    }
+
+    @Override
+    public Node convert(final Node node, final Factory factory) {
+        return this.apply(node, factory, index -> { });
+    }
+
+    /**
+     * Applies the first matching rule to a node and reports which rule was applied.
+     * @param node The node
+     * @param factory The node factory
+     * @param listener The listener that receives the index of the applied rule
+     * @return The converted node or {@link EmptyTree#INSTANCE} if no rule matches
+     */
+    Node apply(final Node node, final Factory factory, final IntConsumer listener) {
+        final Rule[] candidates = this.selectors
+            .computeIfAbsent(node.getTypeName(), name -> this.selector(node))
+            .select(node.getData());
+        Node result = EmptyTree.INSTANCE;
+        int applied = -1;
+        for (final Rule rule : candidates) {
+            if (rule.getPattern().accepts(node)) {
+                this.attempts.incrementAndGet();
+                this.matches.incrementAndGet(rule.getIndex());
+                result = rule.getConverter().convert(node, factory);
+                if (result != EmptyTree.INSTANCE) {
+                    applied = rule.getIndex();
+                    break;
+                }
+            }
+        }
+        if (applied < 0) {
+            this.baseline.addAndGet(this.rules.length);
+        } else {
+            this.baseline.addAndGet(applied + 1);
+            this.applications.incrementAndGet(applied);
+            listener.accept(applied);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a converter that applies a single rule.
+     * @param index The index of the rule
+     * @return The converter
+     */
+    public Converter getRule(final int index) {
+        return this.rules[index];
+    }
+
+    /**
+     * Finds the nodes of a tree that each rule matches, in a single pass over the tree.
+     * Unlike conversion, each node is checked against all its candidate rules,
+     * not only until the first match.
+     * Nodes are visited in depth-first order, a parent before its children.
+     * @param root The root of the tree
+     * @param factory The node factory
+     * @return Paths of matched nodes from the root, in the order of visiting,
+     *  by rule indexes
+     */
+    public List<List<int[]>> findMatches(final Node root, final Factory factory) {
+        final List<List<int[]>> found = new ArrayList<>(this.rules.length);
+        for (int index = 0; index < this.rules.length; index = index + 1) {
+            found.add(new ArrayList<>(0));
+        }
+        final List<Node> nodes = new ArrayList<>(0);
+        final List<Integer> path = new ArrayList<>(0);
+        nodes.add(root);
+        path.add(-1);
+        while (!nodes.isEmpty()) {
+            final int last = nodes.size() - 1;
+            final Node node = nodes.get(last);
+            final int next = path.get(last) + 1;
+            if (next == 0) {
+                final Rule[] candidates = this.selectors
+                    .computeIfAbsent(node.getTypeName(), name -> this.selector(node))
+                    .select(node.getData());
+                for (final Rule rule : candidates) {
+                    if (rule.convert(node, factory) != EmptyTree.INSTANCE) {
+                        final int[] copy = new int[last];
+                        for (int index = 0; index < last; index = index + 1) {
+                            copy[index] = path.get(index);
+                        }
+                        found.get(rule.getIndex()).add(copy);
+                    }
+                }
+            }
+            if (next < node.getChildCount()) {
+                path.set(last, next);
+                nodes.add(node.getChild(next));
+                path.add(-1);
+            } else {
+                nodes.remove(last);
+                path.remove(last);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of rules.
+     * @return The number of rules
+     */
+    public int countRules() {
+        return this.rules.length;
+    }
+
+    /**
+     * Returns the number of times the rule matcher was called.
+     * @return The number of match attempts
+     */
+    public long getAttempts() {
+        return this.attempts.get();
+    }
+
+    /**
+     * Returns the number of times the matcher of a rule was called.
+     * @param index The index of the rule
+     * @return The number of match attempts
+     */
+    public long getAttempts(final int index) {
+        return this.matches.get(index);
+    }
+
+    /**
+     * Returns the number of times the rule matcher would be called if all rules
+     * were tried on each node one by one.
+     * @return The number of match attempts without dispatching
+     */
+    public long getBaselineAttempts() {
+        return this.baseline.get();
+    }
+
+    /**
+     * Returns the number of applications of a rule.
+     * @param index The index of the rule
+     * @return The number of applications
+     */
+    public long getApplications(final int index) {
+        return this.applications.get(index);
+    }
+
+    @Override
+    public String toString() {
+        long applied = 0;
+        for (int index = 0; index < this.rules.length; index = index + 1) {
+            applied = applied + this.applications.get(index);
+        }
+        return String.format(
+            "%d rules, %d match attempts (%d without dispatching), %d applications",
+            this.rules.length,
+            this.attempts.get(),
+            this.baseline.get(),
+            applied
+        );
+    }
+
+    /**
+     * Creates a selector of candidate rules for nodes of the same type as the given node.
+     * @param node The node
+     * @return The selector
+     */
+    private Selector selector(final Node node) {
+        final Set<String> groups = new LinkedHashSet<>(node.getType().getHierarchy());
+        groups.add(node.getTypeName());
+        final List<Rule> list = new ArrayList<>(this.untyped);
+        for (final String group : groups) {
+            list.addAll(this.typed.getOrDefault(group, Collections.emptyList()));
+        }
+        return new Selector(list);
+    }
+
+    /**
+     * A rule with precomputed data.
+     * As a converter, it applies the rule if the pattern accepts a node.
+     *
+     * @since 0.1
+     */
+    private static final class Rule implements Converter, Comparable<Rule> {
+        /**
+         * The index of the rule.
+         */
+        private final int index;
+
+        /**
+         * The pattern of the left side.
+         */
+        private final NodePattern pattern;
+
+        /**
+         * The converter that matches and applies the rule.
+         */
+        private final Converter converter;
+
+        /**
+         * Constructor.
+         * @param index The index of the rule
+         * @param transformation The rule
+         */
+        Rule(final int index, final Transformation transformation) {
+            this.index = index;
+            this.pattern = new NodePattern(transformation.getLeft());
+            this.converter = new org.cqfn.astranaut.interpreter.Converter(transformation);
+        }
+
+        /**
+         * Returns the index of the rule.
+         * @return The index
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Returns the pattern of the left side.
+         * @return The pattern
+         */
+        public NodePattern getPattern() {
+            return this.pattern;
+        }
+
+        /**
+         * Returns the converter that matches and applies the rule.
+         * @return The converter
+         */
+        public Converter getConverter() {
+            return this.converter;
+        }
+
+        @Override
+        public Node convert(final Node node, final Factory factory) {
+            Node result = EmptyTree.INSTANCE;
+            if (this.pattern.accepts(node)) {
+                result = this.converter.convert(node, factory);
+            }
+            return result;
+        }
+
+        @Override
+        public int compareTo(final Rule other) {
+            return Integer.compare(this.index, other.index);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Rule && this.index == ((Rule) obj).index;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.index;
+        }
+    }
+
+    /**
+     * Candidate rules for nodes of a certain type, indexed by the required node data.
+     *
+     * @since 0.1
+     */
+    private static final class Selector {
+        /**
+         * Candidates for a node whose data is not required by any rule.
+         */
+        private final Rule[] common;
+
+        /**
+         * Candidates by node data required by rules.
+         */
+        private final Map<String, Rule[]> literal;
+
+        /**
+         * Constructor.
+         * @param rules All rules that can be applied to nodes of the type
+         */
+        Selector(final List<Rule> rules) {
+            final List<Rule> any = new ArrayList<>(rules.size());
+            final Map<String, List<Rule>> data = new HashMap<>();
+            for (final Rule rule : rules) {
+                final String required = rule.getPattern().getData();
+                if (required == null) {
+                    any.add(rule);
+                } else {
+                    data.computeIfAbsent(required, key -> new ArrayList<>(1)).add(rule);
+                }
+            }
+            this.common = Selector.sorted(any);
+            this.literal = new HashMap<>();
+            for (final Map.Entry<String, List<Rule>> entry : data.entrySet()) {
+                final List<Rule> merged = new ArrayList<>(entry.getValue());
+                merged.addAll(any);
+                this.literal.put(entry.getKey(), Selector.sorted(merged));
+            }
+        }
+
+        /**
+         * Selects candidate rules for a node.
+         * @param data The node data
+         * @return Candidate rules, in the order the rules are declared
+         */
+        public Rule[] select(final String data) {
+            return this.literal.getOrDefault(data, this.common);
+        }
+
+        /**
+         * Sorts rules in the order they are declared.
+         * @param rules The rules
+         * @return The sorted array
+         */
+        private static Rule[] sorted(final List<Rule> rules) {
+            final Rule[] array = rules.toArray(new Rule[0]);
+            Arrays.sort(array);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.utils.ContentHash;
+
+/**
+ * On-disk cache of parsed DSL rules.
+ * Each entry is keyed by the hash of the DSL text and the language name, so that
+ * a changed DSL file never hits a stale entry. Entries that cannot be decoded
+ * (for example, written by an older version of the tool) are rebuilt.
+ *
+ * @since 0.1
+ */
+public final class RuleSetCache {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(RuleSetCache.class.getName());
+
+    /**
+     * The extension of cache files.
+     */
+    private static final String EXTENSION = ".rules";
+
+    /**
+     * The cache directory.
+     */
+    private final Path directory;
+
+    /**
+     * The codec.
+     */
+    private final RuleCodec codec;
+
+    /**
+     * The parser used if there is no suitable cache entry.
+     */
+    private final DslParser parser;
+
+    /**
+     * Constructor.
+     * @param directory The cache directory
+     */
+    public RuleSetCache(final Path directory) {
+        this.directory = directory;
+        this.codec = new RuleCodec();
+        this.parser = new DslParser();
+    }
+
+    /**
+     * Loads rules from the cache or parses them and stores the result into the cache.
+     * @param text The DSL text
+     * @param language The language name
+     * @return The list of transformation rules
+     */
+    public List<Instruction<Transformation>> load(final String text, final String language) {
+        final Path file = this.directory.resolve(
+            new ContentHash(text, language).asHex().concat(RuleSetCache.EXTENSION)
+        );
+        List<Instruction<Transformation>> rules = null;
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+            )) {
+                rules = this.codec.decode(input);
+            } catch (final IOException exc) {
+                RuleSetCache.LOG.warning(
+                    String.format("Rebuilding stale rules cache %s: %s", file, exc)
+                );
+            }
+        }
+        if (rules == null) {
+            rules = this.parser.parse(text);
+            if (!rules.isEmpty()) {
+                this.store(rules, file);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Stores rules into the cache.
+     * The entry is written to a temporary file first, so that concurrent readers
+     * never see a partially written entry.
+     * @param rules The rules
+     * @param file The cache file
+     */
+    private void store(final List<Instruction<Transformation>> rules, final Path file) {
+        Path temp = null;
+        try {
+            Files.createDirectories(this.directory);
+            temp = Files.createTempFile(this.directory, "rules", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp))
+            )) {
+                this.codec.encode(rules, output);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException exc) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException exc) {
+            RuleSetCache.LOG.warning(
+                String.format("Cannot store rules cache %s: %s", file, exc)
+            );
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Client that sends transformation requests to a running server.
+ *
+ * @since 0.1
+ */
+public final class Client {
+    /**
+     * The port of the server.
+     */
+    private final int port;
+
+    /**
+     * The protocol.
+     */
+    private final Protocol protocol;
+
+    /**
+     * Constructor.
+     * @param port The port of the server
+     */
+    public Client(final int port) {
+        this.port = port;
+        this.protocol = new Protocol();
+    }
+
+    /**
+     * Sends a request and waits for the response.
+     * @param request The request
+     * @return The response
+     * @throws IOException If the server is not available
+     */
+    public Response send(final Request request) throws IOException {
+        try (
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port);
+            DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream())
+            );
+            DataInputStream input = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream())
+            )
+        ) {
+            this.protocol.writeRequest(request, output);
+            return this.protocol.readResponse(input);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.TreeFormat;
+
+/**
+ * The protocol used by the server and the client.
+ * Each request and each response is a sequence of fields written
+ * by {@link DataOutputStream}; a connection may carry any number of requests,
+ * each followed by its response. Each request starts with the shared secret
+ * of the server, see {@link Token}, which is read separately, so that the server
+ * can reject a client before reading the rest of the request.
+ *
+ * @since 0.1
+ */
+public final class Protocol {
+    /**
+     * The signature of a request.
+     */
+    private static final int MAGIC = 0x54525334;
+
+    /**
+     * Writes a request.
+     * @param request The request
+     * @param output The stream
+     * @throws IOException If the request cannot be written
+     */
+    public void writeRequest(final Request request, final DataOutputStream output)
+        throws IOException {
+        final Task task = request.getTask();
+        output.writeInt(Protocol.MAGIC);
+        output.writeUTF(request.getToken());
+        output.writeUTF(task.getSource().getAbsolutePath());
+        output.writeUTF(task.getLanguage());
+        output.writeUTF(request.getRules().getAbsolutePath());
+        output.writeUTF(task.getOutput().getAbsolutePath());
+        Protocol.writeOptional(task.getJson(), output);
+        Protocol.writeOptional(task.getImage(), output);
+        output.writeUTF(task.getFormat().name());
+        output.flush();
+    }
+
+    /**
+     * Reads the beginning of a request up to the shared secret.
+     * @param input The stream
+     * @return The shared secret sent by the client
+     * @throws IOException If the beginning of a request cannot be read
+     */
+    public String readToken(final DataInputStream input) throws IOException {
+        if (input.readInt() != Protocol.MAGIC) {
+            throw new IOException("Unsupported request");
+        }
+        return input.readUTF();
+    }
+
+    /**
+     * Reads the rest of a request after the shared secret.
+     * @param input The stream
+     * @param token The shared secret read by {@link #readToken(DataInputStream)}
+     * @return The request
+     * @throws IOException If the request cannot be read
+     */
+    public Request readRequest(final DataInputStream input, final String token)
+        throws IOException {
+        final File source = new File(input.readUTF());
+        final String language = input.readUTF();
+        final File rules = new File(input.readUTF());
+        final File output = new File(input.readUTF());
+        final File json = Protocol.readOptional(input);
+        final File image = Protocol.readOptional(input);
+        final TreeFormat format;
+        try {
+            format = TreeFormat.valueOf(input.readUTF());
+        } catch (final IllegalArgumentException exc) {
+            throw new IOException("Unsupported tree format", exc);
+        }
+        return new Request(
+            new Task(source, language, output, json, image, format), rules, token
+        );
+    }
+
+    /**
+     * Writes a response.
+     * @param response The response
+     * @param output The stream
+     * @throws IOException If the response cannot be written
+     */
+    public void writeResponse(final Response response, final DataOutputStream output)
+        throws IOException {
+        output.writeBoolean(response.isSuccess());
+        output.writeUTF(response.getMessage());
+        output.flush();
+    }
+
+    /**
+     * Reads a response.
+     * @param input The stream
+     * @return The response
+     * @throws IOException If the response cannot be read
+     */
+    public Response readResponse(final DataInputStream input) throws IOException {
+        final boolean success = input.readBoolean();
+        return new Response(success, input.readUTF());
+    }
+
+    /**
+     * Writes an optional file path.
+     * @param file The file, may be {@code null}
+     * @param output The stream
+     * @throws IOException If the path cannot be written
+     */
+    private static void writeOptional(final File file, final DataOutputStream output)
+        throws IOException {
+        if (file == null) {
+            output.writeUTF("");
+        } else {
+            output.writeUTF(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Reads an optional file path.
+     * @param input The stream
+     * @return The file or {@code null}
+     * @throws IOException If the path cannot be read
+     */
+    private static File readOptional(final DataInputStream input) throws IOException {
+        final String path = input.readUTF();
+        File file = null;
+        if (!path.isEmpty()) {
+            file = new File(path);
+        }
+        return file;
+    }
+}
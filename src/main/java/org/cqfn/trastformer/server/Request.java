@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.File;
+import org.cqfn.trastformer.Task;
+
+/**
+ * Request to transform a file, sent by a client to the server.
+ *
+ * @since 0.1
+ */
+public final class Request {
+    /**
+     * The task.
+     */
+    private final Task task;
+
+    /**
+     * The file that contains DSL rules.
+     */
+    private final File rules;
+
+    /**
+     * The shared secret of the server.
+     */
+    private final String token;
+
+    /**
+     * Constructor.
+     * @param task The task
+     * @param rules The file that contains DSL rules
+     * @param token The shared secret of the server, see {@link Token}
+     */
+    public Request(final Task task, final File rules, final String token) {
+        this.task = task;
+        this.rules = rules;
+        this.token = token;
+    }
+
+    /**
+     * Returns the task.
+     * @return The task
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    /**
+     * Returns the file that contains DSL rules.
+     * @return The file
+     */
+    public File getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Returns the shared secret of the server.
+     * @return The secret
+     */
+    public String getToken() {
+        return this.token;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+/**
+ * Response of the server to a request.
+ *
+ * @since 0.1
+ */
+public final class Response {
+    /**
+     * Whether the request was processed successfully.
+     */
+    private final boolean success;
+
+    /**
+     * The message.
+     */
+    private final String message;
+
+    /**
+     * Constructor.
+     * @param success Whether the request was processed successfully
+     * @param message The message
+     */
+    public Response(final boolean success, final String message) {
+        this.success = success;
+        this.message = message;
+    }
+
+    /**
+     * Checks whether the request was processed successfully.
+     * @return A boolean {@code true} on success or {@code false} otherwise
+     */
+    public boolean isSuccess() {
+        return this.success;
+    }
+
+    /**
+     * Returns the message.
+     * @return The message
+     */
+    public String getMessage() {
+        return this.message;
+    }
+}
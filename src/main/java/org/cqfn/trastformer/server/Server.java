@@ -0,0 +1,339 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Pipeline;
+import org.cqfn.trastformer.Processors;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.rules.RuleSetCache;
+import org.cqfn.trastformer.utils.ContentHash;
+
+/**
+ * Long-running transformation server.
+ * Listens on the loopback interface and keeps loaded rules in memory,
+ * so that repeated requests pay neither for JVM startup nor for rules loading.
+ * Each client connection is served by a separate worker thread.
+ * Requests must carry the shared secret written to the token file on start,
+ * and the server writes results only inside its root directory.
+ * A connection is closed as soon as it sends a wrong secret or stays idle
+ * longer than the timeout, so that silent clients cannot hold all worker threads.
+ *
+ * @since 0.1
+ */
+public final class Server implements Closeable {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(Server.class.getName());
+
+    /**
+     * The port to listen, or 0 to choose any free port.
+     */
+    private final int port;
+
+    /**
+     * The cache of parsed rules, may be {@code null}.
+     */
+    private final RuleSetCache cache;
+
+    /**
+     * The file to which the shared secret is written.
+     */
+    private final Token token;
+
+    /**
+     * The directory outside which results are not written.
+     */
+    private final Path root;
+
+    /**
+     * The time a connection may stay idle, in milliseconds.
+     */
+    private final int timeout;
+
+    /**
+     * Loaded rules by the path of the DSL file, each with the content hash of the file
+     * the rules were loaded from.
+     */
+    private final Map<String, Map.Entry<String, Pipeline>> pipelines;
+
+    /**
+     * The pool of worker threads.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The protocol.
+     */
+    private final Protocol protocol;
+
+    /**
+     * The server socket, available after start.
+     */
+    private ServerSocket socket;
+
+    /**
+     * The shared secret, available after start.
+     */
+    private String secret;
+
+    /**
+     * The real path of the root directory, available after start.
+     */
+    private Path allowed;
+
+    /**
+     * Constructor.
+     * @param port The port to listen, or 0 to choose any free port
+     * @param threads The maximum number of concurrently served clients
+     * @param cache The cache of parsed rules, may be {@code null}
+     * @param token The file to which the shared secret is written on start
+     * @param root The directory outside which results are not written
+     * @param timeout The time a connection may stay idle, in milliseconds
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Server(final int port, final int threads, final RuleSetCache cache,
+        final Path token, final Path root, final int timeout) {
+        this.port = port;
+        this.cache = cache;
+        this.token = new Token(token);
+        this.root = root;
+        this.timeout = timeout;
+        this.pipelines = new ConcurrentHashMap<>();
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.protocol = new Protocol();
+    }
+
+    /**
+     * Writes the shared secret to the token file, binds the server socket
+     * and starts accepting clients in a background thread.
+     * @return The port the server listens
+     * @throws IOException If the root directory does not exist, the token file
+     *  cannot be written or the socket cannot be bound
+     */
+    public int start() throws IOException {
+        this.allowed = this.root.toRealPath();
+        this.secret = this.token.create();
+        this.socket = new ServerSocket(this.port, 0, InetAddress.getLoopbackAddress());
+        final Thread acceptor = new Thread(this::accept, "trastformer-acceptor");
+        acceptor.start();
+        return this.socket.getLocalPort();
+    }
+
+    /**
+     * Waits until the server is closed.
+     * @throws InterruptedException If the current thread is interrupted
+     */
+    public void join() throws InterruptedException {
+        while (!this.workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            Server.LOG.fine("Server is running");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.workers.shutdown();
+        if (this.socket != null) {
+            this.socket.close();
+        }
+        if (this.secret != null) {
+            this.token.delete();
+        }
+    }
+
+    /**
+     * Accepts clients until the server socket is closed.
+     */
+    private void accept() {
+        while (!this.socket.isClosed()) {
+            try {
+                final Socket client = this.socket.accept();
+                this.workers.execute(() -> this.serve(client));
+            } catch (final SocketException exc) {
+                Server.LOG.fine("Server socket closed");
+            } catch (final IOException exc) {
+                Server.LOG.log(Level.WARNING, "Cannot accept a client", exc);
+            }
+        }
+    }
+
+    /**
+     * Serves requests of a client until it closes the connection, sends a wrong secret
+     * or stays idle longer than the timeout.
+     * @param client The client socket
+     */
+    private void serve(final Socket client) {
+        try (
+            Socket closeable = client;
+            DataInputStream input = new DataInputStream(
+                new BufferedInputStream(closeable.getInputStream())
+            );
+            DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(closeable.getOutputStream())
+            )
+        ) {
+            closeable.setSoTimeout(this.timeout);
+            while (true) {
+                final String received;
+                try {
+                    received = this.protocol.readToken(input);
+                } catch (final EOFException exc) {
+                    break;
+                }
+                if (!Token.matches(this.secret, received)) {
+                    Server.LOG.warning("Request with a wrong token rejected");
+                    this.protocol.writeResponse(new Response(false, "Wrong token"), output);
+                    break;
+                }
+                this.protocol.writeResponse(
+                    this.process(this.protocol.readRequest(input, received)), output
+                );
+            }
+        } catch (final SocketTimeoutException exc) {
+            Server.LOG.fine("Idle client connection closed");
+        } catch (final IOException exc) {
+            Server.LOG.log(Level.WARNING, "Client connection failed", exc);
+        }
+    }
+
+    /**
+     * Processes a request, isolating any failure.
+     * @param request The request
+     * @return The response
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private Response process(final Request request) {
+        Response response;
+        final Task task = request.getTask();
+        try {
+            final File denied = this.outside(task);
+            if (denied != null) {
+                response = new Response(
+                    false,
+                    String.format("Cannot write outside the root directory: %s", denied)
+                );
+            } else if (this.pipeline(request.getRules()).process(task).isWritten()) {
+                response = new Response(true, task.getOutput().getPath());
+            } else {
+                response = new Response(
+                    false,
+                    String.format("Cannot write to file: %s", task.getOutput())
+                );
+            }
+        } catch (final ProcessorException exc) {
+            response = new Response(
+                false,
+                String.format("%s, %s", exc.getInitiator(), exc.getErrorMessage())
+            );
+        } catch (final IOException | RuntimeException exc) {
+            response = new Response(false, String.valueOf(exc));
+        }
+        return response;
+    }
+
+    /**
+     * Finds an output file of a task that is outside the root directory.
+     * Symbolic links are resolved for the part of the path that already exists,
+     * so a link inside the root cannot redirect a result outside of it.
+     * @param task The task
+     * @return The first file outside the root directory or {@code null} if there are none
+     * @throws IOException If an existing part of a path cannot be resolved
+     */
+    private File outside(final Task task) throws IOException {
+        File result = null;
+        for (final File file : new File[] {task.getOutput(), task.getJson(), task.getImage()}) {
+            if (result == null && file != null && !this.inside(file.toPath())) {
+                result = file;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a path is inside the root directory.
+     * @param path The path
+     * @return A boolean {@code true} if the path, with the real path of its deepest
+     *  existing ancestor substituted, is inside the root directory
+     * @throws IOException If the existing ancestor cannot be resolved
+     */
+    private boolean inside(final Path path) throws IOException {
+        final Path normalized = path.toAbsolutePath().normalize();
+        Path existing = normalized;
+        while (existing.getParent() != null
+            && !Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+            existing = existing.getParent();
+        }
+        return existing.toRealPath().resolve(existing.relativize(normalized))
+            .startsWith(this.allowed);
+    }
+
+    /**
+     * Returns a pipeline with rules loaded from the specified file.
+     * Rules are reloaded if the content of the file has changed, replacing the rules
+     * loaded from its previous content.
+     * @param rules The file that contains DSL rules
+     * @return The pipeline
+     * @throws IOException If the file cannot be read
+     */
+    private Pipeline pipeline(final File rules) throws IOException {
+        final String hash = new ContentHash(Files.readAllBytes(rules.toPath())).asHex();
+        return this.pipelines.compute(
+            rules.getAbsolutePath(),
+            (path, loaded) -> {
+                Map.Entry<String, Pipeline> entry = loaded;
+                if (entry == null || !entry.getKey().equals(hash)) {
+                    entry = new AbstractMap.SimpleImmutableEntry<>(
+                        hash, new Pipeline(new Processors(rules, this.cache))
+                    );
+                }
+                return entry;
+            }
+        ).getValue();
+    }
+}
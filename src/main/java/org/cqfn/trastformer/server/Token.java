@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+
+/**
+ * The shared secret that a client sends with each request to the server.
+ * The server creates a random secret when it starts and writes it to a file
+ * readable by its owner only, so that only the user who runs the server
+ * (or someone the user shares the file with) can send requests.
+ *
+ * @since 0.1
+ */
+public final class Token {
+    /**
+     * The number of random bytes in a secret.
+     */
+    private static final int SIZE = 32;
+
+    /**
+     * The permissions of the file.
+     */
+    private static final String FILE = "rw-------";
+
+    /**
+     * The permissions of the directory of the file, if it is created.
+     */
+    private static final String DIRECTORY = "rwx------";
+
+    /**
+     * The file that contains the secret.
+     */
+    private final Path file;
+
+    /**
+     * Constructor.
+     * @param file The file that contains the secret
+     */
+    public Token(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Generates a new secret and writes it to the file, replacing the previous one.
+     * On file systems that support POSIX permissions the file is created with
+     * {@code rw-------} permissions and its directory, if absent, with {@code rwx------}.
+     * @return The secret
+     * @throws IOException If the file cannot be written
+     */
+    public String create() throws IOException {
+        final byte[] bytes = new byte[Token.SIZE];
+        new SecureRandom().nextBytes(bytes);
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (final byte value : bytes) {
+            builder.append(String.format("%02x", value & 0xff));
+        }
+        final String secret = builder.toString();
+        final Path absolute = this.file.toAbsolutePath();
+        final boolean posix = absolute.getFileSystem().supportedFileAttributeViews()
+            .contains("posix");
+        final Path parent = absolute.getParent();
+        if (parent != null && !Files.isDirectory(parent)) {
+            if (posix) {
+                Files.createDirectories(
+                    parent,
+                    PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString(Token.DIRECTORY)
+                    )
+                );
+            } else {
+                Files.createDirectories(parent);
+            }
+        }
+        Files.deleteIfExists(absolute);
+        if (posix) {
+            Files.createFile(
+                absolute,
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(Token.FILE))
+            );
+        } else {
+            Files.createFile(absolute);
+        }
+        Files.write(absolute, Collections.singletonList(secret), StandardCharsets.US_ASCII);
+        return secret;
+    }
+
+    /**
+     * Reads the secret from the file.
+     * @return The secret
+     * @throws IOException If the file cannot be read
+     */
+    public String read() throws IOException {
+        return new String(Files.readAllBytes(this.file), StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Deletes the file.
+     * @throws IOException If the file cannot be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Compares a received secret with the expected one in constant time.
+     * @param expected The expected secret
+     * @param received The received secret
+     * @return Whether the secrets are equal
+     */
+    public static boolean matches(final String expected, final String received) {
+        return MessageDigest.isEqual(
+            expected.getBytes(StandardCharsets.US_ASCII),
+            received.getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+}
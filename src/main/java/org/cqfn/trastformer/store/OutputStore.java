@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.store;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.cqfn.trastformer.utils.ContentHash;
+
+/**
+ * Content-addressed store of results.
+ * Each result (generated code, exported tree) is stored as a blob named by the hash
+ * of its content, in the {@code objects} subdirectory, so identical results produced
+ * for different inputs are stored once. The {@code index.json} file maps the names
+ * of results to their blobs and lists groups of results with the same generated code.
+ * The store can be updated concurrently by several worker threads.
+ *
+ * @since 0.1
+ */
+public final class OutputStore {
+    /**
+     * The kind of generated code.
+     */
+    public static final String CODE = "code";
+
+    /**
+     * The kind of exported trees.
+     */
+    public static final String TREE = "tree";
+
+    /**
+     * The kind of differences between sources and generated code.
+     */
+    public static final String DIFF = "diff";
+
+    /**
+     * The name of the index file.
+     */
+    private static final String INDEX = "index.json";
+
+    /**
+     * The length of the prefix of a hash used as a subdirectory name.
+     */
+    private static final int PREFIX = 2;
+
+    /**
+     * The directory of the store.
+     */
+    private final Path directory;
+
+    /**
+     * Fields of entries (hashes of blobs by kinds and labels) by names of results.
+     */
+    private final ConcurrentMap<String, SortedMap<String, String>> entries;
+
+    /**
+     * Hashes of blobs stored or found during this run.
+     */
+    private final ConcurrentMap<String, Boolean> blobs;
+
+    /**
+     * Constructor.
+     * @param directory The directory of the store
+     */
+    public OutputStore(final Path directory) {
+        this.directory = directory;
+        this.entries = new ConcurrentHashMap<>();
+        this.blobs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the directory of the store.
+     * @return The directory
+     */
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Stores a result.
+     * @param name The name of the result, for example the path of the generated file
+     * @param kind The kind of the result, {@link #CODE}, {@link #TREE} or {@link #DIFF}
+     * @param content The content
+     * @return Whether the content is new in this run, {@code false} if the same content
+     *  has already been stored for another result
+     * @throws IOException If the blob cannot be written
+     */
+    public boolean put(final String name, final String kind, final byte[] content)
+        throws IOException {
+        final String hash = new ContentHash(content).asHex();
+        final boolean fresh = this.blobs.putIfAbsent(hash, Boolean.TRUE) == null;
+        if (fresh) {
+            final Path blob = this.blob(hash);
+            if (!Files.isRegularFile(blob)) {
+                Files.createDirectories(blob.getParent());
+                final Path temp = Files.createTempFile(blob.getParent(), "blob", ".tmp");
+                try {
+                    Files.write(temp, content);
+                    try {
+                        Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (final AtomicMoveNotSupportedException exc) {
+                        Files.move(temp, blob, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+        this.label(name, kind, hash);
+        return fresh;
+    }
+
+    /**
+     * Adds a field to the entry of a result, for example the path of the source file.
+     * @param name The name of the result
+     * @param key The name of the field
+     * @param value The value
+     */
+    public void label(final String name, final String key, final String value) {
+        final SortedMap<String, String> fields =
+            this.entries.computeIfAbsent(name, ignored -> new TreeMap<>());
+        synchronized (fields) {
+            fields.put(key, value);
+        }
+    }
+
+    /**
+     * Returns the path of a blob.
+     * @param hash The hash of the content
+     * @return The path
+     */
+    public Path blob(final String hash) {
+        return this.directory.resolve("objects")
+            .resolve(hash.substring(0, OutputStore.PREFIX))
+            .resolve(hash.substring(OutputStore.PREFIX));
+    }
+
+    /**
+     * Returns groups of results of a kind that have the same content.
+     * @param kind The kind of results
+     * @return Groups of names of results, each group has more than one result;
+     *  groups and names are sorted
+     */
+    public List<List<String>> getDuplicates(final String kind) {
+        final List<List<String>> duplicates = new ArrayList<>(0);
+        for (final List<String> group : this.groups(kind).values()) {
+            if (group.size() > 1) {
+                duplicates.add(Collections.unmodifiableList(group));
+            }
+        }
+        duplicates.sort((first, second) -> first.get(0).compareTo(second.get(0)));
+        return duplicates;
+    }
+
+    /**
+     * Writes the index file.
+     * @throws IOException If the index cannot be written
+     */
+    public void save() throws IOException {
+        Files.createDirectories(this.directory);
+        final Path temp = Files.createTempFile(this.directory, "index", ".tmp");
+        try (BufferedWriter output = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            final JsonWriter writer = new JsonWriter(output);
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("entries").beginArray();
+            for (final Map.Entry<String, SortedMap<String, String>> entry
+                : new TreeMap<>(this.entries).entrySet()) {
+                writer.beginObject();
+                writer.name("name").value(entry.getKey());
+                synchronized (entry.getValue()) {
+                    for (final Map.Entry<String, String> field : entry.getValue().entrySet()) {
+                        writer.name(field.getKey()).value(field.getValue());
+                    }
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.name("duplicates").beginArray();
+            for (final List<String> group : this.getDuplicates(OutputStore.CODE)) {
+                writer.beginArray();
+                for (final String name : group) {
+                    writer.value(name);
+                }
+                writer.endArray();
+            }
+            writer.endArray();
+            writer.endObject();
+            writer.flush();
+        }
+        Files.move(
+            temp, this.directory.resolve(OutputStore.INDEX), StandardCopyOption.REPLACE_EXISTING
+        );
+    }
+
+    /**
+     * Groups results of a kind by hashes of their content.
+     * @param kind The kind of results
+     * @return Sorted names of results by hashes
+     */
+    private Map<String, List<String>> groups(final String kind) {
+        final Map<String, List<String>> groups = new TreeMap<>();
+        for (final Map.Entry<String, SortedMap<String, String>> entry
+            : new TreeMap<>(this.entries).entrySet()) {
+            final String hash;
+            synchronized (entry.getValue()) {
+                hash = entry.getValue().get(kind);
+            }
+            if (hash != null) {
+                groups.computeIfAbsent(hash, ignored -> new ArrayList<>(1)).add(entry.getKey());
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Immutable syntax tree that is changed by path copying.
+ * Replacing a subtree creates a new tree in which only the ancestors of the replaced
+ * subtree are rebuilt, all other subtrees are shared with the original tree.
+ * So, many variants of the same tree cost memory proportional to their changes.
+ * A node is addressed by a path, that is, the indexes of children from the root.
+ *
+ * @since 0.1
+ */
+public final class PersistentTree {
+    /**
+     * The root of the tree.
+     */
+    private final Node root;
+
+    /**
+     * Constructor.
+     * @param root The root of the tree
+     */
+    public PersistentTree(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the root of the tree.
+     * @return The root node
+     */
+    public Node getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns a node by its path.
+     * @param path The path from the root
+     * @return The node
+     */
+    public Node get(final int... path) {
+        Node node = this.root;
+        for (final int index : path) {
+            node = node.getChild(index);
+        }
+        return node;
+    }
+
+    /**
+     * Finds a node that satisfies a condition.
+     * Nodes are checked in depth-first order, a parent before its children.
+     * @param condition The condition
+     * @param occurrence The number of the node among all suitable nodes, starting from zero
+     * @return The path of the node or {@code null} if there are not enough suitable nodes
+     */
+    public int[] find(final Predicate<Node> condition, final int occurrence) {
+        final List<Node> nodes = new ArrayList<>(0);
+        final List<Integer> path = new ArrayList<>(0);
+        nodes.add(this.root);
+        path.add(-1);
+        int remaining = occurrence;
+        int[] result = null;
+        while (result == null && !nodes.isEmpty()) {
+            final int last = nodes.size() - 1;
+            final Node node = nodes.get(last);
+            final int next = path.get(last) + 1;
+            if (next == 0 && condition.test(node)) {
+                if (remaining == 0) {
+                    result = new int[last];
+                    for (int index = 0; index < last; index = index + 1) {
+                        result[index] = path.get(index);
+                    }
+                }
+                remaining = remaining - 1;
+            }
+            if (next < node.getChildCount()) {
+                path.set(last, next);
+                nodes.add(node.getChild(next));
+                path.add(-1);
+            } else {
+                nodes.remove(last);
+                path.remove(last);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces a subtree.
+     * Ancestors of the replaced subtree are rebuilt by builders of their types,
+     * like the astranaut adapter does; if the builder of some ancestor does not accept
+     * the new children, the resulting tree is empty.
+     * @param path The path of the replaced subtree
+     * @param replacement The root of the new subtree
+     * @return The new tree, the original tree is not changed
+     */
+    public PersistentTree replace(final int[] path, final Node replacement) {
+        final Node[] ancestors = new Node[path.length];
+        Node node = this.root;
+        for (int index = 0; index < path.length; index = index + 1) {
+            ancestors[index] = node;
+            node = node.getChild(path[index]);
+        }
+        Node current = replacement;
+        for (int index = path.length - 1; index >= 0 && current != EmptyTree.INSTANCE;
+            index = index - 1) {
+            current = PersistentTree.rebuild(ancestors[index], path[index], current);
+        }
+        return new PersistentTree(current);
+    }
+
+    /**
+     * Rebuilds a node with one child replaced.
+     * @param node The node
+     * @param index The index of the replaced child
+     * @param child The new child
+     * @return The new node or {@link EmptyTree#INSTANCE} if it cannot be built
+     */
+    private static Node rebuild(final Node node, final int index, final Node child) {
+        final Node[] children = new Node[node.getChildCount()];
+        for (int position = 0; position < children.length; position = position + 1) {
+            children[position] = node.getChild(position);
+        }
+        children[index] = child;
+        final Builder builder = node.getType().createBuilder();
+        builder.setFragment(node.getFragment());
+        builder.setData(node.getData());
+        builder.setChildrenList(Arrays.asList(children));
+        Node result = EmptyTree.INSTANCE;
+        if (builder.isValid()) {
+            result = builder.createNode();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Type;
+
+/**
+ * View of a tree cut off at a maximum depth.
+ * Nodes are not copied: the view wraps nodes as they are visited. Children of a node
+ * at the maximum depth are replaced with a single leaf of the {@code Pruned} type,
+ * whose data tells how many children are hidden.
+ *
+ * @since 0.1
+ */
+public final class PrunedNode implements Node {
+    /**
+     * The wrapped node.
+     */
+    private final Node node;
+
+    /**
+     * The number of levels of descendants that are shown.
+     */
+    private final int depth;
+
+    /**
+     * Constructor.
+     * @param node The root of the tree
+     * @param depth The number of levels of descendants that are shown,
+     *  zero to show only the root
+     */
+    public PrunedNode(final Node node, final int depth) {
+        this.node = node;
+        this.depth = depth;
+    }
+
+    @Override
+    public Fragment getFragment() {
+        return this.node.getFragment();
+    }
+
+    @Override
+    public Type getType() {
+        return this.node.getType();
+    }
+
+    @Override
+    public String getData() {
+        return this.node.getData();
+    }
+
+    @Override
+    public int getChildCount() {
+        int count = this.node.getChildCount();
+        if (this.depth == 0 && count > 0) {
+            count = 1;
+        }
+        return count;
+    }
+
+    @Override
+    public Node getChild(final int index) {
+        final Node child;
+        if (this.depth == 0) {
+            final DraftNode.Constructor ctor = new DraftNode.Constructor();
+            ctor.setName("Pruned");
+            ctor.setData(String.format("%d children", this.node.getChildCount()));
+            child = ctor.createNode();
+        } else {
+            child = new PrunedNode(this.node.getChild(index), this.depth - 1);
+        }
+        return child;
+    }
+}
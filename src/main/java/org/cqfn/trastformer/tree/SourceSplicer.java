@@ -0,0 +1,222 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.cqfn.astranaut.core.EmptyFragment;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Produces the code of a transformed tree by editing the original source text
+ * instead of generating the whole file.
+ * The transformed tree is compared with the parsed one, node by node, and only subtrees
+ * that differ are generated, then spliced into the source text in place of the fragments
+ * of the nodes they replace. The rest of the text, including formatting and comments,
+ * is copied as is, so the cost of the output depends on the size of the change.
+ *
+ * @since 0.1
+ */
+public final class SourceSplicer {
+    /**
+     * The original source text.
+     */
+    private final String text;
+
+    /**
+     * The code generator of subtrees.
+     */
+    private final Function<Node, String> generator;
+
+    /**
+     * Constructor.
+     * @param text The original source text
+     * @param generator The code generator of subtrees
+     */
+    public SourceSplicer(final String text, final Function<Node, String> generator) {
+        this.text = text;
+        this.generator = generator;
+    }
+
+    /**
+     * Produces the code of a transformed tree.
+     * @param original The root of the tree parsed from the source text
+     * @param result The root of the transformed tree
+     * @return The code, or {@code null} if the positions of changed nodes in the source text
+     *  are unknown and the code should be generated entirely
+     */
+    public String splice(final Node original, final Node result) {
+        final List<Edit> edits = new ArrayList<>(0);
+        String code = null;
+        if (this.compare(original, result, edits)) {
+            code = this.apply(edits);
+        }
+        return code;
+    }
+
+    /**
+     * Compares a parsed subtree with the subtree that replaced it and records edits
+     * of the source text needed to turn the first one into the second one.
+     * Nodes that have the same type, data and number of children are kept and their
+     * children are compared, any other node is replaced entirely.
+     * @param original The parsed node
+     * @param result The transformed node
+     * @param edits The list of edits
+     * @return Whether the edits are found, {@code false} if a node that differs
+     *  has no position in the source text
+     */
+    private boolean compare(final Node original, final Node result, final List<Edit> edits) {
+        boolean found = true;
+        if (original != result) {
+            final int count = original.getChildCount();
+            final int mark = edits.size();
+            boolean same = original.getTypeName().equals(result.getTypeName())
+                && original.getData().equals(result.getData())
+                && count == result.getChildCount();
+            for (int index = 0; same && index < count; index = index + 1) {
+                same = this.compare(original.getChild(index), result.getChild(index), edits);
+            }
+            if (!same) {
+                edits.subList(mark, edits.size()).clear();
+                final Fragment fragment = original.getFragment();
+                found = this.located(fragment);
+                if (found) {
+                    final int begin = fragment.getBegin().getIndex();
+                    final int end = fragment.getEnd().getIndex();
+                    edits.add(
+                        new Edit(begin, end, this.adjust(this.generator.apply(result), begin, end))
+                    );
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a fragment has a known position in the source text.
+     * @param fragment The fragment, may be {@code null}
+     * @return Checking result
+     */
+    private boolean located(final Fragment fragment) {
+        boolean result = fragment != null && fragment != EmptyFragment.INSTANCE;
+        if (result) {
+            final int begin = fragment.getBegin().getIndex();
+            final int end = fragment.getEnd().getIndex();
+            result = begin >= 0 && begin <= end && end <= this.text.length();
+        }
+        return result;
+    }
+
+    /**
+     * Applies edits to the source text.
+     * @param edits The edits, in the order of the source text
+     * @return The edited text, or {@code null} if fragments of edits overlap
+     */
+    private String apply(final List<Edit> edits) {
+        final StringBuilder builder = new StringBuilder(this.text.length());
+        int position = 0;
+        boolean ordered = true;
+        for (int index = 0; ordered && index < edits.size(); index = index + 1) {
+            final Edit edit = edits.get(index);
+            ordered = edit.begin >= position;
+            if (ordered) {
+                builder.append(this.text, position, edit.begin).append(edit.code);
+                position = edit.end;
+            }
+        }
+        String result = null;
+        if (ordered) {
+            result = builder.append(this.text, position, this.text.length()).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Prepares generated code to replace a fragment of the source text:
+     * indents lines after the first one as the line where the fragment begins
+     * and keeps a line break at the end only if the fragment ends with it.
+     * @param code The generated code
+     * @param position The index of the first character of the fragment
+     * @param end The index after the last character of the fragment
+     * @return The code to be inserted
+     */
+    private String adjust(final String code, final int position, final int end) {
+        int length = code.length();
+        while (length > 0
+            && (code.charAt(length - 1) == '\n' || code.charAt(length - 1) == '\r')) {
+            length = length - 1;
+        }
+        String tail = "";
+        if (end > position && this.text.charAt(end - 1) == '\n') {
+            tail = "\n";
+        }
+        int start = position;
+        while (start > 0 && this.text.charAt(start - 1) != '\n') {
+            start = start - 1;
+        }
+        int margin = start;
+        while (margin < position && Character.isWhitespace(this.text.charAt(margin))) {
+            margin = margin + 1;
+        }
+        return code.substring(0, length)
+            .replace("\n", "\n".concat(this.text.substring(start, margin)))
+            .concat(tail);
+    }
+
+    /**
+     * Replacement of a fragment of the source text.
+     *
+     * @since 0.1
+     */
+    private static final class Edit {
+        /**
+         * The index of the first replaced character.
+         */
+        private final int begin;
+
+        /**
+         * The index after the last replaced character.
+         */
+        private final int end;
+
+        /**
+         * The code that replaces the fragment.
+         */
+        private final String code;
+
+        /**
+         * Constructor.
+         * @param begin The index of the first replaced character
+         * @param end The index after the last replaced character
+         * @param code The code that replaces the fragment
+         */
+        Edit(final int begin, final int end, final String code) {
+            this.begin = begin;
+            this.end = end;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded pool of strings that lets equal strings of many trees share one instance.
+ * Parsers create a separate string for each occurrence of an identifier or a literal,
+ * so the same name repeated over a source tree costs memory for each node.
+ * The pool is a fixed-size table indexed by hashes, like a direct-mapped cache:
+ * a string evicts the string in its slot, if another one is there, so the memory
+ * of the pool is bounded and lookups need no locks.
+ * Since strings are immutable, a lost race between threads only loses sharing,
+ * never the value.
+ *
+ * @since 0.1
+ */
+public final class StringPool {
+    /**
+     * The number of slots of the shared pool.
+     */
+    private static final int CAPACITY = 1 << 16;
+
+    /**
+     * The pool shared by all trees of the process.
+     */
+    public static final StringPool SHARED = new StringPool(StringPool.CAPACITY);
+
+    /**
+     * The slots.
+     */
+    private final AtomicReferenceArray<String> slots;
+
+    /**
+     * The mask that turns a hash into the index of a slot.
+     */
+    private final int mask;
+
+    /**
+     * Constructor.
+     * @param capacity The number of slots, rounded up to a power of two
+     */
+    public StringPool(final int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size = size << 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the pooled instance of a string.
+     * @param value The string
+     * @return An equal string from the pool, or the same string, which is pooled
+     */
+    public String intern(final String value) {
+        String result = value;
+        if (value.isEmpty()) {
+            result = "";
+        } else {
+            final int hash = value.hashCode();
+            final int index = (hash ^ hash >>> 16) & this.mask;
+            final String pooled = this.slots.get(index);
+            if (value.equals(pooled)) {
+                result = pooled;
+            } else {
+                this.slots.set(index, value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Logger;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.utils.ContentHash;
+
+/**
+ * On-disk cache of parsed syntax trees.
+ * Each entry is keyed by the hash of the source code and the language name,
+ * so that a changed source file never hits a stale entry. Entries that cannot
+ * be decoded (for example, written by an older version of the tool) are ignored
+ * and replaced after the source is parsed again.
+ * The cache is thread-safe.
+ *
+ * @since 0.1
+ */
+public final class TreeCache {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(TreeCache.class.getName());
+
+    /**
+     * The extension of cache files.
+     */
+    private static final String EXTENSION = ".tree";
+
+    /**
+     * The cache directory.
+     */
+    private final Path directory;
+
+    /**
+     * The codec.
+     */
+    private final TreeCodec codec;
+
+    /**
+     * Constructor.
+     * @param directory The cache directory
+     */
+    public TreeCache(final Path directory) {
+        this.directory = directory;
+        this.codec = new TreeCodec();
+    }
+
+    /**
+     * Loads a tree from the cache.
+     * @param content The source code
+     * @param language The language name
+     * @param factory The node factory of the language
+     * @return The root of the tree or {@code null} if there is no suitable entry
+     */
+    public Node get(final byte[] content, final String language, final Factory factory) {
+        final Path file = this.file(content, language);
+        Node root = null;
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+            )) {
+                root = this.codec.decode(
+                    input, factory, new String(content, StandardCharsets.UTF_8)
+                );
+            } catch (final IOException exc) {
+                TreeCache.LOG.warning(
+                    String.format("Ignoring stale tree cache %s: %s", file, exc)
+                );
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Stores a tree into the cache.
+     * The entry is written to a temporary file first, so that concurrent readers
+     * never see a partially written entry.
+     * @param content The source code
+     * @param language The language name
+     * @param root The root of the tree parsed from the source code
+     */
+    public void put(final byte[] content, final String language, final Node root) {
+        final Path file = this.file(content, language);
+        Path temp = null;
+        try {
+            Files.createDirectories(this.directory);
+            temp = Files.createTempFile(this.directory, "tree", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp))
+            )) {
+                this.codec.encode(root, output);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException exc) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException exc) {
+            TreeCache.LOG.warning(
+                String.format("Cannot store tree cache %s: %s", file, exc)
+            );
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache file of a source.
+     * @param content The source code
+     * @param language The language name
+     * @return The path to the cache file
+     */
+    private Path file(final byte[] content, final String language) {
+        return this.directory.resolve(
+            new ContentHash(content, language.getBytes(StandardCharsets.UTF_8))
+                .asHex()
+                .concat(TreeCache.EXTENSION)
+        );
+    }
+}
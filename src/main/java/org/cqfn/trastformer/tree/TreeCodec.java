@@ -0,0 +1,369 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.EmptyFragment;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Position;
+import org.cqfn.astranaut.core.Source;
+
+/**
+ * Compact binary encoding of syntax trees.
+ * Type names and data strings are stored once, in tables, and nodes refer to them
+ * by indexes. Nodes are stored in depth-first order, a parent before its children,
+ * each one as the index of its type, the index of its data, the number of children
+ * and the bounds of its fragment in the source text. All numbers are variable-length.
+ * Decoding rebuilds nodes by builders of the node factory, without parsing the source.
+ *
+ * @since 0.1
+ */
+public final class TreeCodec {
+    /**
+     * The signature of encoded trees.
+     */
+    private static final int MAGIC = 0x54524531;
+
+    /**
+     * The version of the encoding.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Encodes a tree.
+     * @param root The root of the tree
+     * @param output The stream to write the encoded tree
+     * @throws IOException If the tree cannot be written
+     */
+    public void encode(final Node root, final DataOutputStream output) throws IOException {
+        final Map<String, Integer> types = new HashMap<>();
+        final Map<String, Integer> data = new HashMap<>();
+        final List<Node> nodes = new ArrayList<>(0);
+        TreeCodec.collect(root, types, data, nodes);
+        output.writeInt(TreeCodec.MAGIC);
+        output.writeInt(TreeCodec.VERSION);
+        TreeCodec.writeTable(types, output);
+        TreeCodec.writeTable(data, output);
+        TreeCodec.writeNumber(nodes.size(), output);
+        for (final Node node : nodes) {
+            TreeCodec.writeNumber(types.get(node.getTypeName()), output);
+            TreeCodec.writeNumber(data.get(node.getData()), output);
+            TreeCodec.writeNumber(node.getChildCount(), output);
+            final Fragment fragment = node.getFragment();
+            if (fragment == null || fragment == EmptyFragment.INSTANCE) {
+                TreeCodec.writeNumber(0, output);
+            } else {
+                TreeCodec.writeNumber(fragment.getBegin().getIndex() + 1, output);
+                TreeCodec.writeNumber(fragment.getEnd().getIndex() + 1, output);
+            }
+        }
+    }
+
+    /**
+     * Decodes a tree.
+     * @param input The stream to read the encoded tree
+     * @param factory The node factory of the language
+     * @param text The source text the tree was parsed from, fragments of nodes refer to it
+     * @return The root of the tree
+     * @throws IOException If the tree cannot be read or built
+     */
+    public Node decode(final DataInputStream input, final Factory factory, final String text)
+        throws IOException {
+        if (input.readInt() != TreeCodec.MAGIC || input.readInt() != TreeCodec.VERSION) {
+            throw new IOException("Unsupported tree encoding");
+        }
+        final String[] types = TreeCodec.readTable(input);
+        final String[] data = TreeCodec.readTable(input);
+        final int count = TreeCodec.readNumber(input);
+        final Reader reader = new Reader(input, factory, text, types, data);
+        final Node root = reader.read();
+        if (reader.getCount() != count) {
+            throw new IOException("Wrong number of nodes");
+        }
+        return root;
+    }
+
+    /**
+     * Collects nodes of a tree in depth-first order and assigns indexes
+     * to their types and data.
+     * @param node The root of the subtree
+     * @param types Indexes of type names
+     * @param data Indexes of data strings
+     * @param nodes The list of nodes
+     */
+    private static void collect(final Node node, final Map<String, Integer> types,
+        final Map<String, Integer> data, final List<Node> nodes) {
+        nodes.add(node);
+        types.putIfAbsent(node.getTypeName(), types.size());
+        data.putIfAbsent(node.getData(), data.size());
+        final int count = node.getChildCount();
+        for (int index = 0; index < count; index = index + 1) {
+            TreeCodec.collect(node.getChild(index), types, data, nodes);
+        }
+    }
+
+    /**
+     * Writes a table of strings.
+     * @param table Indexes of strings
+     * @param output The stream
+     * @throws IOException If the table cannot be written
+     */
+    private static void writeTable(final Map<String, Integer> table,
+        final DataOutputStream output) throws IOException {
+        final String[] strings = new String[table.size()];
+        for (final Map.Entry<String, Integer> entry : table.entrySet()) {
+            strings[entry.getValue()] = entry.getKey();
+        }
+        TreeCodec.writeNumber(strings.length, output);
+        for (final String string : strings) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            TreeCodec.writeNumber(bytes.length, output);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a table of strings, taking them from the shared string pool.
+     * @param input The stream
+     * @return The strings by their indexes
+     * @throws IOException If the table cannot be read
+     */
+    private static String[] readTable(final DataInputStream input) throws IOException {
+        final String[] strings = new String[TreeCodec.readNumber(input)];
+        for (int index = 0; index < strings.length; index = index + 1) {
+            final byte[] bytes = new byte[TreeCodec.readNumber(input)];
+            input.readFully(bytes);
+            strings[index] = StringPool.SHARED.intern(
+                new String(bytes, StandardCharsets.UTF_8)
+            );
+        }
+        return strings;
+    }
+
+    /**
+     * Writes a non-negative number in a variable-length format, seven bits per byte.
+     * @param number The number
+     * @param output The stream
+     * @throws IOException If the number cannot be written
+     */
+    private static void writeNumber(final int number, final DataOutputStream output)
+        throws IOException {
+        int rest = number;
+        while ((rest & ~0x7f) != 0) {
+            output.writeByte(rest & 0x7f | 0x80);
+            rest = rest >>> 7;
+        }
+        output.writeByte(rest);
+    }
+
+    /**
+     * Reads a non-negative number in a variable-length format.
+     * @param input The stream
+     * @return The number
+     * @throws IOException If the number cannot be read
+     */
+    private static int readNumber(final DataInputStream input) throws IOException {
+        int number = 0;
+        int shift = 0;
+        int current;
+        do {
+            if (shift > 28) {
+                throw new IOException("Malformed number");
+            }
+            current = input.readUnsignedByte();
+            number = number | (current & 0x7f) << shift;
+            shift = shift + 7;
+        } while ((current & 0x80) != 0);
+        return number;
+    }
+
+    /**
+     * Reader of encoded nodes.
+     *
+     * @since 0.1
+     */
+    private static final class Reader {
+        /**
+         * The stream.
+         */
+        private final DataInputStream input;
+
+        /**
+         * The node factory.
+         */
+        private final Factory factory;
+
+        /**
+         * The source of fragments.
+         */
+        private final Source source;
+
+        /**
+         * Type names by indexes.
+         */
+        private final String[] types;
+
+        /**
+         * Data strings by indexes.
+         */
+        private final String[] data;
+
+        /**
+         * The number of nodes read.
+         */
+        private int count;
+
+        /**
+         * Constructor.
+         * @param input The stream
+         * @param factory The node factory
+         * @param text The source text
+         * @param types Type names by indexes
+         * @param data Data strings by indexes
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Reader(final DataInputStream input, final Factory factory, final String text,
+            final String[] types, final String[] data) {
+            this.input = input;
+            this.factory = factory;
+            this.source = (begin, end) -> text.substring(begin.getIndex(), end.getIndex());
+            this.types = types.clone();
+            this.data = data.clone();
+        }
+
+        /**
+         * Returns the number of nodes read.
+         * @return The number of nodes
+         */
+        public int getCount() {
+            return this.count;
+        }
+
+        /**
+         * Reads a node along with its descendants.
+         * @return The node
+         * @throws IOException If the node cannot be read or built
+         */
+        public Node read() throws IOException {
+            this.count = this.count + 1;
+            final String type = Reader.get(this.types, TreeCodec.readNumber(this.input));
+            final String value = Reader.get(this.data, TreeCodec.readNumber(this.input));
+            final int size = TreeCodec.readNumber(this.input);
+            final int begin = TreeCodec.readNumber(this.input);
+            Fragment fragment = EmptyFragment.INSTANCE;
+            if (begin > 0) {
+                fragment = new TextFragment(
+                    this.source, begin - 1, TreeCodec.readNumber(this.input) - 1
+                );
+            }
+            final List<Node> children = new ArrayList<>(size);
+            for (int index = 0; index < size; index = index + 1) {
+                children.add(this.read());
+            }
+            final Builder builder = this.factory.createBuilder(type);
+            if (builder == null) {
+                throw new IOException(String.format("Unknown node type: %s", type));
+            }
+            builder.setFragment(fragment);
+            if (!builder.setData(value) || !builder.setChildrenList(children)
+                || !builder.isValid()) {
+                throw new IOException(String.format("Cannot build a node of type %s", type));
+            }
+            return builder.createNode();
+        }
+
+        /**
+         * Returns a string from a table.
+         * @param table The table
+         * @param index The index of the string
+         * @return The string
+         * @throws IOException If the index is out of bounds
+         */
+        private static String get(final String[] table, final int index) throws IOException {
+            if (index >= table.length) {
+                throw new IOException(String.format("Wrong string index: %d", index));
+            }
+            return table[index];
+        }
+    }
+
+    /**
+     * Fragment of the source text restored from its bounds.
+     *
+     * @since 0.1
+     */
+    private static final class TextFragment implements Fragment {
+        /**
+         * The source.
+         */
+        private final Source source;
+
+        /**
+         * The position of the beginning.
+         */
+        private final Position begin;
+
+        /**
+         * The position of the end.
+         */
+        private final Position end;
+
+        /**
+         * Constructor.
+         * @param source The source
+         * @param begin The index of the beginning
+         * @param end The index of the end
+         */
+        TextFragment(final Source source, final int begin, final int end) {
+            this.source = source;
+            this.begin = () -> begin;
+            this.end = () -> end;
+        }
+
+        @Override
+        public Source getSource() {
+            return this.source;
+        }
+
+        @Override
+        public Position getBegin() {
+            return this.begin;
+        }
+
+        @Override
+        public Position getEnd() {
+            return this.end;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Rebuilds syntax trees so that their data strings are taken from a string pool.
+ * Trees held at the same time, for example in batch mode or while mutants are generated,
+ * then share one instance of each repeated identifier and literal.
+ * Node types are not copied: nodes of a language refer to the types of its factory,
+ * which already exist in one instance each.
+ * A subtree whose data strings are already pooled is returned as is.
+ *
+ * @since 0.1
+ */
+public final class TreeInterner {
+    /**
+     * The pool of strings.
+     */
+    private final StringPool pool;
+
+    /**
+     * Constructor.
+     * @param pool The pool of strings
+     */
+    public TreeInterner(final StringPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Rebuilds a tree with pooled data strings.
+     * @param node The root of the tree
+     * @return The root of the rebuilt tree, or the same node if nothing is changed
+     */
+    public Node intern(final Node node) {
+        final int count = node.getChildCount();
+        final List<Node> children = new ArrayList<>(count);
+        boolean changed = false;
+        for (int index = 0; index < count; index = index + 1) {
+            final Node child = node.getChild(index);
+            final Node interned = this.intern(child);
+            changed = changed || interned != child;
+            children.add(interned);
+        }
+        final String data = node.getData();
+        final String pooled = this.pool.intern(data);
+        Node result = node;
+        if (changed || pooled != data) {
+            final Builder builder = node.getType().createBuilder();
+            builder.setFragment(node.getFragment());
+            if (builder.setData(pooled) && builder.setChildrenList(children)
+                && builder.isValid()) {
+                result = builder.createNode();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * The part of a result tree to be rendered: the subtrees changed by the rules,
+ * the declaration of a named class, function or other entity, a tree cut off
+ * at a maximum depth, or their combination.
+ * For a large tree, the cost of rendering then depends on the size of the selected part.
+ *
+ * @since 0.1
+ */
+public final class TreeScope {
+    /**
+     * The scope of the whole tree.
+     */
+    public static final TreeScope WHOLE = new TreeScope(false, null, 0);
+
+    /**
+     * Whether only changed subtrees are selected.
+     */
+    private final boolean changed;
+
+    /**
+     * The name of the declaration to be selected, {@code null} to select the whole tree.
+     */
+    private final String name;
+
+    /**
+     * The maximum depth of selected subtrees, zero if it is not limited.
+     */
+    private final int depth;
+
+    /**
+     * Constructor.
+     * @param changed Whether only subtrees that differ from the original tree are selected
+     * @param name The name of the declaration to be selected, {@code null} to select
+     *  the whole tree
+     * @param depth The maximum depth of selected subtrees, zero if it is not limited
+     */
+    public TreeScope(final boolean changed, final String name, final int depth) {
+        this.changed = changed;
+        this.name = name;
+        this.depth = depth;
+    }
+
+    /**
+     * Selects the part of a result tree.
+     * Several changed subtrees are gathered under a node of the {@code Changes} type.
+     * @param original The root of the original tree
+     * @param result The root of the result tree
+     * @return The root of the selected part or {@code null} if nothing is selected
+     */
+    public Node select(final Node original, final Node result) {
+        Node before = original;
+        Node after = result;
+        if (this.name != null) {
+            before = TreeScope.find(original, this.name);
+            after = TreeScope.find(result, this.name);
+        }
+        if (this.changed && after != null) {
+            final List<Node> changes = new ArrayList<>(1);
+            if (before == null) {
+                changes.add(after);
+            } else {
+                TreeScope.compare(before, after, changes);
+            }
+            after = TreeScope.gather(changes);
+        }
+        if (this.depth > 0 && after != null) {
+            after = new PrunedNode(after, this.depth);
+        }
+        return after;
+    }
+
+    /**
+     * Finds the first declaration with a name, in depth-first order, a parent before
+     * its children. A declaration is a node whose type name ends with {@code Declaration}
+     * or {@code Definition} and which has a leaf child with the name as data.
+     * @param root The root of the tree
+     * @param name The name
+     * @return The declaration or {@code null} if it is not found
+     */
+    private static Node find(final Node root, final String name) {
+        final int[] path = new PersistentTree(root).find(
+            node -> TreeScope.isDeclaration(node, name), 0
+        );
+        Node result = null;
+        if (path != null) {
+            result = new PersistentTree(root).get(path);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a node is the declaration with a name.
+     * @param node The node
+     * @param name The name
+     * @return Whether it is the declaration
+     */
+    private static boolean isDeclaration(final Node node, final String name) {
+        final String type = node.getTypeName();
+        boolean result = false;
+        if (type.endsWith("Declaration") || type.endsWith("Definition")) {
+            final int count = node.getChildCount();
+            for (int index = 0; !result && index < count; index = index + 1) {
+                final Node child = node.getChild(index);
+                result = child.getChildCount() == 0 && name.equals(child.getData());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects subtrees of the result tree that differ from the original tree.
+     * Nodes with the same type, data and number of children are compared
+     * child by child, any other node is a changed subtree.
+     * @param before The node of the original tree
+     * @param after The corresponding node of the result tree
+     * @param changes Where to put changed subtrees
+     */
+    private static void compare(final Node before, final Node after, final List<Node> changes) {
+        if (before != after) {
+            final int count = after.getChildCount();
+            if (before.getTypeName().equals(after.getTypeName())
+                && before.getData().equals(after.getData())
+                && before.getChildCount() == count) {
+                for (int index = 0; index < count; index = index + 1) {
+                    TreeScope.compare(before.getChild(index), after.getChild(index), changes);
+                }
+            } else {
+                changes.add(after);
+            }
+        }
+    }
+
+    /**
+     * Gathers changed subtrees under a single root.
+     * @param changes Changed subtrees
+     * @return The only subtree, a node of the {@code Changes} type that contains them all
+     *  or {@code null} if there are no changes
+     */
+    private static Node gather(final List<Node> changes) {
+        Node result = null;
+        if (changes.size() == 1) {
+            result = changes.get(0);
+        } else if (changes.size() > 1) {
+            final DraftNode.Constructor ctor = new DraftNode.Constructor();
+            ctor.setName("Changes");
+            for (final Node change : changes) {
+                ctor.addChild(change);
+            }
+            result = ctor.createNode();
+        }
+        return result;
+    }
+}
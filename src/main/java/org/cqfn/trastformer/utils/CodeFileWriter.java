@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes generated code into a file or copies a source file that needs no changes.
+ * The text is encoded and written in chunks through a buffered writer, so, unlike
+ * writing a byte array obtained from the whole text, no copy of the whole file
+ * is created in memory.
+ *
+ * @since 0.1
+ */
+public final class CodeFileWriter {
+    /**
+     * The size of a chunk, in characters.
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * The path of the file.
+     */
+    private final Path path;
+
+    /**
+     * Constructor.
+     * @param path The path of the file
+     */
+    public CodeFileWriter(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Writes the code in UTF-8, creating parent directories if necessary.
+     * @param code The code
+     * @throws IOException If the file cannot be written
+     */
+    public void write(final CharSequence code) throws IOException {
+        this.prepare();
+        try (Writer writer = Files.newBufferedWriter(this.path, StandardCharsets.UTF_8)) {
+            final int length = code.length();
+            for (int start = 0; start < length; start = start + CodeFileWriter.CHUNK) {
+                writer.append(code, start, Math.min(start + CodeFileWriter.CHUNK, length));
+            }
+        }
+    }
+
+    /**
+     * Copies a file as is, creating parent directories if necessary.
+     * The content is transferred between file channels, so the operating system can copy
+     * it directly, without passing it through buffers of the application.
+     * Nothing is done if the source is the file itself.
+     * @param source The path of the file to copy
+     * @throws IOException If the file cannot be copied
+     */
+    public void copy(final Path source) throws IOException {
+        this.prepare();
+        if (!Files.exists(this.path) || !Files.isSameFile(source, this.path)) {
+            try (
+                FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel output = FileChannel.open(
+                    this.path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+                )
+            ) {
+                final long size = input.size();
+                long position = 0;
+                long count = 1;
+                while (position < size && count > 0) {
+                    count = input.transferTo(position, size - position, output);
+                    position = position + count;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates parent directories of the file.
+     * @throws IOException If directories cannot be created
+     */
+    private void prepare() throws IOException {
+        final Path parent = this.path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hash of a content, represented as a hexadecimal string.
+ *
+ * @since 0.1
+ */
+public final class ContentHash {
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The parts of the content.
+     */
+    private final byte[][] parts;
+
+    /**
+     * Constructor.
+     * @param parts The parts of the content, hashed one after another
+     */
+    public ContentHash(final byte[]... parts) {
+        this.parts = parts.clone();
+    }
+
+    /**
+     * Constructor.
+     * @param parts The parts of the content as strings, hashed one after another
+     */
+    public ContentHash(final String... parts) {
+        this(ContentHash.toBytes(parts));
+    }
+
+    /**
+     * Calculates the hash.
+     * @return The hexadecimal representation of the hash
+     */
+    public String asHex() {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exc) {
+            throw new IllegalStateException(exc);
+        }
+        for (final byte[] part : this.parts) {
+            digest.update(part);
+            digest.update((byte) 0);
+        }
+        final byte[] bytes = digest.digest();
+        final char[] chars = new char[bytes.length * 2];
+        for (int index = 0; index < bytes.length; index = index + 1) {
+            chars[index * 2] = ContentHash.DIGITS[bytes[index] >> 4 & 0xf];
+            chars[index * 2 + 1] = ContentHash.DIGITS[bytes[index] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return this.asHex();
+    }
+
+    /**
+     * Converts strings into byte arrays.
+     * @param parts The strings
+     * @return The byte arrays
+     */
+    private static byte[][] toBytes(final String... parts) {
+        final byte[][] bytes = new byte[parts.length][];
+        for (int index = 0; index < parts.length; index = index + 1) {
+            bytes[index] = parts[index].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Search for several byte patterns at once in a single pass over the content.
+ * The patterns are compiled into a deterministic automaton (Aho-Corasick), so each byte
+ * of the content costs one table lookup regardless of the number of patterns.
+ * The object is immutable and can be used from several threads.
+ *
+ * @since 0.1
+ */
+public final class MultiPatternSearch {
+    /**
+     * The number of possible byte values.
+     */
+    private static final int ALPHABET = 256;
+
+    /**
+     * The number of patterns.
+     */
+    private final int count;
+
+    /**
+     * Transitions of the automaton, {@link #ALPHABET} entries per state.
+     */
+    private final int[] transitions;
+
+    /**
+     * Indexes of patterns found when a state is reached, by states.
+     */
+    private final int[][] matches;
+
+    /**
+     * Constructor.
+     * @param patterns The patterns, each one of at least one byte
+     */
+    public MultiPatternSearch(final List<byte[]> patterns) {
+        this.count = patterns.size();
+        final List<int[]> rows = new ArrayList<>(1);
+        final List<BitSet> outputs = new ArrayList<>(1);
+        rows.add(MultiPatternSearch.row());
+        outputs.add(new BitSet());
+        for (int index = 0; index < this.count; index = index + 1) {
+            int state = 0;
+            for (final byte value : patterns.get(index)) {
+                final int symbol = value & 0xFF;
+                if (rows.get(state)[symbol] < 0) {
+                    rows.get(state)[symbol] = rows.size();
+                    rows.add(MultiPatternSearch.row());
+                    outputs.add(new BitSet());
+                }
+                state = rows.get(state)[symbol];
+            }
+            outputs.get(state).set(index);
+        }
+        MultiPatternSearch.complete(rows, outputs);
+        final int states = rows.size();
+        this.transitions = new int[states * MultiPatternSearch.ALPHABET];
+        this.matches = new int[states][];
+        for (int state = 0; state < states; state = state + 1) {
+            System.arraycopy(
+                rows.get(state), 0,
+                this.transitions, state * MultiPatternSearch.ALPHABET,
+                MultiPatternSearch.ALPHABET
+            );
+            this.matches[state] = outputs.get(state).stream().toArray();
+        }
+    }
+
+    /**
+     * Finds which patterns occur in the content. The search stops as soon as
+     * all patterns are found. The position of the buffer is not changed.
+     * @param buffer The content, from the current position to the limit
+     * @return Indexes of patterns that occur in the content
+     */
+    public BitSet find(final ByteBuffer buffer) {
+        final BitSet found = new BitSet(this.count);
+        int remaining = this.count;
+        int state = 0;
+        final int limit = buffer.limit();
+        for (int position = buffer.position(); remaining > 0 && position < limit;
+            position = position + 1) {
+            state = this.transitions[
+                state * MultiPatternSearch.ALPHABET + (buffer.get(position) & 0xFF)
+            ];
+            for (final int index : this.matches[state]) {
+                if (!found.get(index)) {
+                    found.set(index);
+                    remaining = remaining - 1;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Creates a row of transitions of a new state, with no transitions.
+     * @return The row
+     */
+    private static int[] row() {
+        final int[] row = new int[MultiPatternSearch.ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Completes the trie of patterns to an automaton: computes failure links
+     * in breadth-first order, replaces missing transitions with transitions
+     * of the failure state and merges outputs of failure states.
+     * @param rows Transitions by states, the root is the first one
+     * @param outputs Indexes of patterns that end in each state
+     */
+    private static void complete(final List<int[]> rows, final List<BitSet> outputs) {
+        final int[] failures = new int[rows.size()];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        final int[] root = rows.get(0);
+        for (int symbol = 0; symbol < MultiPatternSearch.ALPHABET; symbol = symbol + 1) {
+            if (root[symbol] < 0) {
+                root[symbol] = 0;
+            } else {
+                queue.add(root[symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            final int[] row = rows.get(state);
+            final int[] failure = rows.get(failures[state]);
+            outputs.get(state).or(outputs.get(failures[state]));
+            for (int symbol = 0; symbol < MultiPatternSearch.ALPHABET; symbol = symbol + 1) {
+                if (row[symbol] < 0) {
+                    row[symbol] = failure[symbol];
+                } else {
+                    failures[row[symbol]] = failure[symbol];
+                    queue.add(row[symbol]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Type;
+
+/**
+ * Serializes a syntax tree to JSON while walking it, without building the document in memory.
+ * In pretty mode, the output is the same as the output of the astranaut
+ * {@code JsonSerializer}; in compact mode, whitespace between tokens is omitted.
+ *
+ * @since 0.1
+ */
+public final class StreamingJsonSerializer {
+    /**
+     * The 'language' property of node types, and the name of the language field.
+     */
+    private static final String LANGUAGE = "language";
+
+    /**
+     * The language of nodes that belong to no specific language.
+     */
+    private static final String COMMON = "common";
+
+    /**
+     * The root of the tree.
+     */
+    private final Node root;
+
+    /**
+     * Whether the output is pretty-printed.
+     */
+    private final boolean pretty;
+
+    /**
+     * Constructor.
+     * @param root The root of the tree
+     * @param pretty Whether the output is pretty-printed
+     */
+    public StreamingJsonSerializer(final Node root, final boolean pretty) {
+        this.root = root;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Serializes the tree into a file, creating parent directories if necessary.
+     * @param path The path of the file
+     * @throws IOException If the file cannot be written
+     */
+    public void serializeToFile(final Path path) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            this.serialize(writer);
+        }
+    }
+
+    /**
+     * Serializes the tree.
+     * @param output The writer, it is flushed but not closed
+     * @throws IOException If the JSON cannot be written
+     */
+    public void serialize(final Writer output) throws IOException {
+        final JsonWriter writer = new JsonWriter(output);
+        if (this.pretty) {
+            writer.setIndent("  ");
+        }
+        writer.setHtmlSafe(true);
+        writer.beginObject();
+        writer.name("root");
+        final String language = StreamingJsonSerializer.writeNode(this.root, writer);
+        if (!language.isEmpty()) {
+            writer.name(StreamingJsonSerializer.LANGUAGE).value(language);
+        }
+        writer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * Writes a node and its descendants.
+     * @param node The node
+     * @param writer The JSON writer
+     * @return The language of the first node, in post-order, that belongs
+     *  to a specific language, or an empty string
+     * @throws IOException If the JSON cannot be written
+     */
+    private static String writeNode(final Node node, final JsonWriter writer)
+        throws IOException {
+        final Type type = node.getType();
+        writer.beginObject();
+        writer.name("type").value(type.getName());
+        final String data = node.getData();
+        if (!data.isEmpty()) {
+            writer.name("data").value(data);
+        }
+        String language = "";
+        final int count = node.getChildCount();
+        if (count > 0) {
+            writer.name("children");
+            writer.beginArray();
+            for (int index = 0; index < count; index = index + 1) {
+                final String child =
+                    StreamingJsonSerializer.writeNode(node.getChild(index), writer);
+                if (language.isEmpty()) {
+                    language = child;
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+        if (language.isEmpty()) {
+            language = type.getProperty(StreamingJsonSerializer.LANGUAGE);
+            if (StreamingJsonSerializer.COMMON.equals(language)) {
+                language = "";
+            }
+        }
+        return language;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Differences between two texts in the unified format, which is accepted
+ * by {@code patch} and {@code git apply}.
+ * Lines are compared by the linear-space variant of the Myers algorithm,
+ * after the common beginning and end of texts are skipped, so the time depends mostly
+ * on the size of the difference rather than on the size of the texts.
+ *
+ * @since 0.1
+ */
+public final class UnifiedDiff {
+    /**
+     * The number of unchanged lines shown around changes.
+     */
+    private static final int CONTEXT = 3;
+
+    /**
+     * Lines of the first text, with line terminators.
+     */
+    private final List<String> before;
+
+    /**
+     * Lines of the second text, with line terminators.
+     */
+    private final List<String> after;
+
+    /**
+     * Flags of lines of the first text that are removed.
+     */
+    private final boolean[] removed;
+
+    /**
+     * Flags of lines of the second text that are added.
+     */
+    private final boolean[] added;
+
+    /**
+     * Constructor.
+     * @param before The first text
+     * @param after The second text
+     */
+    public UnifiedDiff(final String before, final String after) {
+        this.before = UnifiedDiff.split(before);
+        this.after = UnifiedDiff.split(after);
+        this.removed = new boolean[this.before.size()];
+        this.added = new boolean[this.after.size()];
+        this.compare(0, this.before.size(), 0, this.after.size());
+    }
+
+    /**
+     * Checks whether the texts are the same.
+     * @return Checking result
+     */
+    public boolean isEmpty() {
+        boolean empty = true;
+        for (int index = 0; empty && index < this.removed.length; index = index + 1) {
+            empty = !this.removed[index];
+        }
+        for (int index = 0; empty && index < this.added.length; index = index + 1) {
+            empty = !this.added[index];
+        }
+        return empty;
+    }
+
+    /**
+     * Formats the differences.
+     * @param from The name of the first text, shown in the header
+     * @param into The name of the second text, shown in the header
+     * @return The differences in the unified format, empty if the texts are the same
+     */
+    public String format(final String from, final String into) {
+        final List<int[]> lines = this.script();
+        final StringBuilder builder = new StringBuilder();
+        int index = 0;
+        while (index < lines.size()) {
+            while (index < lines.size() && lines.get(index)[0] == 0) {
+                index = index + 1;
+            }
+            if (index < lines.size()) {
+                if (builder.length() == 0) {
+                    builder.append("--- ").append(from).append('\n')
+                        .append("+++ ").append(into).append('\n');
+                }
+                index = this.hunk(lines, index, builder);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats a group of changes that are close to each other, along with the unchanged
+     * lines around them.
+     * @param lines The edit script
+     * @param first The index of the first changed line in the script
+     * @param builder Where to append the hunk
+     * @return The index in the script after the group of changes
+     */
+    private int hunk(final List<int[]> lines, final int first, final StringBuilder builder) {
+        final int start = Math.max(0, first - UnifiedDiff.CONTEXT);
+        int last = first;
+        int next = first + 1;
+        while (next < lines.size() && next - last <= 2 * UnifiedDiff.CONTEXT) {
+            if (lines.get(next)[0] != 0) {
+                last = next;
+            }
+            next = next + 1;
+        }
+        final int end = Math.min(lines.size(), last + 1 + UnifiedDiff.CONTEXT);
+        int old = 0;
+        int fresh = 0;
+        for (int index = start; index < end; index = index + 1) {
+            final int kind = lines.get(index)[0];
+            if (kind <= 0) {
+                old = old + 1;
+            }
+            if (kind >= 0) {
+                fresh = fresh + 1;
+            }
+        }
+        builder.append("@@ -")
+            .append(UnifiedDiff.range(lines.get(start)[1], old))
+            .append(" +")
+            .append(UnifiedDiff.range(lines.get(start)[2], fresh))
+            .append(" @@\n");
+        for (int index = start; index < end; index = index + 1) {
+            final int[] line = lines.get(index);
+            if (line[0] < 0) {
+                UnifiedDiff.line('-', this.before.get(line[1]), builder);
+            } else if (line[0] > 0) {
+                UnifiedDiff.line('+', this.after.get(line[2]), builder);
+            } else {
+                UnifiedDiff.line(' ', this.before.get(line[1]), builder);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Builds the edit script from the flags of removed and added lines.
+     * @return Lines of the script, each one as the kind (-1 for removed, 1 for added,
+     *  0 for unchanged) and the positions in the first and the second texts
+     */
+    private List<int[]> script() {
+        final List<int[]> lines = new ArrayList<>(this.before.size());
+        int left = 0;
+        int right = 0;
+        while (left < this.removed.length || right < this.added.length) {
+            if (left < this.removed.length && this.removed[left]) {
+                lines.add(new int[] {-1, left, right});
+                left = left + 1;
+            } else if (right < this.added.length && this.added[right]) {
+                lines.add(new int[] {1, left, right});
+                right = right + 1;
+            } else {
+                lines.add(new int[] {0, left, right});
+                left = left + 1;
+                right = right + 1;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Finds removed and added lines in ranges of the texts.
+     * @param abegin The index of the first line of the range of the first text
+     * @param aend The index after the last line of the range of the first text
+     * @param bbegin The index of the first line of the range of the second text
+     * @param bend The index after the last line of the range of the second text
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void compare(final int abegin, final int aend, final int bbegin, final int bend) {
+        int left = abegin;
+        int right = bbegin;
+        int lend = aend;
+        int rend = bend;
+        while (left < lend && right < rend && this.same(left, right)) {
+            left = left + 1;
+            right = right + 1;
+        }
+        while (left < lend && right < rend && this.same(lend - 1, rend - 1)) {
+            lend = lend - 1;
+            rend = rend - 1;
+        }
+        if (left == lend) {
+            for (int index = right; index < rend; index = index + 1) {
+                this.added[index] = true;
+            }
+        } else if (right == rend) {
+            for (int index = left; index < lend; index = index + 1) {
+                this.removed[index] = true;
+            }
+        } else {
+            final int[] middle = this.split(left, lend, right, rend);
+            this.compare(left, middle[0], right, middle[1]);
+            this.compare(middle[0], lend, middle[1], rend);
+        }
+    }
+
+    /**
+     * Finds a point of the shortest edit script between ranges of the texts,
+     * moving from both ends of the ranges until the paths meet.
+     * The ranges are not empty, and their first lines differ, as well as their last lines.
+     * @param abegin The index of the first line of the range of the first text
+     * @param aend The index after the last line of the range of the first text
+     * @param bbegin The index of the first line of the range of the second text
+     * @param bend The index after the last line of the range of the second text
+     * @return Positions of the point in the first and the second texts
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private int[] split(final int abegin, final int aend, final int bbegin, final int bend) {
+        final int width = aend - abegin;
+        final int height = bend - bbegin;
+        final int delta = width - height;
+        final boolean odd = (delta & 1) != 0;
+        final int max = (width + height + 1) / 2;
+        final int offset = max + 1;
+        final int[] forward = new int[2 * max + 3];
+        final int[] backward = new int[2 * max + 3];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        int[] point = null;
+        for (int step = 0; point == null && step <= max; step = step + 1) {
+            final int low = UnifiedDiff.low(step, height);
+            final int high = UnifiedDiff.high(step, width);
+            for (int diag = low; point == null && diag <= high; diag = diag + 2) {
+                int col = UnifiedDiff.start(forward, offset + diag, step, width, height);
+                int row = col - diag;
+                while (col >= 0 && col < width && row < height
+                    && this.same(abegin + col, bbegin + row)) {
+                    col = col + 1;
+                    row = row + 1;
+                }
+                forward[offset + diag] = col;
+                final int opposite = delta - diag;
+                if (odd && col >= 0 && Math.abs(opposite) <= max
+                    && backward[offset + opposite] >= 0
+                    && col + backward[offset + opposite] >= width) {
+                    point = new int[] {abegin + col, bbegin + row};
+                }
+            }
+            for (int diag = low; point == null && diag <= high; diag = diag + 2) {
+                int col = UnifiedDiff.start(backward, offset + diag, step, width, height);
+                int row = col - diag;
+                while (col >= 0 && col < width && row < height
+                    && this.same(aend - 1 - col, bend - 1 - row)) {
+                    col = col + 1;
+                    row = row + 1;
+                }
+                backward[offset + diag] = col;
+                final int opposite = delta - diag;
+                if (!odd && col >= 0 && Math.abs(opposite) <= max
+                    && forward[offset + opposite] >= 0
+                    && col + forward[offset + opposite] >= width) {
+                    point = new int[] {aend - col, bend - row};
+                }
+            }
+        }
+        return point;
+    }
+
+    /**
+     * Returns the furthest position on a diagonal where a path of the given length can
+     * start, before it follows equal lines: one line further than the furthest position
+     * on the diagonal below or at the furthest position on the diagonal above.
+     * @param furthest The furthest positions reached on diagonals by shorter paths,
+     *  -1 for diagonals not reached yet
+     * @param index The index of the diagonal in the array, whose middle is the main diagonal
+     * @param step The length of the path
+     * @param width The number of lines of the range of the first text
+     * @param height The number of lines of the range of the second text
+     * @return The position or -1 if the diagonal cannot be reached
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static int start(final int[] furthest, final int index, final int step,
+        final int width, final int height) {
+        final int diag = index - (furthest.length - 1) / 2;
+        int col = -1;
+        if (step == 0) {
+            col = 0;
+        } else {
+            final int down = furthest[index + 1];
+            if (down >= 0 && down - diag <= height) {
+                col = down;
+            }
+            final int right = furthest[index - 1];
+            if (right >= 0 && right + 1 <= width && right + 1 > col) {
+                col = right + 1;
+            }
+        }
+        return col;
+    }
+
+    /**
+     * Returns the lowest diagonal reachable by a path of the given length.
+     * @param step The length of the path
+     * @param height The number of lines of the range of the second text
+     * @return The diagonal
+     */
+    private static int low(final int step, final int height) {
+        int diag = -Math.min(step, height);
+        if (((step + diag) & 1) != 0) {
+            diag = diag + 1;
+        }
+        return diag;
+    }
+
+    /**
+     * Returns the highest diagonal reachable by a path of the given length.
+     * @param step The length of the path
+     * @param width The number of lines of the range of the first text
+     * @return The diagonal
+     */
+    private static int high(final int step, final int width) {
+        int diag = Math.min(step, width);
+        if (((step - diag) & 1) != 0) {
+            diag = diag - 1;
+        }
+        return diag;
+    }
+
+    /**
+     * Checks whether lines of the first and the second texts are equal.
+     * @param left The index of the line of the first text
+     * @param right The index of the line of the second text
+     * @return Checking result
+     */
+    private boolean same(final int left, final int right) {
+        return this.before.get(left).equals(this.after.get(right));
+    }
+
+    /**
+     * Formats the range of lines of a hunk.
+     * @param first The index of the first line of the range
+     * @param count The number of lines
+     * @return The range
+     */
+    private static String range(final int first, final int count) {
+        final String result;
+        if (count == 1) {
+            result = String.valueOf(first + 1);
+        } else if (count == 0) {
+            result = String.format("%d,0", first);
+        } else {
+            result = String.format("%d,%d", first + 1, count);
+        }
+        return result;
+    }
+
+    /**
+     * Appends a line of a hunk.
+     * @param prefix The prefix of the line
+     * @param line The line, with the line terminator
+     * @param builder Where to append the line
+     */
+    private static void line(final char prefix, final String line, final StringBuilder builder) {
+        builder.append(prefix).append(line);
+        if (!line.endsWith("\n")) {
+            builder.append("\n\\ No newline at end of file\n");
+        }
+    }
+
+    /**
+     * Splits a text into lines.
+     * @param text The text
+     * @return The lines, with line terminators
+     */
+    private static List<String> split(final String text) {
+        final List<String> lines = new ArrayList<>(0);
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start) + 1;
+            if (end == 0) {
+                end = text.length();
+            }
+            lines.add(text.substring(start, end));
+            start = end;
+        }
+        return lines;
+    }
+}
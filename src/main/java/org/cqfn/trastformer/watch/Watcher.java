@@ -0,0 +1,383 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.watch;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Outcome;
+import org.cqfn.trastformer.Pipeline;
+import org.cqfn.trastformer.Task;
+
+/**
+ * Transforms sources and then keeps transforming them again when they or the rules change.
+ * Parsed trees of all sources are kept in memory. When a source changes, only this file
+ * is parsed and transformed again. When a rule file changes, the rules are loaded again
+ * and applied to the kept trees, so nothing is parsed.
+ * Changes are detected by a {@link WatchService}; events that come shortly one after
+ * another, like those caused by a single save in an editor, are handled together.
+ *
+ * @since 0.1
+ */
+public final class Watcher {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(Watcher.class.getName());
+
+    /**
+     * The time to wait for more events after an event, in milliseconds.
+     */
+    private static final long SETTLE = 100;
+
+    /**
+     * Creates a pipeline with freshly loaded rules.
+     */
+    private final Supplier<Pipeline> pipelines;
+
+    /**
+     * Absolute paths of rule files.
+     */
+    private final Set<Path> rules;
+
+    /**
+     * The watched source file or directory.
+     */
+    private final Path root;
+
+    /**
+     * Creates a task for a source file, returns {@code null} if the file is not transformed.
+     */
+    private final Function<Path, Task> tasks;
+
+    /**
+     * Parsed trees by absolute paths of source files.
+     */
+    private final Map<Path, Node> trees;
+
+    /**
+     * Tasks by absolute paths of source files.
+     */
+    private final Map<Path, Task> known;
+
+    /**
+     * The pipeline with the current rules.
+     */
+    private Pipeline pipeline;
+
+    /**
+     * Constructor.
+     * @param pipelines Creates a pipeline with freshly loaded rules, called again
+     *  each time a rule file changes
+     * @param rules Paths of rule files
+     * @param root The source file or the directory with source files
+     * @param tasks Creates a task for a source file by its absolute path,
+     *  returns {@code null} if the file is not transformed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Watcher(final Supplier<Pipeline> pipelines, final Collection<Path> rules,
+        final Path root, final Function<Path, Task> tasks) {
+        this.pipelines = pipelines;
+        this.rules = new LinkedHashSet<>();
+        for (final Path path : rules) {
+            this.rules.add(path.toAbsolutePath().normalize());
+        }
+        this.root = root.toAbsolutePath().normalize();
+        this.tasks = tasks;
+        this.trees = new TreeMap<>();
+        this.known = new HashMap<>();
+    }
+
+    /**
+     * Transforms all sources, then waits for changes and transforms changed sources
+     * until the thread is interrupted.
+     * @throws IOException If directories cannot be watched
+     */
+    public void run() throws IOException {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            final Map<WatchKey, Path> directories = new HashMap<>();
+            for (final Path path : this.rules) {
+                Watcher.register(service, path.getParent(), directories);
+            }
+            if (Files.isDirectory(this.root)) {
+                this.registerAll(service, this.root, directories);
+            } else {
+                Watcher.register(service, this.root.getParent(), directories);
+            }
+            this.scan();
+            Watcher.LOG.info(
+                String.format("Watching %s and %d rule files", this.root, this.rules.size())
+            );
+            boolean running = true;
+            while (running) {
+                try {
+                    this.update(this.changes(service, directories));
+                } catch (final InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses and transforms all sources with freshly loaded rules.
+     * @throws IOException If the source directory cannot be read
+     */
+    void scan() throws IOException {
+        this.pipeline = this.pipelines.get();
+        this.trees.clear();
+        this.known.clear();
+        for (final Path path : this.sources(this.root)) {
+            this.parse(path);
+        }
+        this.apply(this.trees.keySet());
+    }
+
+    /**
+     * Handles changed files: parses and transforms changed sources again
+     * or, if a rule file is among them, loads the rules again and applies them
+     * to all parsed trees.
+     * @param changed Absolute paths of changed, created or deleted files
+     */
+    void update(final Collection<Path> changed) {
+        boolean reload = false;
+        final Set<Path> parsed = new LinkedHashSet<>();
+        for (final Path path : changed) {
+            if (this.rules.contains(path)) {
+                reload = true;
+            } else if (Files.isRegularFile(path)) {
+                if (this.parse(path)) {
+                    parsed.add(path);
+                }
+            } else if (this.trees.remove(path) != null) {
+                this.known.remove(path);
+                Watcher.LOG.info(String.format("Removed: %s", path));
+            }
+        }
+        if (reload) {
+            this.pipeline = this.pipelines.get();
+            Watcher.LOG.info(
+                String.format("Rules changed, applying them to %d files", this.trees.size())
+            );
+            this.apply(new ArrayList<>(this.trees.keySet()));
+        } else {
+            this.apply(parsed);
+        }
+    }
+
+    /**
+     * Waits for changes of watched files.
+     * @param service The watch service
+     * @param directories Watched directories by their keys
+     * @return Absolute paths of changed files
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    private Set<Path> changes(final WatchService service,
+        final Map<WatchKey, Path> directories) throws InterruptedException {
+        final Set<Path> changed = new LinkedHashSet<>();
+        WatchKey key = service.take();
+        while (key != null) {
+            final Path directory = directories.get(key);
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    Watcher.LOG.warning("Too many changes, all sources are transformed again");
+                    changed.addAll(this.rules);
+                    changed.addAll(this.everything());
+                } else if (directory != null) {
+                    final Path path = directory.resolve((Path) event.context());
+                    changed.add(path);
+                    if (Files.isDirectory(path) && path.startsWith(this.root)) {
+                        this.created(service, path, directories, changed);
+                    }
+                }
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+            key = service.poll(Watcher.SETTLE, TimeUnit.MILLISECONDS);
+        }
+        return changed;
+    }
+
+    /**
+     * Starts watching a created directory and adds its files to changed ones.
+     * @param service The watch service
+     * @param directory The directory
+     * @param directories Watched directories by their keys
+     * @param changed Absolute paths of changed files
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void created(final WatchService service, final Path directory,
+        final Map<WatchKey, Path> directories, final Set<Path> changed) {
+        try {
+            this.registerAll(service, directory, directories);
+            try (Stream<Path> stream = Files.walk(directory)) {
+                changed.addAll(
+                    stream.filter(Files::isRegularFile).collect(Collectors.toList())
+                );
+            }
+        } catch (final IOException exc) {
+            Watcher.LOG.log(Level.WARNING, String.format("Cannot watch %s", directory), exc);
+        }
+    }
+
+    /**
+     * Returns all known sources and all files found in the watched directory.
+     * @return Absolute paths of files
+     */
+    private Set<Path> everything() {
+        final Set<Path> files = new LinkedHashSet<>(this.trees.keySet());
+        try {
+            files.addAll(this.sources(this.root));
+        } catch (final IOException exc) {
+            Watcher.LOG.log(Level.WARNING, String.format("Cannot read %s", this.root), exc);
+        }
+        return files;
+    }
+
+    /**
+     * Finds source files.
+     * @param path The source file or the directory with source files
+     * @return Absolute paths of source files, sorted
+     * @throws IOException If the directory cannot be read
+     */
+    private List<Path> sources(final Path path) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> stream = Files.walk(path)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        return files;
+    }
+
+    /**
+     * Parses a source file and keeps the tree, isolating any failure.
+     * @param path The absolute path to the source file
+     * @return Whether the file is parsed
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean parse(final Path path) {
+        Task task = this.known.get(path);
+        if (task == null) {
+            task = this.tasks.apply(path);
+        }
+        boolean parsed = false;
+        if (task != null) {
+            this.known.put(path, task);
+            try {
+                this.trees.put(path, this.pipeline.parse(task));
+                parsed = true;
+            } catch (final IOException | RuntimeException exc) {
+                this.trees.remove(path);
+                Watcher.LOG.log(Level.WARNING, String.format("Cannot parse file: %s", path), exc);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Transforms parsed trees and writes the results, isolating any failure.
+     * @param paths Absolute paths of parsed source files
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void apply(final Collection<Path> paths) {
+        for (final Path path : paths) {
+            final Task task = this.known.get(path);
+            try {
+                final Outcome outcome = this.pipeline.prepare(task, this.trees.get(path)).write();
+                if (outcome.isWritten()) {
+                    Watcher.LOG.info(String.format("Transformed: %s", path));
+                } else {
+                    Watcher.LOG.warning(String.format("Cannot write results of %s", path));
+                }
+            } catch (final IOException | ProcessorException | RuntimeException exc) {
+                Watcher.LOG.log(
+                    Level.WARNING, String.format("Cannot transform file: %s", path), exc
+                );
+            }
+        }
+    }
+
+    /**
+     * Watches a directory and all its subdirectories.
+     * @param service The watch service
+     * @param directory The directory
+     * @param directories Watched directories by their keys
+     * @throws IOException If a directory cannot be watched
+     */
+    private void registerAll(final WatchService service, final Path directory,
+        final Map<WatchKey, Path> directories) throws IOException {
+        final List<Path> nested;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            nested = stream.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        for (final Path path : nested) {
+            Watcher.register(service, path, directories);
+        }
+    }
+
+    /**
+     * Watches a directory for created, modified and deleted files.
+     * @param service The watch service
+     * @param directory The directory
+     * @param directories Watched directories by their keys
+     * @throws IOException If the directory cannot be watched
+     */
+    private static void register(final WatchService service, final Path directory,
+        final Map<WatchKey, Path> directories) throws IOException {
+        if (!directories.containsValue(directory)) {
+            directories.put(
+                directory.register(
+                    service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+                ),
+                directory
+            );
+        }
+    }
+}
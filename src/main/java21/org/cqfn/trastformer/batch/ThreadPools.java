@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.batch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread pools of batch mode.
+ * This is the version for Java 21 and later, packaged into the multi-release jar:
+ * files are transformed on platform threads, as many as requested, and results
+ * are written on virtual threads, one per file, so a thread blocked on a write,
+ * a JSON export or an image rendering does not occupy a platform thread.
+ * The number of results being written at the same time is still bounded
+ * by the batch runner, which limits the number of transformed files whose results
+ * are not written yet.
+ *
+ * @since 0.1
+ */
+final class ThreadPools {
+    /**
+     * Private constructor.
+     */
+    private ThreadPools() {
+    }
+
+    /**
+     * Creates the pool of threads that transform files, which is bound by the processor.
+     * @param threads The number of threads
+     * @return The pool
+     */
+    static ExecutorService compute(final int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Creates the pool of threads that write results, which mostly wait for files.
+     * @param threads The number of threads, ignored since each task gets its own thread
+     * @return The pool
+     */
+    static ExecutorService io(final int threads) {
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("trastformer-writer-", 0).factory()
+        );
+    }
+
+    /**
+     * Checks whether results are written on virtual threads.
+     * @return Always {@code true} for this version
+     */
+    static boolean isVirtual() {
+        return true;
+    }
+}
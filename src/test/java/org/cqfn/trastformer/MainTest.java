@@ -25,8 +25,10 @@ package org.cqfn.trastformer;
 
 import com.beust.jcommander.ParameterException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.cqfn.astranaut.exceptions.ProcessorException;
@@ -71,6 +73,16 @@ class MainTest {
      */
     private static final String IMAGE = "--image";
 
+    /**
+     * The "--code-dir" option.
+     */
+    private static final String CODE_DIR = "--code-dir";
+
+    /**
+     * The "--output-dir" option.
+     */
+    private static final String OUTPUT_DIR = "--output-dir";
+
     /**
      * The Java language name.
      */
@@ -278,6 +290,245 @@ class MainTest {
         Assertions.assertEquals(expectedmsg, message);
     }
 
+    /**
+     * Test passing the {@code --code-dir} and {@code --output-dir} options to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testBatchMode(@TempDir final Path source) throws IOException {
+        final Path sources = source.resolve("sources");
+        final Path nested = sources.resolve("nested");
+        Files.createDirectories(nested);
+        this.createTempSourceFile(sources, MainTest.JAVA);
+        this.createTempSourceFile(nested, MainTest.JAVA);
+        Files.write(sources.resolve("readme.md"), Collections.singletonList("# readme"));
+        final Path dsl = this.createTempDslFile(source);
+        final Path outputs = source.resolve("outputs");
+        final String[] example = {
+            MainTest.CODE_DIR,
+            sources.toString(),
+            MainTest.RULES,
+            dsl.toString(),
+            MainTest.OUTPUT_DIR,
+            outputs.toString(),
+            "--threads",
+            "2",
+        };
+        boolean caught = false;
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+        Assertions.assertTrue(Files.exists(outputs.resolve("source_example.java")));
+        Assertions.assertTrue(
+            Files.exists(outputs.resolve("nested").resolve("source_example.java"))
+        );
+        Assertions.assertFalse(Files.exists(outputs.resolve("readme.md")));
+    }
+
+    /**
+     * Test passing the {@code --code-dir} option without {@code --output-dir} to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testBatchModeWithoutOutputDir(@TempDir final Path source) throws IOException {
+        final Path dsl = this.createTempDslFile(source);
+        final String[] example = {
+            MainTest.CODE_DIR,
+            source.toString(),
+            MainTest.RULES,
+            dsl.toString(),
+        };
+        String message = "";
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            message = exc.getMessage();
+        }
+        Assertions.assertEquals("The option [--output-dir] should be specified", message);
+    }
+
+    /**
+     * Test passing a chain of rule files and named rule sets to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testRuleSets(@TempDir final Path source) throws IOException {
+        final Path code = this.createTempSourceFile(source, MainTest.JAVA);
+        final Path dsl = this.createTempDslFile(source);
+        final Path other = source.resolve("other.dsl");
+        Files.write(
+            other,
+            Collections.singletonList("Subtraction(#1, #2) -> Multiplication(#1, #2);")
+        );
+        final Path output = source.resolve("example_gen.java");
+        final String[] example = {
+            MainTest.CODE,
+            code.toString(),
+            MainTest.RULES,
+            String.format("%s,%s", dsl, other),
+            "--rule-set",
+            String.format("first=%s", dsl),
+            MainTest.OUTPUT,
+            output.toString(),
+        };
+        boolean caught = false;
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+        Assertions.assertTrue(
+            new String(Files.readAllBytes(output), StandardCharsets.UTF_8).contains("2 * 3")
+        );
+        Assertions.assertTrue(
+            new String(
+                Files.readAllBytes(source.resolve("first").resolve("example_gen.java")),
+                StandardCharsets.UTF_8
+            ).contains("2 - 3")
+        );
+    }
+
+    /**
+     * Test passing a rule set with a name that is not a valid directory to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testRuleSetWithWrongName(@TempDir final Path source) throws IOException {
+        final Path code = this.createTempSourceFile(source, MainTest.JAVA);
+        final Path dsl = this.createTempDslFile(source);
+        final String[] example = {
+            MainTest.CODE,
+            code.toString(),
+            "--rule-set",
+            String.format("../up=%s", dsl),
+            MainTest.OUTPUT,
+            source.resolve("example_gen.java").toString(),
+        };
+        String message = "";
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            message = exc.getMessage();
+        }
+        Assertions.assertEquals(
+            "The name of the rule set [../up] is not a valid directory",
+            message
+        );
+    }
+
+    /**
+     * Test splicing a changed subtree into a parsed Java source and writing the differences:
+     * the text outside the changed expression, including comments and spacing,
+     * is kept byte for byte and the diff changes a single line.
+     * @param source A temporary directory
+     */
+    @Test
+    void testSpliceAndDiff(@TempDir final Path source) throws IOException {
+        final List<String> lines = Arrays.asList(
+            "// Formatting and comments are kept as is",
+            "class Calculator {",
+            "    /* adds two numbers */",
+            "    int add(int a, int b) {",
+            "        return a   +   b;   // spaced",
+            "    }",
+            "",
+            "    int twice(int x) {",
+            "        return x  *  2;",
+            "    }",
+            "}"
+        );
+        final Path code = source.resolve("Calculator.java");
+        Files.write(code, lines);
+        final Path dsl = this.createTempDslFile(source);
+        final Path output = source.resolve("Calculator_gen.java");
+        final String[] example = {
+            MainTest.CODE,
+            code.toString(),
+            MainTest.RULES,
+            dsl.toString(),
+            MainTest.OUTPUT,
+            output.toString(),
+            "--splice",
+            "--diff",
+        };
+        boolean caught = false;
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+        final String before = String.join("\n", lines).concat("\n");
+        final String after = before.replace("a   +   b;", "a - b;");
+        Assertions.assertEquals(
+            after,
+            new String(Files.readAllBytes(output), StandardCharsets.UTF_8)
+        );
+        Assertions.assertEquals(
+            String.join(
+                "\n",
+                String.format("--- %s", code),
+                String.format("+++ %s", output),
+                "@@ -2,7 +2,7 @@",
+                " class Calculator {",
+                "     /* adds two numbers */",
+                "     int add(int a, int b) {",
+                "-        return a   +   b;   // spaced",
+                "+        return a - b;   // spaced",
+                "     }",
+                " ",
+                "     int twice(int x) {",
+                ""
+            ),
+            new String(
+                Files.readAllBytes(source.resolve("Calculator_gen.java.diff")),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    /**
+     * Test passing an option that the server does not support with {@code --connect} to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testConnectWithUnsupportedOption(@TempDir final Path source) throws IOException {
+        final Path code = this.createTempSourceFile(source, MainTest.JAVA);
+        final Path dsl = this.createTempDslFile(source);
+        final String[] example = {
+            "--connect",
+            MainTest.CODE,
+            code.toString(),
+            MainTest.RULES,
+            dsl.toString(),
+            MainTest.OUTPUT,
+            source.resolve("example_gen.java").toString(),
+            "--splice",
+        };
+        String message = "";
+        try {
+            Main.main(example);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            message = exc.getMessage();
+        }
+        Assertions.assertEquals("The option [--connect] cannot be used with [--splice]", message);
+        final Path store = source.resolve("store");
+        example[example.length - 1] = "--store";
+        final String[] stored = Arrays.copyOf(example, example.length + 1);
+        stored[example.length] = store.toString();
+        try {
+            Main.main(stored);
+        } catch (final ParameterException | IOException | ProcessorException exc) {
+            message = exc.getMessage();
+        }
+        Assertions.assertEquals("The option [--connect] cannot be used with [--store]", message);
+        Assertions.assertFalse(Files.exists(store));
+    }
+
     /**
      * Creates a temporary file with source code to test passing files in CLI options.
      * @param source A temporary directory
@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.cqfn.astranaut.core.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Transformer} class.
+ *
+ * @since 0.1
+ */
+class TransformerTest {
+    /**
+     * The DSL text.
+     */
+    private static final String DSL = "Addition(#1, #2) -> Multiplication(#1, #2);";
+
+    /**
+     * Test that the same transformer gives the same results in many threads at once.
+     */
+    @Test
+    void testConcurrentTransformation() throws InterruptedException, ExecutionException {
+        final Transformer transformer = new Transformer("java", TransformerTest.DSL);
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Node>> results = new ArrayList<>(0);
+            for (int index = 0; index < 100; index = index + 1) {
+                final Node tree = TreeFixture.node(
+                    "Addition",
+                    "",
+                    TreeFixture.node("Identifier", String.format("x%d", index)),
+                    TreeFixture.node("IntegerLiteral", "1")
+                );
+                results.add(pool.submit(() -> transformer.transform(tree)));
+            }
+            for (int index = 0; index < results.size(); index = index + 1) {
+                final Node result = results.get(index).get();
+                Assertions.assertEquals("Multiplication", result.getTypeName());
+                Assertions.assertEquals(
+                    String.format("x%d", index),
+                    result.getChild(0).getData()
+                );
+            }
+        } finally {
+            pool.shutdown();
+        }
+        final Node untouched = TreeFixture.node("Identifier", "y");
+        Assertions.assertSame(untouched, transformer.transform(untouched));
+    }
+
+    /**
+     * Test that source code is transformed without files.
+     */
+    @Test
+    void testSourceCode() throws IOException {
+        final Transformer transformer = new Transformer("java", TransformerTest.DSL);
+        final String code = transformer.transform("class X{public int calc(){return 2 + 3;}}");
+        Assertions.assertTrue(code.contains("*"));
+        final String unchanged = "class X{public int calc(){return 2 - 3;}}";
+        Assertions.assertEquals(unchanged, transformer.transform(unchanged));
+    }
+
+    /**
+     * Test that an unsupported language is rejected.
+     */
+    @Test
+    void testUnsupportedLanguage() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Transformer("cobol", TransformerTest.DSL)
+        );
+    }
+
+    /**
+     * Test that rules with syntax errors are rejected.
+     */
+    @Test
+    void testWrongRules() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Transformer("java", "Addition(#1, #2 -> Multiplication(#1, #2);")
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Transformer("java", "Addition(#1, #2) -> ;")
+        );
+    }
+
+    /**
+     * Test that code is not generated for a language other than Java.
+     */
+    @Test
+    void testGenerationNotSupported() {
+        final Transformer transformer = new Transformer("js", TransformerTest.DSL);
+        Assertions.assertThrows(
+            UnsupportedOperationException.class,
+            () -> transformer.generate(TreeFixture.node("Identifier", "y"))
+        );
+        Assertions.assertThrows(
+            UnsupportedOperationException.class,
+            () -> transformer.transform("y;")
+        );
+    }
+}
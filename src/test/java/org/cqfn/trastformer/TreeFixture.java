@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer;
+
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.EmptyFragment;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Position;
+import org.cqfn.astranaut.core.Source;
+
+/**
+ * Trees for tests: nodes created by the draft node constructor
+ * and the text form of trees used in assertions.
+ *
+ * @since 0.1
+ */
+public final class TreeFixture {
+    /**
+     * Private constructor.
+     */
+    private TreeFixture() {
+    }
+
+    /**
+     * Creates a node.
+     * @param type The type name
+     * @param data The data
+     * @param children The children
+     * @return The node
+     */
+    public static Node node(final String type, final String data, final Node... children) {
+        return TreeFixture.node(null, 0, 0, type, data, children);
+    }
+
+    /**
+     * Creates a node with a position in the source code.
+     * @param source The source code, {@code null} to create a node without a position
+     * @param begin The index of the first character
+     * @param end The index after the last character
+     * @param type The type name
+     * @param data The data
+     * @param children The children
+     * @return The node
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public static Node node(final Source source, final int begin, final int end,
+        final String type, final String data, final Node... children) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        if (source == null) {
+            ctor.setFragment(EmptyFragment.INSTANCE);
+        } else {
+            ctor.setFragment(
+                new Fragment() {
+                    @Override
+                    public Source getSource() {
+                        return source;
+                    }
+
+                    @Override
+                    public Position getBegin() {
+                        return () -> begin;
+                    }
+
+                    @Override
+                    public Position getEnd() {
+                        return () -> end;
+                    }
+                }
+            );
+        }
+        ctor.setName(type);
+        ctor.setData(data);
+        for (final Node child : children) {
+            ctor.addChild(child);
+        }
+        return ctor.createNode();
+    }
+
+    /**
+     * Renders a tree as a string.
+     * @param node The root of the tree
+     * @return The string, like {@code Addition(Identifier<x>, IntegerLiteral<1>)}
+     */
+    public static String render(final Node node) {
+        final StringBuilder builder = new StringBuilder();
+        TreeFixture.render(node, false, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Renders a tree as a string, abbreviating type names to the first letter.
+     * @param node The root of the tree
+     * @return The string, like {@code A(I<x>, I<1>)}
+     */
+    public static String abbreviate(final Node node) {
+        final StringBuilder builder = new StringBuilder();
+        TreeFixture.render(node, true, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Renders a tree.
+     * @param node The root of the tree
+     * @param abbreviated Whether type names are abbreviated to the first letter
+     * @param builder Where to render
+     */
+    private static void render(final Node node, final boolean abbreviated,
+        final StringBuilder builder) {
+        final String type = node.getTypeName();
+        if (abbreviated) {
+            builder.append(type.charAt(0));
+        } else {
+            builder.append(type);
+        }
+        if (!node.getData().isEmpty()) {
+            builder.append('<').append(node.getData()).append('>');
+        }
+        final int count = node.getChildCount();
+        if (count > 0) {
+            builder.append('(');
+            for (int index = 0; index < count; index = index + 1) {
+                if (index > 0) {
+                    builder.append(", ");
+                }
+                TreeFixture.render(node.getChild(index), abbreviated, builder);
+            }
+            builder.append(')');
+        }
+    }
+}
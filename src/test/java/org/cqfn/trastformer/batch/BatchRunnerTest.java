@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.LanguageDetector;
+import org.cqfn.trastformer.Outcome;
+import org.cqfn.trastformer.Processors;
+import org.cqfn.trastformer.TaskProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link BatchRunner} class.
+ *
+ * @since 0.1
+ */
+class BatchRunnerTest {
+    /**
+     * The number of source files.
+     */
+    private static final int FILES = 40;
+
+    /**
+     * Test that all files pass both stages and the number of results
+     * that are not written yet stays bounded.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testStagesWithBackpressure(@TempDir final Path directory)
+        throws IOException, ProcessorException {
+        final Path sources = directory.resolve("sources");
+        Files.createDirectories(sources.resolve("nested"));
+        for (int index = 0; index < BatchRunnerTest.FILES; index = index + 1) {
+            Files.write(
+                sources.resolve(String.format("nested/File%d.java", index)),
+                Collections.singletonList(String.format("class File%d {}", index))
+            );
+        }
+        Files.write(sources.resolve("notes.md"), Collections.singletonList("# Notes"));
+        final Path dsl = directory.resolve("rules.dsl");
+        Files.write(dsl, Collections.singletonList("Addition(#1, #2) -> Multiplication(#1, #2);"));
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final TaskProcessor processor = task -> {
+            peak.accumulateAndGet(pending.incrementAndGet(), Math::max);
+            return () -> {
+                try {
+                    Thread.sleep(2);
+                } catch (final InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                }
+                Files.createDirectories(task.getOutput().toPath().getParent());
+                Files.copy(task.getSource().toPath(), task.getOutput().toPath());
+                pending.decrementAndGet();
+                return Outcome.GENERATED;
+            };
+        };
+        final Path outputs = directory.resolve("outputs");
+        final Summary summary = new BatchRunner(
+            new Processors(dsl.toFile()),
+            processor,
+            new LanguageDetector(""),
+            4,
+            1
+        ).run(sources, outputs);
+        Assertions.assertEquals(BatchRunnerTest.FILES, summary.getSucceeded());
+        Assertions.assertEquals(1, summary.getSkipped());
+        Assertions.assertTrue(summary.getFailed().isEmpty());
+        Assertions.assertTrue(Files.exists(outputs.resolve("nested/File7.java")));
+        Assertions.assertTrue(peak.get() <= 6);
+    }
+
+    /**
+     * Test that generated files are not transformed again when the output directory
+     * is inside the source directory.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testNestedOutputDirectory(@TempDir final Path directory)
+        throws IOException, ProcessorException {
+        Files.write(directory.resolve("Main.java"), Collections.singletonList("class Main {}"));
+        final Path dsl = directory.resolve("rules.dsl");
+        Files.write(dsl, Collections.singletonList("Addition(#1, #2) -> Multiplication(#1, #2);"));
+        final TaskProcessor processor = task -> () -> {
+            Files.createDirectories(task.getOutput().toPath().getParent());
+            Files.copy(
+                task.getSource().toPath(),
+                task.getOutput().toPath(),
+                StandardCopyOption.REPLACE_EXISTING
+            );
+            return Outcome.GENERATED;
+        };
+        final Path outputs = directory.resolve("out");
+        for (int run = 0; run < 2; run = run + 1) {
+            final Summary summary = new BatchRunner(
+                new Processors(dsl.toFile()),
+                processor,
+                new LanguageDetector(""),
+                1,
+                1
+            ).run(directory, outputs);
+            Assertions.assertEquals(1, summary.getSucceeded());
+        }
+        Assertions.assertTrue(Files.exists(outputs.resolve("Main.java")));
+        Assertions.assertFalse(Files.exists(outputs.resolve("out")));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.cqfn.trastformer.utils.StreamingJsonSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link BinaryTreeReader} class.
+ *
+ * @since 0.1
+ */
+class BinaryTreeReaderTest {
+    /**
+     * Test that the reader walks the tree written to a file.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testWalk(@TempDir final Path directory) throws IOException {
+        final Node tree = TreeFixture.node(
+            "Block",
+            "",
+            TreeFixture.node(
+                "Addition",
+                "",
+                TreeFixture.node("IntegerLiteral", "1"),
+                TreeFixture.node("StringLiteral", "\u00e9\u4e2d")
+            ),
+            TreeFixture.node("Return", ""),
+            TreeFixture.node("IntegerLiteral", "1")
+        );
+        final Path file = directory.resolve("nested").resolve("ast.uast");
+        new BinaryTreeWriter(tree).writeToFile(file);
+        final BinaryTreeReader reader = BinaryTreeReader.map(file);
+        Assertions.assertEquals(6, reader.getNodeCount());
+        Assertions.assertEquals(
+            TreeFixture.render(tree),
+            BinaryTreeReaderTest.render(reader, 0)
+        );
+        Assertions.assertEquals(6, reader.getSubtreeEnd(0));
+        Assertions.assertEquals(5, reader.getChild(0, 2));
+        Assertions.assertEquals(-1, reader.getFirstChild(4));
+        Assertions.assertEquals(-1, reader.getNextSibling(1, 3));
+        Assertions.assertEquals("\u00e9\u4e2d", reader.getData(3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> reader.getChild(0, 3));
+    }
+
+    /**
+     * Test that the binary file is smaller than compact JSON.
+     */
+    @Test
+    void testSmallerThanJson() throws IOException {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Block");
+        for (int index = 0; index < 1000; index = index + 1) {
+            ctor.addChild(
+                TreeFixture.node(
+                    "ExpressionStatement",
+                    "",
+                    TreeFixture.node(
+                        "SimpleAssignment",
+                        "",
+                        TreeFixture.node("Identifier", String.format("x%d", index % 10)),
+                        TreeFixture.node("IntegerLiteral", String.valueOf(index))
+                    )
+                )
+            );
+        }
+        final Node tree = ctor.createNode();
+        final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        new BinaryTreeWriter(tree).write(binary);
+        final StringWriter json = new StringWriter();
+        new StreamingJsonSerializer(tree, false).serialize(json);
+        Assertions.assertTrue(
+            binary.size() * 2 < json.toString().getBytes(StandardCharsets.UTF_8).length
+        );
+        final BinaryTreeReader reader = new BinaryTreeReader(ByteBuffer.wrap(binary.toByteArray()));
+        Assertions.assertEquals(4001, reader.getNodeCount());
+        Assertions.assertEquals("999", reader.getData(reader.getChild(reader.getChild(
+            reader.getChild(0, 999), 0), 1)));
+    }
+
+    /**
+     * Test that data in another format is rejected.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testWrongFormat(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("ast.uast");
+        Files.write(file, "{\"root\":{}}".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(IOException.class, () -> BinaryTreeReader.map(file));
+    }
+
+    /**
+     * Test that truncated or corrupt data is rejected by the constructor,
+     * so getters never fail on data that was accepted.
+     */
+    @Test
+    void testCorruptData() throws IOException {
+        final Node tree = TreeFixture.node(
+            "Addition",
+            "",
+            TreeFixture.node("Identifier", "x"),
+            TreeFixture.node("IntegerLiteral", "1")
+        );
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryTreeWriter(tree).write(output);
+        final byte[] bytes = output.toByteArray();
+        for (int size = 0; size < bytes.length; size = size + 1) {
+            final byte[] truncated = Arrays.copyOf(bytes, size);
+            Assertions.assertThrows(
+                IOException.class,
+                () -> new BinaryTreeReader(ByteBuffer.wrap(truncated))
+            );
+        }
+        final int[] values = {-1, 7, 1000, Integer.MAX_VALUE};
+        for (int position = 0; position + 4 <= bytes.length; position = position + 4) {
+            for (final int value : values) {
+                final ByteBuffer corrupt = ByteBuffer.wrap(bytes.clone());
+                corrupt.putInt(position, value);
+                BinaryTreeReader reader = null;
+                try {
+                    reader = new BinaryTreeReader(corrupt);
+                } catch (final IOException exc) {
+                    Assertions.assertNotNull(exc.getMessage());
+                }
+                if (reader != null) {
+                    reader.getLanguage();
+                    BinaryTreeReaderTest.render(reader, 0);
+                }
+            }
+        }
+        Assertions.assertEquals(
+            TreeFixture.render(tree),
+            BinaryTreeReaderTest.render(
+                new BinaryTreeReader(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)), 0
+            )
+        );
+    }
+
+    /**
+     * Renders a tree read from the binary format as a string.
+     * @param reader The reader
+     * @param node The index of the root of the tree
+     * @return The string
+     */
+    private static String render(final BinaryTreeReader reader, final int node) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(reader.getType(node));
+        if (!reader.getData(node).isEmpty()) {
+            builder.append('<').append(reader.getData(node)).append('>');
+        }
+        if (reader.getChildCount(node) > 0) {
+            builder.append('(');
+            for (int child = reader.getFirstChild(node); child >= 0;
+                child = reader.getNextSibling(node, child)) {
+                if (child > node + 1) {
+                    builder.append(", ");
+                }
+                builder.append(BinaryTreeReaderTest.render(reader, child));
+            }
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cqfn.astranaut.exceptions.ProcessorException;
+import org.cqfn.trastformer.Outcome;
+import org.cqfn.trastformer.Task;
+import org.cqfn.trastformer.TaskProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link IncrementalProcessor} class.
+ *
+ * @since 0.1
+ */
+class IncrementalProcessorTest {
+    /**
+     * The hash of the rules.
+     */
+    private static final String RULES = "rules";
+
+    /**
+     * Test that unchanged files are skipped, including in the next run.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testUnchangedFileSkipped(@TempDir final Path directory)
+        throws IOException, ProcessorException {
+        final Task task = IncrementalProcessorTest.task(directory);
+        final AtomicInteger calls = new AtomicInteger();
+        final TaskProcessor origin = IncrementalProcessorTest.origin(calls);
+        final Path file = directory.resolve("manifest.bin");
+        final Manifest first = new Manifest(file);
+        first.load();
+        final TaskProcessor processor =
+            new IncrementalProcessor(origin, first, IncrementalProcessorTest.RULES);
+        Assertions.assertEquals(Outcome.GENERATED, processor.process(task));
+        Assertions.assertEquals(Outcome.UP_TO_DATE, processor.process(task));
+        first.save();
+        final Manifest second = new Manifest(file);
+        second.load();
+        Assertions.assertEquals(
+            Outcome.UP_TO_DATE,
+            new IncrementalProcessor(origin, second, IncrementalProcessorTest.RULES)
+                .process(task)
+        );
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    /**
+     * Test that changes of the source, the rules or the outputs cause processing.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testChangesDetected(@TempDir final Path directory)
+        throws IOException, ProcessorException {
+        final Task task = IncrementalProcessorTest.task(directory);
+        final AtomicInteger calls = new AtomicInteger();
+        final TaskProcessor origin = IncrementalProcessorTest.origin(calls);
+        final Manifest manifest = new Manifest(directory.resolve("manifest.bin"));
+        new IncrementalProcessor(origin, manifest, IncrementalProcessorTest.RULES).process(task);
+        new IncrementalProcessor(origin, manifest, "other").process(task);
+        Assertions.assertEquals(2, calls.get());
+        Files.write(task.getSource().toPath(), Collections.singletonList("class Y{}"));
+        new IncrementalProcessor(origin, manifest, "other").process(task);
+        Assertions.assertEquals(3, calls.get());
+        Files.delete(task.getOutput().toPath());
+        new IncrementalProcessor(origin, manifest, "other").process(task);
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    /**
+     * Creates a task with a temporary source file.
+     * @param directory A temporary directory
+     * @return The task
+     * @throws IOException If the source file cannot be created
+     */
+    private static Task task(final Path directory) throws IOException {
+        final Path source = directory.resolve("source.java");
+        Files.write(source, Collections.singletonList("class X{}"));
+        return new Task(source.toFile(), "java", directory.resolve("output.java").toFile());
+    }
+
+    /**
+     * Creates a processor that writes the output file and counts calls.
+     * @param calls The counter of calls
+     * @return The processor
+     */
+    private static TaskProcessor origin(final AtomicInteger calls) {
+        return task -> {
+            calls.incrementAndGet();
+            return () -> {
+                Files.copy(
+                    task.getSource().toPath(),
+                    task.getOutput().toPath(),
+                    StandardCopyOption.REPLACE_EXISTING
+                );
+                return Outcome.GENERATED;
+            };
+        };
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.DslParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Metrics} and {@link StatsReport} classes.
+ *
+ * @since 0.1
+ */
+class StatsReportTest {
+    /**
+     * Test that measurements, tree sizes and rule counts are reported.
+     */
+    @Test
+    void testReport() throws IOException {
+        final Metrics metrics = new Metrics(true);
+        final CompiledRules rules = new CompiledRules(
+            new DslParser().parse(
+                String.join(
+                    "\n",
+                    "Addition(#1, #2) -> Multiplication(#1, #2);",
+                    "Identifier<\"a\"> -> Identifier<\"z\">;"
+                )
+            ),
+            new Factory(Collections.emptyMap())
+        );
+        final Metrics.Measurement measurement =
+            metrics.start(Phase.TRANSFORM, new File("Program.java"));
+        final Node tree = TreeFixture.node(
+            "Addition",
+            "",
+            TreeFixture.node("Identifier", "b"),
+            TreeFixture.node("Identifier", "c")
+        );
+        final Node result = rules.transform(tree);
+        measurement.stop();
+        metrics.countTree(tree, result);
+        final StringWriter writer = new StringWriter();
+        new StatsReport(metrics, Collections.singletonMap("java", rules)).write(writer);
+        final JsonObject report = JsonParser.parseString(writer.toString()).getAsJsonObject();
+        Assertions.assertEquals(1, report.get("files").getAsInt());
+        final JsonArray phases = report.getAsJsonArray("phases");
+        Assertions.assertEquals(Phase.values().length, phases.size());
+        final JsonObject transform = phases.get(Phase.TRANSFORM.ordinal()).getAsJsonObject();
+        Assertions.assertEquals("transform", transform.get("phase").getAsString());
+        Assertions.assertEquals(1, transform.get("count").getAsInt());
+        Assertions.assertTrue(transform.get("wallNanos").getAsLong() > 0);
+        Assertions.assertEquals(
+            0,
+            phases.get(Phase.PARSE.ordinal()).getAsJsonObject().get("count").getAsInt()
+        );
+        Assertions.assertEquals(3, report.getAsJsonObject("nodes").get("before").getAsInt());
+        final JsonArray list = report.getAsJsonArray("rules");
+        Assertions.assertEquals(2, list.size());
+        final JsonObject first = list.get(0).getAsJsonObject();
+        Assertions.assertEquals("java", first.get("language").getAsString());
+        Assertions.assertEquals(1, first.get("attempts").getAsInt());
+        Assertions.assertEquals(1, first.get("applications").getAsInt());
+        Assertions.assertEquals(
+            0,
+            list.get(1).getAsJsonObject().get("applications").getAsInt()
+        );
+    }
+
+    /**
+     * Test that sizes of trees are not counted unless requested.
+     */
+    @Test
+    void testSizesNotCounted() {
+        final Metrics metrics = new Metrics();
+        final Node tree = TreeFixture.node("Identifier", "a");
+        metrics.countTree(tree, tree);
+        Assertions.assertEquals(1, metrics.getFiles());
+        Assertions.assertEquals(0, metrics.getNodesBefore());
+        Assertions.assertEquals(0, metrics.getNodesAfter());
+    }
+}
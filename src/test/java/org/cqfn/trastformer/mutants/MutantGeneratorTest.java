@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.mutants;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.cqfn.trastformer.rules.CompiledRules;
+import org.cqfn.trastformer.rules.DslParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MutantGenerator} and {@link SiteSampler} classes.
+ *
+ * @since 0.1
+ */
+class MutantGeneratorTest {
+    /**
+     * DSL text with two rules.
+     */
+    private static final String DSL = String.join(
+        "\n",
+        "Addition(#1, #2) -> Multiplication(#1, #2);",
+        "Identifier<\"a\"> -> Identifier<\"z\">;"
+    );
+
+    /**
+     * Test finding sites and creating mutants with a single change each.
+     */
+    @Test
+    void testOneChangePerMutant() {
+        final MutantGenerator generator = new MutantGenerator(
+            new CompiledRules(
+                new DslParser().parse(MutantGeneratorTest.DSL),
+                new Factory(Collections.emptyMap())
+            ),
+            MutantGeneratorTest.tree()
+        );
+        final List<MutationSite> sites = generator.findSites();
+        Assertions.assertEquals(
+            Arrays.asList(
+                new MutationSite(0, 0),
+                new MutationSite(0, 1),
+                new MutationSite(0, 2),
+                new MutationSite(1, 0),
+                new MutationSite(1, 1)
+            ),
+            sites
+        );
+        Assertions.assertArrayEquals(new int[] {0, 0}, sites.get(1).getPath());
+        Assertions.assertArrayEquals(new int[] {1, 1}, sites.get(4).getPath());
+        final Set<String> results = new HashSet<>();
+        for (final MutationSite site : sites) {
+            final String mutant = TreeFixture.abbreviate(generator.mutate(site));
+            Assertions.assertEquals(
+                mutant,
+                TreeFixture.abbreviate(
+                    generator.mutate(new MutationSite(site.getRule(), site.getOccurrence()))
+                )
+            );
+            results.add(mutant);
+        }
+        Assertions.assertEquals(
+            new HashSet<>(
+                Arrays.asList(
+                    "B(M(A(I<a>, I<b>), I<c>), A(I<d>, I<a>))",
+                    "B(A(M(I<a>, I<b>), I<c>), A(I<d>, I<a>))",
+                    "B(A(A(I<a>, I<b>), I<c>), M(I<d>, I<a>))",
+                    "B(A(A(I<z>, I<b>), I<c>), A(I<d>, I<a>))",
+                    "B(A(A(I<a>, I<b>), I<c>), A(I<d>, I<z>))"
+                )
+            ),
+            results
+        );
+        Assertions.assertEquals(
+            "B(A(A(I<a>, I<b>), I<c>), A(I<d>, I<a>))",
+            TreeFixture.abbreviate(MutantGeneratorTest.tree())
+        );
+    }
+
+    /**
+     * Test that sampling is limited and reproducible.
+     */
+    @Test
+    void testSampling() {
+        final List<MutationSite> sites = Arrays.asList(
+            new MutationSite(0, 0),
+            new MutationSite(0, 1),
+            new MutationSite(0, 2),
+            new MutationSite(1, 0),
+            new MutationSite(1, 1)
+        );
+        Assertions.assertEquals(sites, new SiteSampler(1, 5).sample(sites));
+        final List<MutationSite> first = new SiteSampler(7, 3).sample(sites);
+        Assertions.assertEquals(3, first.size());
+        Assertions.assertEquals(3, new HashSet<>(first).size());
+        Assertions.assertEquals(first, new SiteSampler(7, 3).sample(sites));
+    }
+
+    /**
+     * Creates a tree with additions and identifiers.
+     * @return The root of the tree
+     */
+    private static Node tree() {
+        return TreeFixture.node(
+            "Block",
+            "",
+            TreeFixture.node(
+                "Addition",
+                "",
+                TreeFixture.node(
+                    "Addition",
+                    "",
+                    TreeFixture.node("Identifier", "a"),
+                    TreeFixture.node("Identifier", "b")
+                ),
+                TreeFixture.node("Identifier", "c")
+            ),
+            TreeFixture.node(
+                "Addition",
+                "",
+                TreeFixture.node("Identifier", "d"),
+                TreeFixture.node("Identifier", "a")
+            )
+        );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FixpointTransformer} class.
+ *
+ * @since 0.1
+ */
+class FixpointTransformerTest {
+    /**
+     * DSL text with rules where the result of one rule is matched by another.
+     */
+    private static final String CHAIN = String.join(
+        "\n",
+        "Literal<\"1\"> -> Literal<\"2\">;",
+        "Literal<\"2\"> -> Literal<\"3\">;",
+        "Call(Literal<\"3\">, #1) -> Done(#1);"
+    );
+
+    /**
+     * DSL text with two rules that undo each other.
+     */
+    private static final String CYCLE = String.join(
+        "\n",
+        "Literal<\"1\"> -> Constant<\"1\">;",
+        "Identifier<\"a\"> -> Identifier<\"b\">;",
+        "Identifier<\"b\"> -> Identifier<\"a\">;"
+    );
+
+    /**
+     * Test that chained rules are applied until the tree no longer changes.
+     */
+    @Test
+    void testChain() {
+        final CompiledRules rules = FixpointTransformerTest.compile(FixpointTransformerTest.CHAIN);
+        final Node tree = FixpointTransformerTest.tree(0);
+        Assertions.assertEquals(
+            "Block(Call(Literal<2>, Identifier<a>))",
+            TreeFixture.render(rules.transform(tree))
+        );
+        final FixpointResult result = rules.transformUntilFixpoint(tree, 10);
+        Assertions.assertEquals(FixpointResult.Status.REACHED, result.getStatus());
+        Assertions.assertEquals(3, result.getPasses());
+        Assertions.assertTrue(result.getRules().isEmpty());
+        Assertions.assertEquals(
+            "Block(Done(Identifier<a>))",
+            TreeFixture.render(result.getRoot())
+        );
+    }
+
+    /**
+     * Test that a rewrite cycle is detected and only the rules that form it are reported.
+     */
+    @Test
+    void testCycle() {
+        final FixpointResult result = FixpointTransformerTest
+            .compile(FixpointTransformerTest.CYCLE)
+            .transformUntilFixpoint(FixpointTransformerTest.tree(0), 10);
+        Assertions.assertEquals(FixpointResult.Status.CYCLE, result.getStatus());
+        Assertions.assertEquals(3, result.getPasses());
+        Assertions.assertEquals(Arrays.asList(1, 2), Arrays.asList(result.getRules().toArray()));
+    }
+
+    /**
+     * Test that the number of passes is limited.
+     */
+    @Test
+    void testLimit() {
+        final FixpointResult result = FixpointTransformerTest
+            .compile(FixpointTransformerTest.CYCLE)
+            .transformUntilFixpoint(FixpointTransformerTest.tree(0), 2);
+        Assertions.assertEquals(FixpointResult.Status.LIMIT, result.getStatus());
+        Assertions.assertEquals(2, result.getPasses());
+        Assertions.assertEquals(Arrays.asList(2), Arrays.asList(result.getRules().toArray()));
+        Assertions.assertEquals(
+            "Block(Call(Constant<1>, Identifier<a>))",
+            TreeFixture.render(result.getRoot())
+        );
+    }
+
+    /**
+     * Test that passes after the first one try only changed subtrees.
+     */
+    @Test
+    void testRematchesChangedSubtreesOnly() {
+        final Node tree = FixpointTransformerTest.tree(1000);
+        final CompiledRules once = FixpointTransformerTest.compile(FixpointTransformerTest.CHAIN);
+        once.transform(tree);
+        final CompiledRules repeated =
+            FixpointTransformerTest.compile(FixpointTransformerTest.CHAIN);
+        final FixpointResult result = repeated.transformUntilFixpoint(tree, 10);
+        Assertions.assertEquals(3, result.getPasses());
+        final long single = once.getDispatcher().getBaselineAttempts();
+        Assertions.assertTrue(single > 3000);
+        Assertions.assertTrue(
+            repeated.getDispatcher().getBaselineAttempts() < single + 30
+        );
+    }
+
+    /**
+     * Compiles rules.
+     * @param dsl The DSL text
+     * @return The compiled rules
+     */
+    private static CompiledRules compile(final String dsl) {
+        return new CompiledRules(
+            new DslParser().parse(dsl),
+            new Factory(Collections.emptyMap())
+        );
+    }
+
+    /**
+     * Creates a tree with a call and unrelated identifiers.
+     * @param extra The number of unrelated identifiers
+     * @return The root of the tree
+     */
+    private static Node tree(final int extra) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Block");
+        ctor.addChild(
+            TreeFixture.node(
+                "Call",
+                "",
+                TreeFixture.node("Literal", "1"),
+                TreeFixture.node("Identifier", "a")
+            )
+        );
+        for (int index = 0; index < extra; index = index + 1) {
+            ctor.addChild(TreeFixture.node("Identifier", "x"));
+        }
+        return ctor.createNode();
+    }
+}
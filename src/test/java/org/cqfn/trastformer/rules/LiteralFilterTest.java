@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.cqfn.astranaut.core.Factory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link LiteralFilter} class.
+ *
+ * @since 0.1
+ */
+class LiteralFilterTest {
+    /**
+     * Test that a source is accepted only if it contains all words of some rule.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testWordsRequired(@TempDir final Path directory) throws IOException {
+        final LiteralFilter filter = LiteralFilterTest.filter(
+            "Call(Identifier<\"IOUtils.toInputStream\">, #1) -> Read(#1);",
+            "Identifier<\"val\"> -> Identifier<\"value\">;"
+        );
+        Assertions.assertTrue(filter.isSelective());
+        Assertions.assertTrue(
+            LiteralFilterTest.accepts(filter, "in = IOUtils.toInputStream(text);")
+        );
+        Assertions.assertTrue(LiteralFilterTest.accepts(filter, "int val = 1;"));
+        Assertions.assertFalse(LiteralFilterTest.accepts(filter, "IOUtils.write(text);"));
+        Assertions.assertFalse(LiteralFilterTest.accepts(filter, "int x = 1;"));
+        final Path file = directory.resolve("Main.java");
+        Files.write(file, "class Main { int v; }".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertFalse(filter.accepts(file));
+        Files.write(file, new byte[0]);
+        Assertions.assertFalse(filter.accepts(file));
+        Files.write(file, "class Main { int val; }".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertTrue(filter.accepts(file));
+    }
+
+    /**
+     * Test that all sources are accepted if some rule does not require data.
+     */
+    @Test
+    void testRuleWithoutWords() {
+        final LiteralFilter filter = LiteralFilterTest.filter(
+            "Identifier<\"val\"> -> Identifier<\"value\">;",
+            "Literal<#1> -> Constant<#1>;"
+        );
+        Assertions.assertFalse(filter.isSelective());
+        Assertions.assertTrue(LiteralFilterTest.accepts(filter, "int x = 1;"));
+    }
+
+    /**
+     * Creates a filter for rules.
+     * @param lines Lines of DSL text
+     * @return The filter
+     */
+    private static LiteralFilter filter(final String... lines) {
+        return new LiteralFilter(
+            Collections.singletonList(
+                new CompiledRules(
+                    new DslParser().parse(String.join("\n", lines)),
+                    new Factory(Collections.emptyMap())
+                )
+            )
+        );
+    }
+
+    /**
+     * Checks whether a filter accepts a source text.
+     * @param filter The filter
+     * @param text The text
+     * @return Whether the text is accepted
+     */
+    private static boolean accepts(final LiteralFilter filter, final String text) {
+        return filter.accepts(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
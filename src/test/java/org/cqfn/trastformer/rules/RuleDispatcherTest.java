@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.util.Collections;
+import java.util.List;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.interpreter.Adapter;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RuleDispatcher} class.
+ *
+ * @since 0.1
+ */
+class RuleDispatcherTest {
+    /**
+     * DSL text with rules that differ in root types, data and children.
+     */
+    private static final String DSL = String.join(
+        "\n",
+        "Call(Identifier<\"print\">, #1) -> Print(#1);",
+        "Call(Identifier<\"read\">, #1) -> Read(#1);",
+        "Call(Identifier<#1>, #2...) -> Invoke(Identifier<#1>, #2);",
+        "Identifier<\"a\"> -> Identifier<\"alpha\">;",
+        "Identifier<\"b\"> -> Identifier<\"beta\">;",
+        "Literal<#1> -> Constant<#1>;",
+        "Block(#1, #2) -> Pair(#1, #2);"
+    );
+
+    /**
+     * Test that dispatching gives the same result as trying rules one by one.
+     */
+    @Test
+    void testSameResultAsAdapter() {
+        final List<Instruction<Transformation>> rules =
+            new DslParser().parse(RuleDispatcherTest.DSL);
+        Assertions.assertEquals(7, rules.size());
+        final Factory factory = new Factory(Collections.emptyMap());
+        final Node tree = RuleDispatcherTest.tree();
+        final Node expected = new Adapter(rules, factory).convert(tree);
+        final CompiledRules compiled = new CompiledRules(rules, factory);
+        final Node actual = compiled.transform(tree);
+        Assertions.assertEquals(
+            TreeFixture.render(expected),
+            TreeFixture.render(actual)
+        );
+        Assertions.assertEquals(
+            String.join(
+                ", ",
+                "Block(Print(Constant<1>)",
+                "Read(Identifier<alpha>)",
+                "Invoke(Identifier<c>, Identifier<beta>))"
+            ),
+            TreeFixture.render(actual)
+        );
+    }
+
+    /**
+     * Test that the dispatcher calls the rule matcher less often than trying all rules.
+     */
+    @Test
+    void testCountsMatchAttempts() {
+        final List<Instruction<Transformation>> rules =
+            new DslParser().parse(RuleDispatcherTest.DSL);
+        final RuleDispatcher dispatcher = new RuleDispatcher(rules);
+        new org.cqfn.astranaut.core.Adapter(
+            Collections.singletonList(dispatcher),
+            new Factory(Collections.emptyMap())
+        ).convert(RuleDispatcherTest.tree());
+        Assertions.assertEquals(7, dispatcher.countRules());
+        Assertions.assertTrue(dispatcher.getAttempts() > 0);
+        Assertions.assertTrue(dispatcher.getAttempts() < dispatcher.getBaselineAttempts());
+        Assertions.assertEquals(1, dispatcher.getApplications(0));
+        Assertions.assertEquals(1, dispatcher.getApplications(1));
+        Assertions.assertEquals(1, dispatcher.getApplications(2));
+        Assertions.assertEquals(0, dispatcher.getApplications(6));
+    }
+
+    /**
+     * Test that a tree is returned as is if no rule can be applied to it.
+     */
+    @Test
+    void testNoRuleApplied() {
+        final CompiledRules compiled = new CompiledRules(
+            new DslParser().parse(RuleDispatcherTest.DSL),
+            new Factory(Collections.emptyMap())
+        );
+        final Node tree = TreeFixture.node(
+            "Sequence",
+            "",
+            TreeFixture.node("Identifier", "c"),
+            TreeFixture.node("Identifier", "d")
+        );
+        Assertions.assertSame(tree, compiled.transform(tree));
+        Assertions.assertSame(tree, compiled.transformUntilFixpoint(tree, 3).getRoot());
+        Assertions.assertNotSame(tree, compiled.transform(RuleDispatcherTest.tree()));
+    }
+
+    /**
+     * Creates a tree with calls, identifiers and literals.
+     * @return The root of the tree
+     */
+    private static Node tree() {
+        return TreeFixture.node(
+            "Block",
+            "",
+            TreeFixture.node(
+                "Call",
+                "",
+                TreeFixture.node("Identifier", "print"),
+                TreeFixture.node("Literal", "1")
+            ),
+            TreeFixture.node(
+                "Call",
+                "",
+                TreeFixture.node("Identifier", "read"),
+                TreeFixture.node("Identifier", "a")
+            ),
+            TreeFixture.node(
+                "Call",
+                "",
+                TreeFixture.node("Identifier", "c"),
+                TreeFixture.node("Identifier", "b")
+            )
+        );
+    }
+}
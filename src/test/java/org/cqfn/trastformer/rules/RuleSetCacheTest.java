@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.rules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.cqfn.astranaut.rules.HoleDecorator;
+import org.cqfn.astranaut.rules.Instruction;
+import org.cqfn.astranaut.rules.Transformation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link RuleSetCache} class.
+ *
+ * @since 0.1
+ */
+class RuleSetCacheTest {
+    /**
+     * DSL text that covers holes, typed holes, ellipses and data.
+     */
+    private static final String DSL = String.join(
+        "\n",
+        "FunctionCall(Name(Identifier<\"IOUtils\">), Identifier<\"toString\">, ExpressionList(#1))",
+        "  -> FunctionCall(Name(Identifier<\"IOUtils\">), Identifier<\"toString\">,",
+        "    ExpressionList(#1, StringLiteral<\"UTF-8\">));",
+        "ClassBody(FunctionDeclaration#1) -> ClassBody(FunctionDeclaration#1);",
+        "IntegerLiteral<#1> -> Negative(IntegerLiteral<#1>);",
+        "ParameterBlock(#1...) -> ParameterBlock();"
+    );
+
+    /**
+     * The Java language name.
+     */
+    private static final String JAVA = "java";
+
+    /**
+     * Test loading rules that were stored into the cache.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testRulesRestoredFromCache(@TempDir final Path directory) throws IOException {
+        final List<Instruction<Transformation>> parsed =
+            new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(4, parsed.size());
+        Assertions.assertEquals(1, RuleSetCacheTest.count(directory));
+        final List<Instruction<Transformation>> cached =
+            new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(parsed.toString(), cached.toString());
+        Assertions.assertEquals(1, RuleSetCacheTest.count(directory));
+    }
+
+    /**
+     * Test that a rule which replaces a node with one of its children, so that
+     * the right side is a bare hole, is restored from the cache.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testBareHoleRestoredFromCache(@TempDir final Path directory) throws IOException {
+        final String dsl = "Parenthesized(#1) -> #1;";
+        final List<Instruction<Transformation>> parsed =
+            new RuleSetCache(directory).load(dsl, RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(1, parsed.size());
+        Assertions.assertEquals(1, RuleSetCacheTest.count(directory));
+        final List<Instruction<Transformation>> cached =
+            new RuleSetCache(directory).load(dsl, RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(parsed.toString(), cached.toString());
+        Assertions.assertEquals(
+            1,
+            ((HoleDecorator) cached.get(0).getRule().getRight()).getHoleNumber()
+        );
+    }
+
+    /**
+     * Test that changed DSL text and another language produce separate cache entries.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testSeparateEntries(@TempDir final Path directory) throws IOException {
+        final RuleSetCache cache = new RuleSetCache(directory);
+        cache.load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        cache.load(RuleSetCacheTest.DSL, "python");
+        final List<Instruction<Transformation>> changed =
+            cache.load("Addition(#1, #2) -> Subtraction(#1, #2);", RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(1, changed.size());
+        Assertions.assertEquals(3, RuleSetCacheTest.count(directory));
+    }
+
+    /**
+     * Test that a corrupted cache entry is rebuilt.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testStaleEntryRebuilt(@TempDir final Path directory) throws IOException {
+        new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        final Path entry;
+        try (Stream<Path> files = Files.list(directory)) {
+            entry = files.findFirst().get();
+        }
+        Files.write(entry, new byte[] {1, 2, 3});
+        final List<Instruction<Transformation>> rules =
+            new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        Assertions.assertEquals(4, rules.size());
+        Assertions.assertTrue(Files.size(entry) > 3);
+    }
+
+    /**
+     * Test that an entry with a wrong number of rules or an unknown attribute is rebuilt.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testInvalidEntryRebuilt(@TempDir final Path directory) throws IOException {
+        new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+        final Path entry;
+        try (Stream<Path> files = Files.list(directory)) {
+            entry = files.findFirst().get();
+        }
+        final byte[] valid = Files.readAllBytes(entry);
+        final ByteArrayOutputStream negative = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(negative);
+        output.write(valid, 0, 8);
+        output.writeInt(-1);
+        final ByteArrayOutputStream unknown = new ByteArrayOutputStream();
+        final DataOutputStream another = new DataOutputStream(unknown);
+        another.write(valid, 0, 8);
+        another.writeInt(1);
+        another.writeUTF(RuleSetCacheTest.JAVA);
+        another.writeByte(1);
+        another.writeUTF("");
+        another.writeUTF("Addition");
+        another.writeUTF("UNKNOWN");
+        for (final byte[] corrupt : Arrays.asList(negative.toByteArray(), unknown.toByteArray())) {
+            Files.write(entry, corrupt);
+            final List<Instruction<Transformation>> rules =
+                new RuleSetCache(directory).load(RuleSetCacheTest.DSL, RuleSetCacheTest.JAVA);
+            Assertions.assertEquals(4, rules.size());
+            Assertions.assertArrayEquals(valid, Files.readAllBytes(entry));
+        }
+    }
+
+    /**
+     * Counts files in a directory.
+     * @param directory The directory
+     * @return The number of files
+     * @throws IOException If the directory cannot be read
+     */
+    private static long count(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList()).size();
+        }
+    }
+}
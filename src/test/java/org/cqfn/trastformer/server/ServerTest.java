@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import org.cqfn.trastformer.Task;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link Server} and {@link Client} classes.
+ *
+ * @since 0.1
+ */
+class ServerTest {
+    /**
+     * The Java language name.
+     */
+    private static final String JAVA = "java";
+
+    /**
+     * The time a connection may stay idle, in milliseconds.
+     */
+    private static final int TIMEOUT = 10_000;
+
+    /**
+     * Test transforming files by several requests to the same server.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testTransformation(@TempDir final Path directory) throws IOException {
+        final Path source = directory.resolve("source.java");
+        Files.write(
+            source,
+            Collections.singletonList("class X{public int calc(){return 2 + 3;}}")
+        );
+        final Path rules = directory.resolve("rules.dsl");
+        Files.write(
+            rules,
+            Collections.singletonList("Addition(#1, #2) -> Subtraction(#1, #2);")
+        );
+        final Path token = directory.resolve("server.token");
+        try (Server server = new Server(0, 2, null, token, directory, ServerTest.TIMEOUT)) {
+            final Client client = new Client(server.start());
+            final String secret = new Token(token).read();
+            for (int index = 0; index < 2; index = index + 1) {
+                final Path output = directory.resolve(String.format("output%d.java", index));
+                final Response response = client.send(
+                    new Request(
+                        new Task(source.toFile(), ServerTest.JAVA, output.toFile()),
+                        rules.toFile(),
+                        secret
+                    )
+                );
+                Assertions.assertTrue(response.isSuccess(), response.getMessage());
+                Assertions.assertTrue(Files.exists(output));
+            }
+        }
+    }
+
+    /**
+     * Test that a client is rejected right after a wrong secret and that an idle
+     * connection is closed, so neither holds the only worker thread.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testSilentClients(@TempDir final Path directory) throws IOException {
+        final Path token = directory.resolve("server.token");
+        try (Server server = new Server(0, 1, null, token, directory, 200)) {
+            final int port = server.start();
+            try (
+                Socket idle = new Socket(InetAddress.getLoopbackAddress(), port);
+                Socket wrong = new Socket(InetAddress.getLoopbackAddress(), port)
+            ) {
+                idle.setSoTimeout(ServerTest.TIMEOUT);
+                Assertions.assertEquals(-1, idle.getInputStream().read());
+                wrong.setSoTimeout(ServerTest.TIMEOUT);
+                final DataOutputStream output = new DataOutputStream(wrong.getOutputStream());
+                output.writeInt(0x54525334);
+                output.writeUTF("0123");
+                output.flush();
+                final Response response = new Protocol().readResponse(
+                    new DataInputStream(wrong.getInputStream())
+                );
+                Assertions.assertFalse(response.isSuccess());
+                Assertions.assertEquals(-1, wrong.getInputStream().read());
+            }
+            final Response response = new Client(port).send(
+                new Request(
+                    new Task(
+                        directory.resolve("source.java").toFile(),
+                        ServerTest.JAVA,
+                        directory.resolve("output.java").toFile()
+                    ),
+                    directory.resolve("absent.dsl").toFile(),
+                    new Token(token).read()
+                )
+            );
+            Assertions.assertFalse(response.isSuccess());
+            Assertions.assertTrue(response.getMessage().contains("absent.dsl"));
+        }
+    }
+
+    /**
+     * Test that a failed request is reported to the client.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testFailureReported(@TempDir final Path directory) throws IOException {
+        final Path token = directory.resolve("server.token");
+        try (Server server = new Server(0, 1, null, token, directory, ServerTest.TIMEOUT)) {
+            final Client client = new Client(server.start());
+            final Response response = client.send(
+                new Request(
+                    new Task(
+                        directory.resolve("source.java").toFile(),
+                        ServerTest.JAVA,
+                        directory.resolve("output.java").toFile()
+                    ),
+                    directory.resolve("absent.dsl").toFile(),
+                    new Token(token).read()
+                )
+            );
+            Assertions.assertFalse(response.isSuccess());
+        }
+    }
+
+    /**
+     * Test that a request with a wrong token is rejected and the token file
+     * is readable by its owner only.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testWrongToken(@TempDir final Path directory) throws IOException {
+        final Path token = directory.resolve("secret").resolve("server.token");
+        final Path output = directory.resolve("output.java");
+        try (Server server = new Server(0, 1, null, token, directory, ServerTest.TIMEOUT)) {
+            final Client client = new Client(server.start());
+            if (token.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Assertions.assertEquals(
+                    "rw-------",
+                    PosixFilePermissions.toString(Files.getPosixFilePermissions(token))
+                );
+            }
+            final Response response = client.send(
+                new Request(
+                    new Task(directory.toFile(), ServerTest.JAVA, output.toFile()),
+                    directory.toFile(),
+                    "0123"
+                )
+            );
+            Assertions.assertFalse(response.isSuccess());
+            Assertions.assertFalse(Files.exists(output));
+        }
+        Assertions.assertFalse(Files.exists(token));
+    }
+
+    /**
+     * Test that results are not written outside the root directory.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testOutsideRoot(@TempDir final Path directory) throws IOException {
+        final Path root = Files.createDirectory(directory.resolve("root"));
+        final Path token = directory.resolve("server.token");
+        try (Server server = new Server(0, 1, null, token, root, ServerTest.TIMEOUT)) {
+            final Client client = new Client(server.start());
+            final Path output = root.resolve("..").resolve("output.java");
+            final Response response = client.send(
+                new Request(
+                    new Task(directory.toFile(), ServerTest.JAVA, output.toFile()),
+                    directory.toFile(),
+                    new Token(token).read()
+                )
+            );
+            Assertions.assertFalse(response.isSuccess());
+            Assertions.assertTrue(response.getMessage().contains("root directory"));
+            Assertions.assertFalse(Files.exists(directory.resolve("output.java")));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.store;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link OutputStore} class.
+ *
+ * @since 0.1
+ */
+class OutputStoreTest {
+    /**
+     * Generated code shared by two results.
+     */
+    private static final String SAME = "x = 1;";
+
+    /**
+     * Test that identical content is stored once.
+     */
+    @Test
+    void testDeduplication(@TempDir final Path directory) throws IOException {
+        final OutputStore store = OutputStoreTest.fill(directory);
+        final List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory.resolve("objects"))) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        Assertions.assertEquals(2, files.size());
+        final List<List<String>> duplicates = store.getDuplicates(OutputStore.CODE);
+        Assertions.assertEquals(1, duplicates.size());
+        Assertions.assertEquals(Arrays.asList("A.java", "C.java"), duplicates.get(0));
+        Assertions.assertTrue(store.getDuplicates(OutputStore.TREE).isEmpty());
+    }
+
+    /**
+     * Test that the index maps results to blobs and lists duplicates.
+     */
+    @Test
+    void testIndex(@TempDir final Path directory) throws IOException {
+        final OutputStore store = OutputStoreTest.fill(directory);
+        store.label("A.java", "source", "src/A.java");
+        store.save();
+        final JsonObject index = JsonParser.parseString(
+            new String(
+                Files.readAllBytes(directory.resolve("index.json")), StandardCharsets.UTF_8
+            )
+        ).getAsJsonObject();
+        final JsonArray entries = index.getAsJsonArray("entries");
+        Assertions.assertEquals(3, entries.size());
+        final JsonObject first = entries.get(0).getAsJsonObject();
+        Assertions.assertEquals("A.java", first.get("name").getAsString());
+        Assertions.assertEquals("src/A.java", first.get("source").getAsString());
+        final String hash = first.get(OutputStore.CODE).getAsString();
+        Assertions.assertEquals(
+            OutputStoreTest.SAME,
+            new String(Files.readAllBytes(store.blob(hash)), StandardCharsets.UTF_8)
+        );
+        Assertions.assertEquals(
+            hash,
+            entries.get(2).getAsJsonObject().get(OutputStore.CODE).getAsString()
+        );
+        final JsonArray duplicates = index.getAsJsonArray("duplicates");
+        Assertions.assertEquals(1, duplicates.size());
+        Assertions.assertEquals(2, duplicates.get(0).getAsJsonArray().size());
+    }
+
+    /**
+     * Stores code of three results, two of them with the same content.
+     * @param directory The directory of the store
+     * @return The store
+     * @throws IOException If the content cannot be stored
+     */
+    private static OutputStore fill(final Path directory) throws IOException {
+        final OutputStore store = new OutputStore(directory);
+        Assertions.assertTrue(
+            store.put(
+                "A.java", OutputStore.CODE, OutputStoreTest.SAME.getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        Assertions.assertTrue(
+            store.put("B.java", OutputStore.CODE, "y = 2;".getBytes(StandardCharsets.UTF_8))
+        );
+        Assertions.assertFalse(
+            store.put(
+                "C.java", OutputStore.CODE, OutputStoreTest.SAME.getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        return store;
+    }
+}
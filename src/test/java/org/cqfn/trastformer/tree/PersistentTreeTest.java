@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PersistentTree} class.
+ *
+ * @since 0.1
+ */
+class PersistentTreeTest {
+    /**
+     * The number of members of the generated class.
+     */
+    private static final int MEMBERS = 5000;
+
+    /**
+     * The number of statements in each member.
+     */
+    private static final int STATEMENTS = 8;
+
+    /**
+     * The number of created variants.
+     */
+    private static final int VARIANTS = 1000;
+
+    /**
+     * Test that replacing a subtree does not change the original tree
+     * and shares unchanged subtrees.
+     */
+    @Test
+    void testReplaceSharesSubtrees() {
+        final PersistentTree tree = new PersistentTree(PersistentTreeTest.member(0));
+        final int[] path = tree.find(node -> "s2".equals(node.getData()), 0);
+        Assertions.assertArrayEquals(new int[] {1, 2}, path);
+        final PersistentTree changed =
+            tree.replace(path, TreeFixture.node("Stmt", "changed"));
+        Assertions.assertEquals("s2", tree.get(1, 2).getData());
+        Assertions.assertEquals("changed", changed.get(1, 2).getData());
+        Assertions.assertNotSame(tree.getRoot(), changed.getRoot());
+        Assertions.assertSame(tree.get(0), changed.get(0));
+        Assertions.assertSame(tree.get(1, 1), changed.get(1, 1));
+        Assertions.assertNull(tree.find(node -> "s2".equals(node.getData()), 1));
+    }
+
+    /**
+     * Test that many variants of a large tree cost memory proportional to their changes:
+     * a thousand variants of a class with 5000 members add only a few nodes each.
+     */
+    @Test
+    void testVariantsOfLargeTree() {
+        final List<Node> members = new ArrayList<>(PersistentTreeTest.MEMBERS);
+        for (int index = 0; index < PersistentTreeTest.MEMBERS; index = index + 1) {
+            members.add(PersistentTreeTest.member(index));
+        }
+        final PersistentTree tree = new PersistentTree(
+            TreeFixture.node("Class", "", members.toArray(new Node[0]))
+        );
+        final int original = PersistentTreeTest.count(Collections.singletonList(tree.getRoot()));
+        final List<Node> roots = new ArrayList<>(PersistentTreeTest.VARIANTS + 1);
+        roots.add(tree.getRoot());
+        for (int index = 0; index < PersistentTreeTest.VARIANTS; index = index + 1) {
+            final int[] path = {
+                index * 5 % PersistentTreeTest.MEMBERS,
+                1,
+                index % PersistentTreeTest.STATEMENTS,
+            };
+            roots.add(tree.replace(path, TreeFixture.node("Stmt", "changed")).getRoot());
+        }
+        Assertions.assertEquals(
+            original + PersistentTreeTest.VARIANTS * 4,
+            PersistentTreeTest.count(roots)
+        );
+    }
+
+    /**
+     * Creates a member of a class with a name and a body with statements.
+     * @param number The number of the member
+     * @return The member node
+     */
+    private static Node member(final int number) {
+        final Node[] statements = new Node[PersistentTreeTest.STATEMENTS];
+        for (int index = 0; index < statements.length; index = index + 1) {
+            statements[index] = TreeFixture.node("Stmt", String.format("s%d", index));
+        }
+        return TreeFixture.node(
+            "Member",
+            "",
+            TreeFixture.node("Name", String.format("m%d", number)),
+            TreeFixture.node("Body", "", statements)
+        );
+    }
+
+    /**
+     * Counts distinct node objects reachable from the given roots.
+     * @param roots The roots
+     * @return The number of nodes
+     */
+    private static int count(final List<Node> roots) {
+        final Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Node> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty()) {
+            final Node node = stack.pop();
+            if (visited.add(node)) {
+                for (int index = 0; index < node.getChildCount(); index = index + 1) {
+                    stack.push(node.getChild(index));
+                }
+            }
+        }
+        return visited.size();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Source;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SourceSplicer} class.
+ *
+ * @since 0.1
+ */
+class SourceSplicerTest {
+    /**
+     * The source code.
+     */
+    private static final String CODE =
+        "x = a  +  1; // sum\nif (c) {\n    y = b;\n}\n";
+
+    /**
+     * The type name of identifiers.
+     */
+    private static final String IDENTIFIER = "Identifier";
+
+    /**
+     * The type name of assignments.
+     */
+    private static final String ASSIGNMENT = "Assignment";
+
+    /**
+     * Test that a changed leaf is generated and the rest of the text is kept as is.
+     */
+    @Test
+    void testChangedLeaf() {
+        final List<String> generated = new ArrayList<>(1);
+        final String code = new SourceSplicer(
+            SourceSplicerTest.CODE,
+            node -> SourceSplicerTest.generate(node, generated)
+        ).splice(SourceSplicerTest.tree("a", null), SourceSplicerTest.tree("z", null));
+        Assertions.assertEquals(
+            "x = z  +  1; // sum\nif (c) {\n    y = b;\n}\n",
+            code
+        );
+        Assertions.assertEquals(1, generated.size());
+    }
+
+    /**
+     * Test that a replaced subtree is indented as the line where it is inserted.
+     */
+    @Test
+    void testReplacedSubtree() {
+        final List<String> generated = new ArrayList<>(1);
+        final Node replacement = TreeFixture.node(null, 0, 0, "Return", "");
+        final String code = new SourceSplicer(
+            SourceSplicerTest.CODE,
+            node -> SourceSplicerTest.generate(node, generated)
+        ).splice(SourceSplicerTest.tree("a", null), SourceSplicerTest.tree("a", replacement));
+        Assertions.assertEquals(
+            "x = a  +  1; // sum\nif (c) {\n    return;\n    return;\n}\n",
+            code
+        );
+        Assertions.assertEquals(1, generated.size());
+    }
+
+    /**
+     * Test that the same tree produces the same text without generation.
+     */
+    @Test
+    void testSameTree() {
+        final List<String> generated = new ArrayList<>(0);
+        final Node tree = SourceSplicerTest.tree("a", null);
+        Assertions.assertEquals(
+            SourceSplicerTest.CODE,
+            new SourceSplicer(
+                SourceSplicerTest.CODE,
+                node -> SourceSplicerTest.generate(node, generated)
+            ).splice(tree, SourceSplicerTest.tree("a", null))
+        );
+        Assertions.assertTrue(generated.isEmpty());
+    }
+
+    /**
+     * Test that the text is not produced if a changed node has no position.
+     */
+    @Test
+    void testUnknownPosition() {
+        final Node original = TreeFixture.node(
+            null, 0, 0, "Program", "", SourceSplicerTest.tree("a", null)
+        );
+        final Node result = TreeFixture.node(
+            null, 0, 0, "Program", "",
+            SourceSplicerTest.tree("a", null),
+            TreeFixture.node(null, 0, 0, "Return", "")
+        );
+        Assertions.assertNull(
+            new SourceSplicer(
+                SourceSplicerTest.CODE,
+                node -> SourceSplicerTest.generate(node, new ArrayList<>(0))
+            ).splice(original, result)
+        );
+    }
+
+    /**
+     * Generates the code of a node: data of leaves, two statements for other nodes.
+     * @param node The node
+     * @param generated Where to store type names of generated nodes
+     * @return The code
+     */
+    private static String generate(final Node node, final List<String> generated) {
+        generated.add(node.getTypeName());
+        String code = node.getData();
+        if (code.isEmpty()) {
+            code = "return;\nreturn;\n";
+        }
+        return code;
+    }
+
+    /**
+     * Creates a tree of the source code with fragments that refer to it.
+     * @param name The name of the first identifier of the addition
+     * @param statement The node that replaces the statement in the block,
+     *  {@code null} to keep the statement
+     * @return The root of the tree
+     */
+    private static Node tree(final String name, final Node statement) {
+        final Source source = (begin, end) -> SourceSplicerTest.CODE.substring(
+            begin.getIndex(), end.getIndex()
+        );
+        Node block = TreeFixture.node(
+            source, 33, 39, SourceSplicerTest.ASSIGNMENT, "",
+            TreeFixture.node(source, 33, 34, SourceSplicerTest.IDENTIFIER, "y"),
+            TreeFixture.node(source, 37, 38, SourceSplicerTest.IDENTIFIER, "b")
+        );
+        if (statement != null) {
+            block = statement;
+        }
+        return TreeFixture.node(
+            source, 0, 42, "Program", "",
+            TreeFixture.node(
+                source, 0, 12, SourceSplicerTest.ASSIGNMENT, "",
+                TreeFixture.node(source, 0, 1, SourceSplicerTest.IDENTIFIER, "x"),
+                TreeFixture.node(
+                    source, 4, 11, "Addition", "",
+                    TreeFixture.node(source, 4, 5, SourceSplicerTest.IDENTIFIER, name),
+                    TreeFixture.node(source, 10, 11, "IntegerLiteral", "1")
+                )
+            ),
+            TreeFixture.node(
+                source, 20, 41, "If", "",
+                TreeFixture.node(source, 24, 25, SourceSplicerTest.IDENTIFIER, "c"),
+                TreeFixture.node(source, 27, 41, "Block", "", block)
+            )
+        );
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Source;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link TreeCache} class.
+ *
+ * @since 0.1
+ */
+class TreeCacheTest {
+    /**
+     * The source code.
+     */
+    private static final String CODE = "x = \"\u00e9\u4e2d\" + 1;";
+
+    /**
+     * The language name.
+     */
+    private static final String LANGUAGE = "java";
+
+    /**
+     * Test that a stored tree is loaded with the same types, data and fragments.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testRoundTrip(@TempDir final Path directory) {
+        final TreeCache cache = new TreeCache(directory);
+        final byte[] content = TreeCacheTest.CODE.getBytes(StandardCharsets.UTF_8);
+        final Factory factory = new Factory(Collections.emptyMap());
+        Assertions.assertNull(cache.get(content, TreeCacheTest.LANGUAGE, factory));
+        final Node tree = TreeCacheTest.tree();
+        cache.put(content, TreeCacheTest.LANGUAGE, tree);
+        final Node loaded = cache.get(content, TreeCacheTest.LANGUAGE, factory);
+        Assertions.assertNotNull(loaded);
+        Assertions.assertEquals(TreeFixture.render(tree), TreeFixture.render(loaded));
+        final Fragment fragment = loaded.getChild(1).getChild(0).getFragment();
+        Assertions.assertEquals(
+            "\"\u00e9\u4e2d\"",
+            fragment.getSource().getFragmentAsString(fragment.getBegin(), fragment.getEnd())
+        );
+        Assertions.assertNull(cache.get(content, "python", factory));
+        Assertions.assertNull(
+            cache.get("x = 2;".getBytes(StandardCharsets.UTF_8), TreeCacheTest.LANGUAGE, factory)
+        );
+    }
+
+    /**
+     * Test that an entry that cannot be decoded is ignored and replaced.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testStaleEntry(@TempDir final Path directory) throws IOException {
+        final TreeCache cache = new TreeCache(directory);
+        final byte[] content = TreeCacheTest.CODE.getBytes(StandardCharsets.UTF_8);
+        final Factory factory = new Factory(Collections.emptyMap());
+        cache.put(content, TreeCacheTest.LANGUAGE, TreeCacheTest.tree());
+        final File[] files = directory.toFile().listFiles();
+        Assertions.assertEquals(1, files.length);
+        Files.write(files[0].toPath(), new byte[] {1, 2, 3});
+        Assertions.assertNull(cache.get(content, TreeCacheTest.LANGUAGE, factory));
+        cache.put(content, TreeCacheTest.LANGUAGE, TreeCacheTest.tree());
+        Assertions.assertNotNull(cache.get(content, TreeCacheTest.LANGUAGE, factory));
+    }
+
+    /**
+     * Creates a tree of an assignment with fragments that refer to the source code.
+     * @return The root of the tree
+     */
+    private static Node tree() {
+        final Source source = (begin, end) -> TreeCacheTest.CODE.substring(
+            begin.getIndex(), end.getIndex()
+        );
+        return TreeFixture.node(
+            source, 0, 13, "Assignment", "",
+            TreeFixture.node(source, 0, 1, "Identifier", "x"),
+            TreeFixture.node(
+                source, 4, 12, "Addition", "",
+                TreeFixture.node(source, 4, 8, "StringLiteral", "\u00e9\u4e2d"),
+                TreeFixture.node(source, 11, 12, "IntegerLiteral", "1")
+            )
+        );
+    }
+}
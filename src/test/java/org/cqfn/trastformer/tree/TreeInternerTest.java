@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link TreeInterner} class.
+ *
+ * @since 0.1
+ */
+class TreeInternerTest {
+    /**
+     * The name of the identifier.
+     */
+    private static final String NAME = "alpha";
+
+    /**
+     * Test that equal data strings of different trees share one instance.
+     */
+    @Test
+    void testSharedData() {
+        final TreeInterner interner = new TreeInterner(new StringPool(16));
+        final Node first = interner.intern(TreeInternerTest.tree());
+        final Node second = interner.intern(TreeInternerTest.tree());
+        Assertions.assertNotSame(
+            TreeInternerTest.tree().getChild(0).getData(),
+            TreeInternerTest.tree().getChild(0).getData()
+        );
+        Assertions.assertSame(first.getChild(0).getData(), second.getChild(0).getData());
+        Assertions.assertSame(first.getChild(0).getData(), first.getChild(1).getData());
+        Assertions.assertEquals(TreeInternerTest.NAME, second.getChild(1).getData());
+        Assertions.assertEquals("Addition", second.getTypeName());
+        Assertions.assertEquals(2, second.getChildCount());
+    }
+
+    /**
+     * Test that a tree with pooled data is not rebuilt.
+     */
+    @Test
+    void testPooledTree() {
+        final TreeInterner interner = new TreeInterner(new StringPool(16));
+        final Node tree = interner.intern(TreeInternerTest.tree());
+        Assertions.assertSame(tree, interner.intern(tree));
+    }
+
+    /**
+     * Test that a string evicted from its slot is pooled again.
+     */
+    @Test
+    void testEviction() {
+        final StringPool pool = new StringPool(1);
+        final String first = pool.intern(new String(new char[] {'a'}));
+        Assertions.assertSame(first, pool.intern(new String(new char[] {'a'})));
+        Assertions.assertEquals("b", pool.intern(new String(new char[] {'b'})));
+        final String second = pool.intern(new String(new char[] {'a'}));
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(second, pool.intern(new String(new char[] {'a'})));
+    }
+
+    /**
+     * Creates a tree of an addition of the same identifier with distinct data strings.
+     * @return The root of the tree
+     */
+    private static Node tree() {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Addition");
+        ctor.addChild(TreeInternerTest.identifier());
+        ctor.addChild(TreeInternerTest.identifier());
+        return ctor.createNode();
+    }
+
+    /**
+     * Creates an identifier with a new data string.
+     * @return The node
+     */
+    private static Node identifier() {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Identifier");
+        ctor.setData(new String(TreeInternerTest.NAME.toCharArray()));
+        return ctor.createNode();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.tree;
+
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link TreeScope} and {@link PrunedNode} classes.
+ *
+ * @since 0.1
+ */
+class TreeScopeTest {
+    /**
+     * The type name of identifiers.
+     */
+    private static final String IDENTIFIER = "Identifier";
+
+    /**
+     * The type name of methods.
+     */
+    private static final String METHOD = "MethodDeclaration";
+
+    /**
+     * The type name of returns.
+     */
+    private static final String RETURN = "Return";
+
+    /**
+     * Test that only changed subtrees are selected.
+     */
+    @Test
+    void testChanged() {
+        final Node original = TreeScopeTest.tree("a", "b");
+        final Node result = TreeScopeTest.tree("x", "y");
+        final Node selected = new TreeScope(true, null, 0).select(original, result);
+        Assertions.assertEquals("Changes", selected.getTypeName());
+        Assertions.assertEquals(2, selected.getChildCount());
+        Assertions.assertSame(
+            result.getChild(0).getChild(1).getChild(0), selected.getChild(0)
+        );
+        Assertions.assertEquals("y", selected.getChild(1).getData());
+        final Node single = new TreeScope(true, null, 0)
+            .select(original, TreeScopeTest.tree("a", "y"));
+        Assertions.assertEquals(TreeScopeTest.IDENTIFIER, single.getTypeName());
+        Assertions.assertEquals("y", single.getData());
+        Assertions.assertNull(
+            new TreeScope(true, null, 0).select(original, TreeScopeTest.tree("a", "b"))
+        );
+    }
+
+    /**
+     * Test that a named declaration is selected.
+     */
+    @Test
+    void testNamed() {
+        final Node original = TreeScopeTest.tree("a", "b");
+        final Node result = TreeScopeTest.tree("x", "y");
+        final Node selected = new TreeScope(false, "second", 0).select(original, result);
+        Assertions.assertSame(result.getChild(1), selected);
+        final Node changed = new TreeScope(true, "first", 0).select(original, result);
+        Assertions.assertEquals("x", changed.getData());
+        Assertions.assertNull(new TreeScope(false, "third", 0).select(original, result));
+    }
+
+    /**
+     * Test that a tree is cut off at the maximum depth.
+     */
+    @Test
+    void testDepth() {
+        final Node result = TreeScopeTest.tree("x", "y");
+        final Node selected = new TreeScope(false, null, 1).select(result, result);
+        Assertions.assertEquals(2, selected.getChildCount());
+        final Node method = selected.getChild(0);
+        Assertions.assertEquals(TreeScopeTest.METHOD, method.getTypeName());
+        Assertions.assertEquals(1, method.getChildCount());
+        final Node pruned = method.getChild(0);
+        Assertions.assertEquals("Pruned", pruned.getTypeName());
+        Assertions.assertEquals("2 children", pruned.getData());
+        Assertions.assertEquals(0, pruned.getChildCount());
+        Assertions.assertEquals(
+            0,
+            new PrunedNode(TreeFixture.node(TreeScopeTest.IDENTIFIER, "z"), 0).getChildCount()
+        );
+    }
+
+    /**
+     * Creates a tree of a class with two methods, each one returns an identifier.
+     * @param first The identifier returned by the first method
+     * @param second The identifier returned by the second method
+     * @return The root of the tree
+     */
+    private static Node tree(final String first, final String second) {
+        return TreeFixture.node(
+            "ClassDeclaration", "",
+            TreeFixture.node(
+                TreeScopeTest.METHOD, "",
+                TreeFixture.node(TreeScopeTest.IDENTIFIER, "first"),
+                TreeFixture.node(
+                    TreeScopeTest.RETURN, "", TreeFixture.node(TreeScopeTest.IDENTIFIER, first)
+                )
+            ),
+            TreeFixture.node(
+                TreeScopeTest.METHOD, "",
+                TreeFixture.node(TreeScopeTest.IDENTIFIER, "second"),
+                TreeFixture.node(
+                    TreeScopeTest.RETURN, "", TreeFixture.node(TreeScopeTest.IDENTIFIER, second)
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link CodeFileWriter} class.
+ *
+ * @since 0.1
+ */
+class CodeFileWriterTest {
+    /**
+     * Test that a text longer than a chunk is written in UTF-8 into a nested directory.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testWriteLongText(@TempDir final Path directory) throws IOException {
+        final StringBuilder code = new StringBuilder();
+        for (int index = 0; index < 5000; index = index + 1) {
+            code.append("String s").append(index).append(" = \"\u00e9\u4e2d\";\n");
+        }
+        final Path file = directory.resolve("a").resolve("b").resolve("Main.java");
+        new CodeFileWriter(file).write(code);
+        Assertions.assertArrayEquals(
+            code.toString().getBytes(StandardCharsets.UTF_8),
+            Files.readAllBytes(file)
+        );
+    }
+
+    /**
+     * Test that an existing file is overwritten.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testOverwrite(@TempDir final Path directory) throws IOException {
+        final Path file = directory.resolve("Main.java");
+        new CodeFileWriter(file).write("class A {}\nclass B {}\n");
+        new CodeFileWriter(file).write("class C {}\n");
+        Assertions.assertEquals(
+            "class C {}\n",
+            new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Test that a file is copied byte by byte and that copying a file onto itself
+     * keeps its content.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testCopy(@TempDir final Path directory) throws IOException {
+        final byte[] content = new byte[100_000];
+        for (int index = 0; index < content.length; index = index + 1) {
+            content[index] = (byte) (index * 31);
+        }
+        final Path source = directory.resolve("Main.java");
+        Files.write(source, content);
+        final Path target = directory.resolve("out").resolve("Main.java");
+        new CodeFileWriter(target).write("class C {}\n");
+        new CodeFileWriter(target).copy(source);
+        Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+        new CodeFileWriter(source).copy(source);
+        Assertions.assertArrayEquals(content, Files.readAllBytes(source));
+    }
+}
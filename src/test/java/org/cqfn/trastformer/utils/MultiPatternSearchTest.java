@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MultiPatternSearch} class.
+ *
+ * @since 0.1
+ */
+class MultiPatternSearchTest {
+    /**
+     * Test that overlapping patterns and patterns that are suffixes of others are found.
+     */
+    @Test
+    void testOverlapping() {
+        final MultiPatternSearch search = new MultiPatternSearch(
+            MultiPatternSearchTest.patterns("he", "she", "his", "hers")
+        );
+        final ByteBuffer buffer = ByteBuffer.wrap("ushers".getBytes(StandardCharsets.UTF_8));
+        final BitSet found = search.find(buffer);
+        Assertions.assertTrue(found.get(0));
+        Assertions.assertTrue(found.get(1));
+        Assertions.assertFalse(found.get(2));
+        Assertions.assertTrue(found.get(3));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    /**
+     * Test that the result is the same as searching for each pattern separately.
+     */
+    @Test
+    void testSameAsNaiveSearch() {
+        final Random random = new Random(0);
+        for (int attempt = 0; attempt < 200; attempt = attempt + 1) {
+            final List<byte[]> patterns = new ArrayList<>(0);
+            final int count = 1 + random.nextInt(6);
+            for (int index = 0; index < count; index = index + 1) {
+                patterns.add(MultiPatternSearchTest.random(random, 1 + random.nextInt(4)));
+            }
+            final byte[] content = MultiPatternSearchTest.random(random, random.nextInt(60));
+            final BitSet found = new MultiPatternSearch(patterns).find(ByteBuffer.wrap(content));
+            for (int index = 0; index < count; index = index + 1) {
+                Assertions.assertEquals(
+                    new String(content, StandardCharsets.ISO_8859_1)
+                        .contains(new String(patterns.get(index), StandardCharsets.ISO_8859_1)),
+                    found.get(index)
+                );
+            }
+        }
+    }
+
+    /**
+     * Converts strings to patterns.
+     * @param strings The strings
+     * @return The patterns
+     */
+    private static List<byte[]> patterns(final String... strings) {
+        final List<byte[]> patterns = new ArrayList<>(strings.length);
+        for (final String string : strings) {
+            patterns.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        return patterns;
+    }
+
+    /**
+     * Creates random bytes from a small alphabet, including bytes above 127.
+     * @param random The random number generator
+     * @param length The number of bytes
+     * @return The bytes
+     */
+    private static byte[] random(final Random random, final int length) {
+        final byte[] bytes = new byte[length];
+        for (int index = 0; index < length; index = index + 1) {
+            bytes[index] = (byte) (0xFD + random.nextInt(4));
+        }
+        return bytes;
+    }
+}
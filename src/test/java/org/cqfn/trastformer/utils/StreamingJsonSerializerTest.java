@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.JsonSerializer;
+import org.cqfn.trastformer.TreeFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link StreamingJsonSerializer} class.
+ *
+ * @since 0.1
+ */
+class StreamingJsonSerializerTest {
+    /**
+     * Test that the pretty output is the same as the output of the astranaut serializer.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testSameAsJsonSerializer(@TempDir final Path directory) throws IOException {
+        final Node tree = StreamingJsonSerializerTest.tree();
+        final Path file = directory.resolve("nested").resolve("ast.json");
+        new StreamingJsonSerializer(tree, true).serializeToFile(file);
+        Assertions.assertEquals(
+            new JsonSerializer(tree).serialize(),
+            new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Test the compact output.
+     */
+    @Test
+    void testCompact() throws IOException {
+        final StringWriter writer = new StringWriter();
+        new StreamingJsonSerializer(StreamingJsonSerializerTest.tree(), false).serialize(writer);
+        Assertions.assertEquals(
+            String.join(
+                "",
+                "{\"root\":{\"type\":\"Assignment\",\"children\":[",
+                "{\"type\":\"Identifier\",\"data\":\"x\"},",
+                "{\"type\":\"StringLiteral\",\"data\":\"\\u003ca \\u003d \\\"b\\\"\\u003e\"}",
+                "]}}"
+            ),
+            writer.toString()
+        );
+    }
+
+    /**
+     * Creates a tree with data that needs escaping.
+     * @return The root of the tree
+     */
+    private static Node tree() {
+        return TreeFixture.node(
+            "Assignment",
+            "",
+            TreeFixture.node("Identifier", "x"),
+            TreeFixture.node("StringLiteral", "<a = \"b\">")
+        );
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UnifiedDiff} class.
+ *
+ * @since 0.1
+ */
+class UnifiedDiffTest {
+    /**
+     * Test that distant changes are written as separate hunks with context lines.
+     */
+    @Test
+    void testHunks() {
+        final StringBuilder before = new StringBuilder();
+        for (int index = 1; index <= 20; index = index + 1) {
+            before.append("line ").append(index).append('\n');
+        }
+        final String after = before.toString()
+            .replace("line 2\n", "line two\n")
+            .replace("line 15\n", "")
+            .concat("line 21\n");
+        final UnifiedDiff diff = new UnifiedDiff(before.toString(), after);
+        Assertions.assertFalse(diff.isEmpty());
+        Assertions.assertEquals(
+            String.join(
+                "\n",
+                "--- A.java",
+                "+++ B.java",
+                "@@ -1,5 +1,5 @@",
+                " line 1",
+                "-line 2",
+                "+line two",
+                " line 3",
+                " line 4",
+                " line 5",
+                "@@ -12,9 +12,9 @@",
+                " line 12",
+                " line 13",
+                " line 14",
+                "-line 15",
+                " line 16",
+                " line 17",
+                " line 18",
+                " line 19",
+                " line 20",
+                "+line 21",
+                ""
+            ),
+            diff.format("A.java", "B.java")
+        );
+    }
+
+    /**
+     * Test that a missing line break at the end of a text is marked.
+     */
+    @Test
+    void testNoNewlineAtEnd() {
+        Assertions.assertEquals(
+            String.join(
+                "\n",
+                "--- a",
+                "+++ b",
+                "@@ -1,2 +1,2 @@",
+                " int x;",
+                "-int y;",
+                "\\ No newline at end of file",
+                "+int y;",
+                ""
+            ),
+            new UnifiedDiff("int x;\nint y;", "int x;\nint y;\n").format("a", "b")
+        );
+    }
+
+    /**
+     * Test that the same texts have no differences.
+     */
+    @Test
+    void testSameTexts() {
+        final UnifiedDiff diff = new UnifiedDiff("a\nb\n", "a\nb\n");
+        Assertions.assertTrue(diff.isEmpty());
+        Assertions.assertEquals("", diff.format("a", "b"));
+    }
+}
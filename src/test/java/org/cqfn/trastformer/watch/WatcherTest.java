@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.trastformer.watch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.cqfn.trastformer.Pipeline;
+import org.cqfn.trastformer.Processors;
+import org.cqfn.trastformer.Task;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link Watcher} class.
+ *
+ * @since 0.1
+ */
+class WatcherTest {
+    /**
+     * Test that changed rules are applied to kept trees and a changed source is parsed again.
+     * @param directory A temporary directory
+     */
+    @Test
+    void testUpdate(@TempDir final Path directory) throws IOException {
+        final Path source = directory.resolve("source.java").toAbsolutePath().normalize();
+        Files.write(
+            source,
+            Collections.singletonList("class X{public int calc(){return 2 + 3;}}")
+        );
+        final Path rules = directory.resolve("rules.dsl").toAbsolutePath().normalize();
+        Files.write(
+            rules,
+            Collections.singletonList("Addition(#1, #2) -> Subtraction(#1, #2);")
+        );
+        final Path output = directory.resolve("output.java");
+        final Watcher watcher = new Watcher(
+            () -> new Pipeline(new Processors(rules.toFile())),
+            Collections.singletonList(rules),
+            source,
+            path -> new Task(path.toFile(), "java", output.toFile())
+        );
+        watcher.scan();
+        Assertions.assertTrue(WatcherTest.read(output).contains("-"));
+        Files.write(
+            source,
+            Collections.singletonList("class Y{public int calc(){return 2 + 3;}}")
+        );
+        Files.write(
+            rules,
+            Collections.singletonList("Addition(#1, #2) -> Multiplication(#1, #2);")
+        );
+        watcher.update(Collections.singletonList(rules));
+        String code = WatcherTest.read(output);
+        Assertions.assertTrue(code.contains("*"));
+        Assertions.assertTrue(code.contains("X"));
+        watcher.update(Collections.singletonList(source));
+        code = WatcherTest.read(output);
+        Assertions.assertTrue(code.contains("*"));
+        Assertions.assertTrue(code.contains("Y"));
+    }
+
+    /**
+     * Reads a file.
+     * @param path The path to the file
+     * @return The content
+     * @throws IOException If the file cannot be read
+     */
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}